@@ -1,7 +1,107 @@
 package org.example;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import org.example.driver.AotTraining;
+import org.example.driver.DriverOptions;
+import org.example.driver.LoadDriver;
+import org.example.driver.SpillBenchmark;
+import org.example.driver.StartupBenchmark;
+
+/**
+ * Load driver entry point: runs named pipelines against synthetic input and prints throughput,
+ * batch latency and allocation rate. Run with {@code --help} for the options and the AOT cache
+ * modes.
+ */
 public class Main {
     static void main(String[] args) {
-        System.out.println("Hello world!");
+        String mode = args.length == 0 ? "" : args[0];
+        switch (mode) {
+            case "--help", "-h" -> System.out.println(DriverOptions.usage());
+            case "--train" -> System.out.println("Trained on " + AotTraining.train() + " runs");
+            case "--first-result" -> AotTraining.firstResult(System.out);
+            case "--startup-benchmark" -> startupBenchmark(args);
+            case "--spill-benchmark" -> spillBenchmark(args);
+            default -> drive(args);
+        }
+    }
+
+    private static void drive(String[] args) {
+        DriverOptions options;
+        try {
+            options = DriverOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            exitWithUsage(e.getMessage());
+            return;
+        }
+        try (LoadDriver driver = new LoadDriver(options)) {
+            driver.runAll(System.out);
+        }
+    }
+
+    private static void startupBenchmark(String[] args) {
+        if (args.length < 2 || args.length > 3) {
+            exitWithUsage("--startup-benchmark needs a cache path");
+            return;
+        }
+        Path cache = Path.of(args[1]);
+        int runs;
+        try {
+            runs = args.length == 3 ? Integer.parseInt(args[2]) : 5;
+        } catch (NumberFormatException e) {
+            exitWithUsage("--startup-benchmark run count is not a number: " + args[2]);
+            return;
+        }
+        if (runs < 1) {
+            exitWithUsage("--startup-benchmark run count must be positive: " + runs);
+            return;
+        }
+        StartupBenchmark benchmark = StartupBenchmark.forCurrentJvm();
+        print("no cache", benchmark.measure(null, runs));
+        if (!StartupBenchmark.aotSupported()) {
+            System.out.println("AOT cache needs JDK " + StartupBenchmark.AOT_MIN_FEATURE + "+");
+            return;
+        }
+        if (!benchmark.aotApplicable()) {
+            System.out.println("AOT cache only stores classes from JARs; run the packaged JAR");
+            return;
+        }
+        if (!Files.exists(cache)) {
+            benchmark.train(cache);
+        }
+        print("AOT cache", benchmark.measure(cache, runs));
+    }
+
+    private static void spillBenchmark(String[] args) {
+        if (args.length > 2) {
+            exitWithUsage("--spill-benchmark takes at most a heap multiple");
+            return;
+        }
+        int heapMultiple;
+        try {
+            heapMultiple = args.length == 2
+                ? Integer.parseInt(args[1]) : SpillBenchmark.DEFAULT_HEAP_MULTIPLE;
+        } catch (NumberFormatException e) {
+            exitWithUsage("--spill-benchmark heap multiple is not a number: " + args[1]);
+            return;
+        }
+        if (heapMultiple < 1) {
+            exitWithUsage("--spill-benchmark heap multiple must be positive: " + heapMultiple);
+            return;
+        }
+        System.out.println(SpillBenchmark.run(SpillBenchmark.elementsFor(heapMultiple)).format());
+    }
+
+    private static void print(String label, StartupBenchmark.Result result) {
+        System.out.println(String.format(Locale.ROOT,
+            "%-10s first result %8.1f ms, exit %8.1f ms (median of %d)",
+            label, result.firstResultMillis(), result.wallMillis(), result.runs()));
+    }
+
+    private static void exitWithUsage(String message) {
+        System.err.println(message);
+        System.err.println(DriverOptions.usage());
+        System.exit(2);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,20 @@
+package org.example.cache;
+
+/**
+ * Counters of a {@link TinyLfuCache} since it was created.
+ *
+ * @param hits        lookups served from the cache
+ * @param misses      lookups that had to compute the value
+ * @param evictions   entries dropped by the size policy
+ * @param expirations entries dropped because they outlived expire-after-write
+ */
+public record CacheStats(long hits, long misses, long evictions, long expirations) {
+  public long requests() {
+    return hits + misses;
+  }
+
+  public double hitRate() {
+    long requests = requests();
+    return requests == 0 ? 1.0 : (double) hits / requests;
+  }
+}
@@ -0,0 +1,78 @@
+package org.example.cache;
+
+/**
+ * Approximate access counts for the TinyLFU admission policy: a count-min sketch of 4-bit
+ * counters, sixteen packed per {@code long}. Every key maps to four counters and its frequency
+ * is the smallest of them. After {@code 10 * maximumSize} increments all counters are halved, so
+ * old popularity fades out.
+ *
+ * <p>Not thread-safe; {@link TinyLfuCache} only touches it under its policy lock.
+ */
+final class FrequencySketch {
+  private static final long[] SEEDS = {
+      0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+  private static final long RESET_MASK = 0x7777777777777777L;
+  private static final int MAX_COUNT = 15;
+
+  private final long[] table;
+  private final int counterMask;
+  private final int sampleSize;
+  private int additions;
+
+  FrequencySketch(int maximumSize) {
+    int longs = Integer.highestOneBit(Math.max(8, maximumSize) - 1) << 1;
+    this.table = new long[longs];
+    this.counterMask = longs * 16 - 1;
+    this.sampleSize = Math.max(10, 10 * maximumSize);
+  }
+
+  int frequency(Object key) {
+    int hash = spread(key.hashCode());
+    int frequency = MAX_COUNT;
+    for (int i = 0; i < SEEDS.length; i++) {
+      int counter = counterIndex(hash, i);
+      frequency = Math.min(frequency, (int) (table[counter >>> 4] >>> shift(counter)) & 0xF);
+    }
+    return frequency;
+  }
+
+  void increment(Object key) {
+    int hash = spread(key.hashCode());
+    boolean added = false;
+    for (int i = 0; i < SEEDS.length; i++) {
+      int counter = counterIndex(hash, i);
+      int slot = counter >>> 4;
+      int shift = shift(counter);
+      if (((table[slot] >>> shift) & 0xF) < MAX_COUNT) {
+        table[slot] += 1L << shift;
+        added = true;
+      }
+    }
+    if (added && ++additions == sampleSize) {
+      reset();
+    }
+  }
+
+  private void reset() {
+    for (int i = 0; i < table.length; i++) {
+      table[i] = (table[i] >>> 1) & RESET_MASK;
+    }
+    additions /= 2;
+  }
+
+  private int counterIndex(int hash, int row) {
+    long h = (hash + SEEDS[row]) * SEEDS[row];
+    h += h >>> 32;
+    return (int) h & counterMask;
+  }
+
+  private static int shift(int counter) {
+    return (counter & 15) << 2;
+  }
+
+  private static int spread(int x) {
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    return (x >>> 16) ^ x;
+  }
+}
@@ -0,0 +1,241 @@
+package org.example.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded concurrent cache with the W-TinyLFU policy.
+ *
+ * <p>New entries land in a small LRU window (1% of the capacity). An entry leaving the window
+ * competes with the oldest entry of the main space's probation segment, and only the one a
+ * {@link FrequencySketch} has seen more often stays. Entries hit again while on probation are
+ * promoted to the protected segment (80% of the main space). This keeps popular keys of skewed
+ * workloads cached while one-off keys pass through the window only.
+ *
+ * <p>Reads are a {@link ConcurrentHashMap} lookup. Updating the policy for a hit only happens if
+ * the policy lock is free ({@code tryLock}), otherwise the access is not recorded; readers
+ * never block. Misses compute the value outside any lock, so two threads missing on the same
+ * key may both call the loader, and then register the entry under the lock.
+ *
+ * @param <K> key type
+ * @param <V> value type, must not be null
+ */
+public class TinyLfuCache<K, V> {
+  private static final int WINDOW_PERCENT = 1;
+  private static final int PROTECTED_PERCENT = 80;
+
+  private final ConcurrentHashMap<K, Node<K, V>> data = new ConcurrentHashMap<>();
+  private final ReentrantLock policyLock = new ReentrantLock();
+  private final FrequencySketch sketch;
+  private final LinkedHashSet<Node<K, V>> window = new LinkedHashSet<>();
+  private final LinkedHashSet<Node<K, V>> probation = new LinkedHashSet<>();
+  private final LinkedHashSet<Node<K, V>> protectedSegment = new LinkedHashSet<>();
+  private final int windowMax;
+  private final int mainMax;
+  private final int protectedMax;
+  private final long expireAfterWriteNanos;
+  private final LongSupplier ticker;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder expirations = new LongAdder();
+
+  public TinyLfuCache(int maximumSize) {
+    this(maximumSize, null, System::nanoTime);
+  }
+
+  public TinyLfuCache(int maximumSize, Duration expireAfterWrite) {
+    this(maximumSize, expireAfterWrite, System::nanoTime);
+  }
+
+  /**
+   * @param expireAfterWrite entries older than this are reloaded; null disables expiry
+   * @param ticker           nanosecond time source used for expiry
+   */
+  public TinyLfuCache(int maximumSize, Duration expireAfterWrite, LongSupplier ticker) {
+    if (maximumSize < 1) {
+      throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+    }
+    this.sketch = new FrequencySketch(maximumSize);
+    this.windowMax = Math.max(1, maximumSize * WINDOW_PERCENT / 100);
+    this.mainMax = maximumSize - windowMax;
+    this.protectedMax = mainMax * PROTECTED_PERCENT / 100;
+    this.expireAfterWriteNanos = expireAfterWrite == null ? -1 : expireAfterWrite.toNanos();
+    this.ticker = ticker;
+  }
+
+  /**
+   * Returns the cached value for {@code key}, computing and caching it with {@code loader} on a
+   * miss.
+   */
+  public V get(K key, Function<? super K, ? extends V> loader) {
+    V cached = getIfPresent(key);
+    if (cached != null) {
+      return cached;
+    }
+    misses.increment();
+    V value = Objects.requireNonNull(loader.apply(key), "loader returned null");
+    Node<K, V> node = new Node<>(key, value, ticker.getAsLong());
+    Node<K, V> raced = data.putIfAbsent(key, node);
+    if (raced != null) {
+      return raced.value;
+    }
+    policyLock.lock();
+    try {
+      onInsert(node);
+    } finally {
+      policyLock.unlock();
+    }
+    return value;
+  }
+
+  /**
+   * Returns the cached value, or null without counting a miss.
+   */
+  public V getIfPresent(K key) {
+    Node<K, V> node = data.get(key);
+    if (node == null) {
+      return null;
+    }
+    if (isExpired(node)) {
+      if (data.remove(key, node)) {
+        expirations.increment();
+        policyLock.lock();
+        try {
+          unlink(node);
+        } finally {
+          policyLock.unlock();
+        }
+      }
+      return null;
+    }
+    hits.increment();
+    if (policyLock.tryLock()) {
+      try {
+        onAccess(node);
+      } finally {
+        policyLock.unlock();
+      }
+    }
+    return node.value;
+  }
+
+  public int size() {
+    return data.size();
+  }
+
+  public CacheStats stats() {
+    return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), expirations.sum());
+  }
+
+  private boolean isExpired(Node<K, V> node) {
+    return expireAfterWriteNanos >= 0
+        && ticker.getAsLong() - node.writeNanos >= expireAfterWriteNanos;
+  }
+
+  private void onAccess(Node<K, V> node) {
+    sketch.increment(node.key);
+    switch (node.segment) {
+      case WINDOW -> moveToTail(window, node);
+      case PROBATION -> {
+        probation.remove(node);
+        node.segment = Segment.PROTECTED;
+        protectedSegment.add(node);
+        if (protectedSegment.size() > protectedMax) {
+          Node<K, V> demoted = removeFirst(protectedSegment);
+          demoted.segment = Segment.PROBATION;
+          probation.add(demoted);
+        }
+      }
+      case PROTECTED -> moveToTail(protectedSegment, node);
+      case NONE -> {
+        // already evicted or expired, nothing to reorder
+      }
+    }
+  }
+
+  private void onInsert(Node<K, V> node) {
+    sketch.increment(node.key);
+    if (data.get(node.key) != node) {
+      // expired and removed between putIfAbsent and taking the lock; linking it would leak it
+      return;
+    }
+    node.segment = Segment.WINDOW;
+    window.add(node);
+    if (window.size() <= windowMax) {
+      return;
+    }
+    Node<K, V> candidate = removeFirst(window);
+    if (probation.size() + protectedSegment.size() < mainMax) {
+      candidate.segment = Segment.PROBATION;
+      probation.add(candidate);
+      return;
+    }
+    Node<K, V> victim = probation.isEmpty() ? null : probation.getFirst();
+    if (victim != null && sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+      evict(victim);
+      candidate.segment = Segment.PROBATION;
+      probation.add(candidate);
+    } else {
+      candidate.segment = Segment.NONE;
+      evict(candidate);
+    }
+  }
+
+  private void evict(Node<K, V> node) {
+    unlink(node);
+    if (data.remove(node.key, node)) {
+      evictions.increment();
+    }
+  }
+
+  private void unlink(Node<K, V> node) {
+    switch (node.segment) {
+      case WINDOW -> window.remove(node);
+      case PROBATION -> probation.remove(node);
+      case PROTECTED -> protectedSegment.remove(node);
+      case NONE -> {
+        // not linked
+      }
+    }
+    node.segment = Segment.NONE;
+  }
+
+  private static <N> void moveToTail(LinkedHashSet<N> segment, N node) {
+    segment.remove(node);
+    segment.add(node);
+  }
+
+  private static <N> N removeFirst(LinkedHashSet<N> segment) {
+    Iterator<N> it = segment.iterator();
+    N first = it.next();
+    it.remove();
+    return first;
+  }
+
+  private enum Segment { NONE, WINDOW, PROBATION, PROTECTED }
+
+  /**
+   * Cache entry; identity equality so it can be linked into the segment sets.
+   */
+  private static final class Node<K, V> {
+    private final K key;
+    private final V value;
+    private final long writeNanos;
+    private Segment segment = Segment.NONE;
+
+    Node(K key, V value, long writeNanos) {
+      this.key = key;
+      this.value = value;
+      this.writeNanos = writeNanos;
+    }
+  }
+}
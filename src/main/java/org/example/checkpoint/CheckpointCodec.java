@@ -0,0 +1,92 @@
+package org.example.checkpoint;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incremental binary encoding of gatherer state for {@link CheckpointStore}.
+ *
+ * <p>A checkpoint file is a log of segments. Each segment holds what changed since the previous
+ * one, as decided by the codec through a watermark it chooses itself, e.g. the list size already
+ * written for append-only state. Recovery starts from {@link #empty()} and applies the segments
+ * in order.
+ *
+ * @param <S> state type
+ */
+public interface CheckpointCodec<S> {
+  S empty();
+
+  /**
+   * Writes the changes of {@code state} after {@code watermark} (0 for the first segment).
+   *
+   * @return watermark to pass with the next segment
+   */
+  long writeSince(S state, long watermark, DataOutput out) throws IOException;
+
+  /**
+   * Applies one segment written by {@link #writeSince} to {@code state}.
+   */
+  void apply(S state, DataInput in) throws IOException;
+
+  /**
+   * Append-only {@code List<Integer>}, such as the running-total state. Segments hold only the
+   * elements added since the previous checkpoint.
+   */
+  static CheckpointCodec<List<Integer>> appendOnlyIntList() {
+    return new CheckpointCodec<>() {
+      @Override
+      public List<Integer> empty() {
+        return new ArrayList<>();
+      }
+
+      @Override
+      public long writeSince(List<Integer> state, long watermark, DataOutput out)
+          throws IOException {
+        int size = state.size();
+        out.writeInt(size - (int) watermark);
+        for (int i = (int) watermark; i < size; i++) {
+          out.writeInt(state.get(i));
+        }
+        return size;
+      }
+
+      @Override
+      public void apply(List<Integer> state, DataInput in) throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+          state.add(in.readInt());
+        }
+      }
+    };
+  }
+
+  /**
+   * Fixed-size {@code int[]} state, such as a counter; every segment is a full copy.
+   */
+  static CheckpointCodec<int[]> intArray(int length) {
+    return new CheckpointCodec<>() {
+      @Override
+      public int[] empty() {
+        return new int[length];
+      }
+
+      @Override
+      public long writeSince(int[] state, long watermark, DataOutput out) throws IOException {
+        for (int value : state) {
+          out.writeInt(value);
+        }
+        return 0;
+      }
+
+      @Override
+      public void apply(int[] state, DataInput in) throws IOException {
+        for (int i = 0; i < state.length; i++) {
+          state[i] = in.readInt();
+        }
+      }
+    };
+  }
+}
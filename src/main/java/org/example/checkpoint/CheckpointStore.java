@@ -0,0 +1,302 @@
+package org.example.checkpoint;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only checkpoint log in a local file.
+ *
+ * <p>Segment layout: 8-byte source offset, 4-byte payload length, payload, 4-byte CRC32C of the
+ * payload. Appends are handed to a background virtual thread that keeps the file open, so the
+ * stream thread only pays for encoding the (incremental) payload. At most
+ * {@link #MAX_PENDING_WRITES} segments wait for the disk; further appends block. A segment torn
+ * by a crash fails its length or CRC check; {@link #recover()} stops there and truncates the
+ * file, so later appends stay readable.
+ *
+ * <p>The first failed write poisons the store: later segments are dropped and every following
+ * {@link #append}, {@link #flush()} and {@link #close()} throws, because a segment applied on top
+ * of a missing one would recover a wrong state. {@link #compact} replaces the whole log with one
+ * full segment, so the log does not grow without bound.
+ *
+ * @param <S> state type
+ */
+public class CheckpointStore<S> implements AutoCloseable {
+  /** Segments queued for the writer before {@link #append} blocks. */
+  public static final int MAX_PENDING_WRITES = 4;
+
+  private static final int HEADER_BYTES = Long.BYTES + Integer.BYTES;
+
+  private final Path file;
+  private final CheckpointCodec<S> codec;
+  private final ExecutorService writer = Executors.newSingleThreadExecutor(
+      Thread.ofVirtual().name("checkpoint-writer").factory());
+  private final Semaphore pending = new Semaphore(MAX_PENDING_WRITES);
+  // only touched on the writer thread
+  private FileChannel channel;
+  private volatile IOException failure;
+  private Future<?> lastWrite;
+  private long logBytes;
+
+  public CheckpointStore(Path file, CheckpointCodec<S> codec) {
+    this.file = file;
+    this.codec = codec;
+  }
+
+  public CheckpointCodec<S> codec() {
+    return codec;
+  }
+
+  /**
+   * Rebuilds the state from all intact segments.
+   *
+   * @return empty state and offset 0 when there is no checkpoint yet
+   */
+  public Recovered<S> recover() {
+    onWriter(this::closeChannel);
+    S state = codec.empty();
+    long offset = 0;
+    if (!Files.exists(file)) {
+      setLogBytes(0);
+      return new Recovered<>(state, offset);
+    }
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ,
+        StandardOpenOption.WRITE)) {
+      var in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+      long validBytes = 0;
+      while (true) {
+        long segmentOffset;
+        byte[] payload;
+        try {
+          segmentOffset = in.readLong();
+          int length = in.readInt();
+          if (length < 0 || length > channel.size()) {
+            break;
+          }
+          payload = in.readNBytes(length);
+          if (payload.length < length || in.readInt() != crc(payload)) {
+            break;
+          }
+        } catch (EOFException e) {
+          break;
+        }
+        codec.apply(state, new DataInputStream(new ByteArrayInputStream(payload)));
+        offset = segmentOffset;
+        validBytes += segmentBytes(payload);
+      }
+      if (validBytes < channel.size()) {
+        channel.truncate(validBytes);
+      }
+      setLogBytes(validBytes);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to recover checkpoint " + file, e);
+    }
+    return new Recovered<>(state, offset);
+  }
+
+  /**
+   * Queues a segment; returns immediately unless {@link #MAX_PENDING_WRITES} segments are still
+   * waiting for the disk.
+   *
+   * @param sourceOffset number of source elements reflected in the state after this segment
+   * @throws UncheckedIOException if an earlier write failed
+   */
+  public void append(long sourceOffset, byte[] payload) {
+    enqueue(segmentBytes(payload), false, () -> write(sourceOffset, payload));
+  }
+
+  /**
+   * Queues a replacement of the whole log by one segment holding the full state, as written by
+   * {@link CheckpointCodec#writeSince} from watermark 0. The old log stays in place until the new
+   * one is on disk.
+   *
+   * @throws UncheckedIOException if an earlier write failed
+   */
+  public void compact(long sourceOffset, byte[] fullPayload) {
+    enqueue(segmentBytes(fullPayload), true, () -> rewrite(sourceOffset, fullPayload));
+  }
+
+  /**
+   * Bytes in the log once the queued segments are written.
+   */
+  public synchronized long logBytes() {
+    return logBytes;
+  }
+
+  /**
+   * Waits until every queued segment is on disk.
+   *
+   * @throws UncheckedIOException if any write failed
+   */
+  public void flush() {
+    Future<?> last;
+    synchronized (this) {
+      last = lastWrite;
+    }
+    if (last != null) {
+      try {
+        last.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (ExecutionException e) {
+        throw new UncheckedIOException("Checkpoint writer failed", new IOException(e.getCause()));
+      }
+    }
+    checkFailure();
+  }
+
+  /**
+   * Deletes the checkpoint, e.g. after the pipeline completed.
+   */
+  public void delete() {
+    flush();
+    onWriter(this::closeChannel);
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    setLogBytes(0);
+  }
+
+  @Override
+  public void close() {
+    try {
+      flush();
+    } finally {
+      onWriter(this::closeChannel);
+      writer.shutdown();
+    }
+  }
+
+  private void enqueue(long bytes, boolean replacesLog, IoTask task) {
+    checkFailure();
+    pending.acquireUninterruptibly();
+    synchronized (this) {
+      try {
+        lastWrite = writer.submit(() -> {
+          try {
+            // a segment after a failed one would recover on top of a gap
+            if (failure == null) {
+              task.run();
+            }
+          } catch (IOException e) {
+            failure = e;
+          } finally {
+            pending.release();
+          }
+        });
+      } catch (RejectedExecutionException e) {
+        pending.release();
+        throw new IllegalStateException("Checkpoint store is closed: " + file, e);
+      }
+      logBytes = replacesLog ? bytes : logBytes + bytes;
+    }
+  }
+
+  private void checkFailure() {
+    IOException first = failure;
+    if (first != null) {
+      throw new UncheckedIOException("Checkpoint write failed for " + file, first);
+    }
+  }
+
+  private synchronized void setLogBytes(long bytes) {
+    logBytes = bytes;
+  }
+
+  // runs on the writer thread, after everything queued before it
+  private void onWriter(IoTask task) {
+    try {
+      writer.submit(() -> {
+        task.run();
+        return null;
+      }).get();
+    } catch (RejectedExecutionException _) {
+      // closed: the channel was closed on the way
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      throw new UncheckedIOException("Checkpoint writer failed", new IOException(e.getCause()));
+    }
+  }
+
+  private void write(long sourceOffset, byte[] payload) throws IOException {
+    if (channel == null) {
+      channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+          StandardOpenOption.APPEND);
+    }
+    writeSegment(channel, sourceOffset, payload);
+  }
+
+  private void rewrite(long sourceOffset, byte[] payload) throws IOException {
+    Path compacted = file.resolveSibling(file.getFileName() + ".compact");
+    try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      writeSegment(out, sourceOffset, payload);
+    }
+    closeChannel();
+    Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  private void closeChannel() throws IOException {
+    if (channel != null) {
+      try {
+        channel.close();
+      } finally {
+        channel = null;
+      }
+    }
+  }
+
+  private static void writeSegment(FileChannel target, long sourceOffset, byte[] payload)
+      throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate((int) segmentBytes(payload));
+    buffer.putLong(sourceOffset).putInt(payload.length).put(payload).putInt(crc(payload));
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      target.write(buffer);
+    }
+    target.force(false);
+  }
+
+  private static long segmentBytes(byte[] payload) {
+    return HEADER_BYTES + (long) payload.length + Integer.BYTES;
+  }
+
+  private static int crc(byte[] payload) {
+    CRC32C crc = new CRC32C();
+    crc.update(payload);
+    return (int) crc.getValue();
+  }
+
+  /**
+   * State rebuilt from a checkpoint and the number of source elements it covers; resume by
+   * skipping that many source elements.
+   */
+  public record Recovered<S>(S state, long offset) {
+  }
+
+  @FunctionalInterface
+  private interface IoTask {
+    void run() throws IOException;
+  }
+}
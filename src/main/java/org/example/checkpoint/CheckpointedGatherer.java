@@ -0,0 +1,112 @@
+package org.example.checkpoint;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.BiConsumer;
+import java.util.stream.Gatherer;
+
+/**
+ * Sequential gatherer whose state survives a crash.
+ *
+ * <p>The initializer recovers the state from the {@link CheckpointStore}; every
+ * {@code interval} elements the integrator encodes the changes since the previous checkpoint
+ * and queues them for the background writer. Once the log has grown to
+ * {@value #COMPACTION_RATIO} times the size of the last full segment, the checkpoint writes the
+ * full state instead and {@linkplain CheckpointStore#compact compacts} the log to it, so the log
+ * and recovery stay proportional to the state. To resume, skip the elements the checkpoint
+ * already covers:
+ *
+ * <pre>{@code
+ * long done = store.recover().offset();
+ * source.stream().skip(done).gather(CheckpointedGatherer.of(store, integrator, finisher, 10_000))
+ * }</pre>
+ */
+public class CheckpointedGatherer {
+  /** Log size, as a multiple of the last full segment, that triggers a compaction. */
+  public static final int COMPACTION_RATIO = 4;
+
+  // keeps small states from compacting at every checkpoint
+  private static final long MIN_COMPACTION_BYTES = 64 * 1024;
+
+  private CheckpointedGatherer() {
+    // Utility class, prevent instantiation
+  }
+
+  public static <T, S, R> Gatherer<T, ?, R> of(
+      CheckpointStore<S> store,
+      Gatherer.Integrator<S, T, R> integrator,
+      BiConsumer<S, Gatherer.Downstream<? super R>> finisher,
+      long interval) {
+    if (interval < 1) {
+      throw new IllegalArgumentException("interval must be positive: " + interval);
+    }
+    return Gatherer.ofSequential(
+        () -> new Progress<>(store),
+        (Progress<S> progress, T element, Gatherer.Downstream<? super R> downstream) -> {
+          boolean more = integrator.integrate(progress.state, element, downstream);
+          if (++progress.offset % interval == 0) {
+            progress.checkpoint();
+          }
+          return more;
+        },
+        (Progress<S> progress, Gatherer.Downstream<? super R> downstream) -> {
+          progress.checkpoint();
+          progress.store.flush();
+          finisher.accept(progress.state, downstream);
+        });
+  }
+
+  private static final class Progress<S> {
+    private final CheckpointStore<S> store;
+    private final S state;
+    private long offset;
+    private long watermark;
+    private long checkpointedOffset;
+    private long compactedBytes;
+
+    Progress(CheckpointStore<S> store) {
+      this.store = store;
+      CheckpointStore.Recovered<S> recovered = store.recover();
+      this.state = recovered.state();
+      this.offset = recovered.offset();
+      this.checkpointedOffset = offset;
+      // recovered segments are already on disk
+      this.watermark = watermarkOf(store.codec(), state);
+      this.compactedBytes = store.logBytes();
+    }
+
+    void checkpoint() {
+      if (offset == checkpointedOffset) {
+        return;
+      }
+      if (store.logBytes() >= COMPACTION_RATIO * Math.max(compactedBytes, MIN_COMPACTION_BYTES)) {
+        store.compact(offset, encodeSince(0));
+        compactedBytes = store.logBytes();
+      } else {
+        store.append(offset, encodeSince(watermark));
+      }
+      checkpointedOffset = offset;
+    }
+
+    private byte[] encodeSince(long since) {
+      var bytes = new ByteArrayOutputStream();
+      try (var out = new DataOutputStream(bytes)) {
+        watermark = store.codec().writeSince(state, since, out);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      return bytes.toByteArray();
+    }
+
+    private static <S> long watermarkOf(CheckpointCodec<S> codec, S state) {
+      try {
+        return codec.writeSince(state, 0, new DataOutputStream(OutputStream.nullOutputStream()));
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+}
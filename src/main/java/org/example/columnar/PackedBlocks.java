@@ -0,0 +1,156 @@
+package org.example.columnar;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Delta plus frame-of-reference bit packing of {@code long} values in blocks of
+ * {@link #BLOCK_SIZE}.
+ *
+ * <p>Per block the first value is kept as is. The remaining values are stored as deltas to their
+ * predecessor, minus the smallest delta of the block, packed with just enough bits for the
+ * largest one. Sorted or slowly changing data therefore needs only a few bits per value, and a
+ * constant stride needs none. Arithmetic wraps, so any {@code long} sequence round-trips.
+ */
+final class PackedBlocks {
+  static final int BLOCK_SIZE = 128;
+
+  private final int size;
+  private final long[] firstValues;
+  private final long[] minDeltas;
+  private final byte[] bitWidths;
+  private final int[] wordOffsets;
+  private final long[] words;
+
+  private PackedBlocks(int size, long[] firstValues, long[] minDeltas, byte[] bitWidths,
+                       int[] wordOffsets, long[] words) {
+    this.size = size;
+    this.firstValues = firstValues;
+    this.minDeltas = minDeltas;
+    this.bitWidths = bitWidths;
+    this.wordOffsets = wordOffsets;
+    this.words = words;
+  }
+
+  interface LongSource {
+    long get(int index);
+  }
+
+  static PackedBlocks encode(int size, LongSource values) {
+    int blocks = (size + BLOCK_SIZE - 1) / BLOCK_SIZE;
+    long[] firstValues = new long[blocks];
+    long[] minDeltas = new long[blocks];
+    byte[] bitWidths = new byte[blocks];
+    int[] wordOffsets = new int[blocks + 1];
+    long[] words = new long[0];
+    int wordCount = 0;
+    for (int b = 0; b < blocks; b++) {
+      int from = b * BLOCK_SIZE;
+      int to = Math.min(size, from + BLOCK_SIZE);
+      firstValues[b] = values.get(from);
+      long minDelta = Long.MAX_VALUE;
+      for (int i = from + 1; i < to; i++) {
+        minDelta = Math.min(minDelta, values.get(i) - values.get(i - 1));
+      }
+      minDelta = to - from > 1 ? minDelta : 0;
+      long maxOffset = 0;
+      for (int i = from + 1; i < to; i++) {
+        long offset = values.get(i) - values.get(i - 1) - minDelta;
+        maxOffset = Long.compareUnsigned(offset, maxOffset) > 0 ? offset : maxOffset;
+      }
+      int width = 64 - Long.numberOfLeadingZeros(maxOffset);
+      minDeltas[b] = minDelta;
+      bitWidths[b] = (byte) width;
+      wordOffsets[b] = wordCount;
+      int blockWords = (int) (((long) (to - from - 1) * width + 63) / 64);
+      if (wordCount + blockWords > words.length) {
+        words = Arrays.copyOf(words, Math.max(wordCount + blockWords, words.length * 2));
+      }
+      long bitPosition = (long) wordCount * 64;
+      for (int i = from + 1; i < to; i++) {
+        write(words, bitPosition, width, values.get(i) - values.get(i - 1) - minDelta);
+        bitPosition += width;
+      }
+      wordCount += blockWords;
+    }
+    wordOffsets[blocks] = wordCount;
+    return new PackedBlocks(size, firstValues, minDeltas, bitWidths, wordOffsets,
+        Arrays.copyOf(words, wordCount));
+  }
+
+  int size() {
+    return size;
+  }
+
+  int blockCount() {
+    return firstValues.length;
+  }
+
+  int blockLength(int block) {
+    return Math.min(BLOCK_SIZE, size - block * BLOCK_SIZE);
+  }
+
+  /**
+   * Decodes one block into {@code out[0, blockLength(block))}.
+   */
+  int decode(int block, long[] out) {
+    int length = blockLength(block);
+    int width = bitWidths[block];
+    long minDelta = minDeltas[block];
+    long value = firstValues[block];
+    out[0] = value;
+    long bitPosition = (long) wordOffsets[block] * 64;
+    for (int i = 1; i < length; i++) {
+      value += minDelta + read(words, bitPosition, width);
+      bitPosition += width;
+      out[i] = value;
+    }
+    return length;
+  }
+
+  long get(int index) {
+    Objects.checkIndex(index, size);
+    int block = index / BLOCK_SIZE;
+    int width = bitWidths[block];
+    long minDelta = minDeltas[block];
+    long value = firstValues[block];
+    long bitPosition = (long) wordOffsets[block] * 64;
+    for (int i = block * BLOCK_SIZE + 1; i <= index; i++) {
+      value += minDelta + read(words, bitPosition, width);
+      bitPosition += width;
+    }
+    return value;
+  }
+
+  /**
+   * Bytes held by the encoded arrays, excluding object headers.
+   */
+  long sizeInBytes() {
+    return words.length * 8L + firstValues.length * (8L + 8L + 1L + 4L) + 4L;
+  }
+
+  private static void write(long[] words, long bitPosition, int width, long value) {
+    if (width == 0) {
+      return;
+    }
+    int word = (int) (bitPosition >>> 6);
+    int shift = (int) (bitPosition & 63);
+    words[word] |= value << shift;
+    if (shift + width > 64) {
+      words[word + 1] |= value >>> (64 - shift);
+    }
+  }
+
+  private static long read(long[] words, long bitPosition, int width) {
+    if (width == 0) {
+      return 0;
+    }
+    int word = (int) (bitPosition >>> 6);
+    int shift = (int) (bitPosition & 63);
+    long value = words[word] >>> shift;
+    if (shift + width > 64) {
+      value |= words[word + 1] << (64 - shift);
+    }
+    return width == 64 ? value : value & ((1L << width) - 1);
+  }
+}
@@ -0,0 +1,121 @@
+package org.example.columnar;
+
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Immutable, compressed column of {@code int} values (see {@link PackedBlocks} for the layout).
+ *
+ * <p>{@link #stream()} decodes one block at a time into a small buffer, and its spliterator
+ * splits on block boundaries, so parallel streams decode disjoint blocks on different threads.
+ */
+public final class PackedIntColumn {
+  private final PackedBlocks blocks;
+
+  private PackedIntColumn(PackedBlocks blocks) {
+    this.blocks = blocks;
+  }
+
+  public static PackedIntColumn encode(int[] values) {
+    return new PackedIntColumn(PackedBlocks.encode(values.length, i -> values[i]));
+  }
+
+  public int size() {
+    return blocks.size();
+  }
+
+  /**
+   * Random access; decodes the block prefix up to {@code index}, so prefer {@link #stream()} for
+   * scans.
+   */
+  public int get(int index) {
+    return (int) blocks.get(index);
+  }
+
+  /**
+   * Bytes used by the encoded data, to compare with {@code 4 * size()} for a raw {@code int[]}.
+   */
+  public long sizeInBytes() {
+    return blocks.sizeInBytes();
+  }
+
+  public IntStream stream() {
+    return StreamSupport.intStream(new BlockSpliterator(blocks, 0, blocks.blockCount()), false);
+  }
+
+  public int[] toArray() {
+    return stream().toArray();
+  }
+
+  private static final class BlockSpliterator implements Spliterator.OfInt {
+    private final PackedBlocks blocks;
+    private final long[] buffer = new long[PackedBlocks.BLOCK_SIZE];
+    private int nextBlock;
+    private final int endBlock;
+    private int position;
+    private int length;
+
+    BlockSpliterator(PackedBlocks blocks, int fromBlock, int endBlock) {
+      this.blocks = blocks;
+      this.nextBlock = fromBlock;
+      this.endBlock = endBlock;
+    }
+
+    @Override
+    public boolean tryAdvance(IntConsumer action) {
+      if (position == length) {
+        if (nextBlock == endBlock) {
+          return false;
+        }
+        length = blocks.decode(nextBlock++, buffer);
+        position = 0;
+      }
+      action.accept((int) buffer[position++]);
+      return true;
+    }
+
+    @Override
+    public void forEachRemaining(IntConsumer action) {
+      long[] values = buffer;
+      for (int i = position; i < length; i++) {
+        action.accept((int) values[i]);
+      }
+      position = length;
+      while (nextBlock < endBlock) {
+        int decoded = blocks.decode(nextBlock++, values);
+        for (int i = 0; i < decoded; i++) {
+          action.accept((int) values[i]);
+        }
+      }
+      length = 0;
+      position = 0;
+    }
+
+    @Override
+    public Spliterator.OfInt trySplit() {
+      int remainingBlocks = endBlock - nextBlock;
+      if (position < length || remainingBlocks < 2) {
+        return null;
+      }
+      int middle = nextBlock + remainingBlocks / 2;
+      BlockSpliterator prefix = new BlockSpliterator(blocks, nextBlock, middle);
+      nextBlock = middle;
+      return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+      long buffered = length - position;
+      long fromIndex = (long) nextBlock * PackedBlocks.BLOCK_SIZE;
+      long toIndex = Math.min(blocks.size(), (long) endBlock * PackedBlocks.BLOCK_SIZE);
+      return buffered + Math.max(0, toIndex - fromIndex);
+    }
+
+    @Override
+    public int characteristics() {
+      return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL;
+    }
+  }
+}
@@ -0,0 +1,121 @@
+package org.example.columnar;
+
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Immutable, compressed column of {@code long} values (see {@link PackedBlocks} for the layout).
+ *
+ * <p>{@link #stream()} decodes one block at a time into a small buffer, and its spliterator
+ * splits on block boundaries, so parallel streams decode disjoint blocks on different threads.
+ */
+public final class PackedLongColumn {
+  private final PackedBlocks blocks;
+
+  private PackedLongColumn(PackedBlocks blocks) {
+    this.blocks = blocks;
+  }
+
+  public static PackedLongColumn encode(long[] values) {
+    return new PackedLongColumn(PackedBlocks.encode(values.length, i -> values[i]));
+  }
+
+  public int size() {
+    return blocks.size();
+  }
+
+  /**
+   * Random access; decodes the block prefix up to {@code index}, so prefer {@link #stream()} for
+   * scans.
+   */
+  public long get(int index) {
+    return blocks.get(index);
+  }
+
+  /**
+   * Bytes used by the encoded data, to compare with {@code 8 * size()} for a raw {@code long[]}.
+   */
+  public long sizeInBytes() {
+    return blocks.sizeInBytes();
+  }
+
+  public LongStream stream() {
+    return StreamSupport.longStream(new BlockSpliterator(blocks, 0, blocks.blockCount()), false);
+  }
+
+  public long[] toArray() {
+    return stream().toArray();
+  }
+
+  private static final class BlockSpliterator implements Spliterator.OfLong {
+    private final PackedBlocks blocks;
+    private final long[] buffer = new long[PackedBlocks.BLOCK_SIZE];
+    private int nextBlock;
+    private final int endBlock;
+    private int position;
+    private int length;
+
+    BlockSpliterator(PackedBlocks blocks, int fromBlock, int endBlock) {
+      this.blocks = blocks;
+      this.nextBlock = fromBlock;
+      this.endBlock = endBlock;
+    }
+
+    @Override
+    public boolean tryAdvance(LongConsumer action) {
+      if (position == length) {
+        if (nextBlock == endBlock) {
+          return false;
+        }
+        length = blocks.decode(nextBlock++, buffer);
+        position = 0;
+      }
+      action.accept(buffer[position++]);
+      return true;
+    }
+
+    @Override
+    public void forEachRemaining(LongConsumer action) {
+      long[] values = buffer;
+      for (int i = position; i < length; i++) {
+        action.accept(values[i]);
+      }
+      position = length;
+      while (nextBlock < endBlock) {
+        int decoded = blocks.decode(nextBlock++, values);
+        for (int i = 0; i < decoded; i++) {
+          action.accept(values[i]);
+        }
+      }
+      length = 0;
+      position = 0;
+    }
+
+    @Override
+    public Spliterator.OfLong trySplit() {
+      int remainingBlocks = endBlock - nextBlock;
+      if (position < length || remainingBlocks < 2) {
+        return null;
+      }
+      int middle = nextBlock + remainingBlocks / 2;
+      BlockSpliterator prefix = new BlockSpliterator(blocks, nextBlock, middle);
+      nextBlock = middle;
+      return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+      long buffered = length - position;
+      long fromIndex = (long) nextBlock * PackedBlocks.BLOCK_SIZE;
+      long toIndex = Math.min(blocks.size(), (long) endBlock * PackedBlocks.BLOCK_SIZE);
+      return buffered + Math.max(0, toIndex - fromIndex);
+    }
+
+    @Override
+    public int characteristics() {
+      return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL;
+    }
+  }
+}
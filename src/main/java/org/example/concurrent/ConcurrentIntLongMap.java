@@ -0,0 +1,200 @@
+package org.example.concurrent;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent map from {@code int} keys to striped {@code long} counters, for many threads
+ * aggregating into one shared structure.
+ *
+ * <p>Each key owns a {@link LongAdder}, so contended updates spread over padded cells instead of
+ * one hot word. Keys live in open-addressed tables split into segments (at least four per core).
+ * Updates of known keys are lock-free; only inserting a new key takes its segment's lock, and a
+ * resize copies references to the same counters, so no update is lost. Entries are never
+ * removed.
+ */
+public final class ConcurrentIntLongMap {
+  private static final int MIN_SEGMENTS = 16;
+  private static final int MAX_SEGMENTS = 1 << 12;
+  private static final int MIN_TABLE = 8;
+
+  private final Segment[] segments;
+  private final int segmentShift;
+
+  public ConcurrentIntLongMap() {
+    this(Runtime.getRuntime().availableProcessors() * 4);
+  }
+
+  /**
+   * @param concurrency expected number of updating threads; rounded up to a power of two
+   */
+  public ConcurrentIntLongMap(int concurrency) {
+    int count = Integer.highestOneBit(Math.clamp(concurrency, MIN_SEGMENTS, MAX_SEGMENTS) - 1) << 1;
+    segments = new Segment[count];
+    for (int i = 0; i < count; i++) {
+      segments[i] = new Segment();
+    }
+    segmentShift = Integer.SIZE - Integer.numberOfTrailingZeros(count);
+  }
+
+  public void add(int key, long delta) {
+    counter(key).add(delta);
+  }
+
+  public void increment(int key) {
+    counter(key).increment();
+  }
+
+  /**
+   * Current value for {@code key}, 0 if it was never updated. Not an atomic snapshot while
+   * updates are running.
+   */
+  public long get(int key) {
+    int hash = spread(key);
+    Counter counter = segmentFor(hash).find(key, hash);
+    return counter == null ? 0 : counter.sum();
+  }
+
+  public boolean containsKey(int key) {
+    int hash = spread(key);
+    return segmentFor(hash).find(key, hash) != null;
+  }
+
+  public int size() {
+    int size = 0;
+    for (Segment segment : segments) {
+      size += segment.size;
+    }
+    return size;
+  }
+
+  /**
+   * Sum over all keys.
+   */
+  public long sum() {
+    long sum = 0;
+    for (Segment segment : segments) {
+      AtomicReferenceArray<Counter> table = segment.table;
+      for (int i = 0; i < table.length(); i++) {
+        Counter counter = table.get(i);
+        if (counter != null) {
+          sum += counter.sum();
+        }
+      }
+    }
+    return sum;
+  }
+
+  public void forEach(EntryConsumer action) {
+    for (Segment segment : segments) {
+      AtomicReferenceArray<Counter> table = segment.table;
+      for (int i = 0; i < table.length(); i++) {
+        Counter counter = table.get(i);
+        if (counter != null) {
+          action.accept(counter.key, counter.sum());
+        }
+      }
+    }
+  }
+
+  /**
+   * Boxed copy of the current entries.
+   */
+  public Map<Integer, Long> toMap() {
+    Map<Integer, Long> map = new HashMap<>();
+    forEach(map::put);
+    return map;
+  }
+
+  /**
+   * Receives one entry of the map.
+   */
+  @FunctionalInterface
+  public interface EntryConsumer {
+    void accept(int key, long value);
+  }
+
+  private LongAdder counter(int key) {
+    int hash = spread(key);
+    Segment segment = segmentFor(hash);
+    Counter counter = segment.find(key, hash);
+    return counter != null ? counter : segment.insert(key, hash);
+  }
+
+  private Segment segmentFor(int hash) {
+    return segments[hash >>> segmentShift];
+  }
+
+  // murmur3 fmix32: high bits pick the segment, low bits the slot
+  private static int spread(int key) {
+    int h = key;
+    h ^= h >>> 16;
+    h *= 0x85ebca6b;
+    h ^= h >>> 13;
+    h *= 0xc2b2ae35;
+    return h ^ (h >>> 16);
+  }
+
+  private static final class Counter extends LongAdder {
+    private final int key;
+
+    Counter(int key) {
+      this.key = key;
+    }
+  }
+
+  private static final class Segment {
+    private volatile AtomicReferenceArray<Counter> table = new AtomicReferenceArray<>(MIN_TABLE);
+    private volatile int size;
+
+    Counter find(int key, int hash) {
+      AtomicReferenceArray<Counter> current = table;
+      int mask = current.length() - 1;
+      for (int i = hash & mask; ; i = (i + 1) & mask) {
+        Counter counter = current.get(i);
+        if (counter == null || counter.key == key) {
+          return counter;
+        }
+      }
+    }
+
+    synchronized Counter insert(int key, int hash) {
+      Counter existing = find(key, hash);
+      if (existing != null) {
+        return existing;
+      }
+      if ((size + 1) * 2 > table.length()) {
+        resize();
+      }
+      Counter counter = new Counter(key);
+      AtomicReferenceArray<Counter> current = table;
+      int mask = current.length() - 1;
+      int i = hash & mask;
+      while (current.get(i) != null) {
+        i = (i + 1) & mask;
+      }
+      current.set(i, counter);
+      size++;
+      return counter;
+    }
+
+    private void resize() {
+      AtomicReferenceArray<Counter> old = table;
+      var grown = new AtomicReferenceArray<Counter>(old.length() * 2);
+      int mask = grown.length() - 1;
+      for (int j = 0; j < old.length(); j++) {
+        Counter counter = old.get(j);
+        if (counter != null) {
+          int i = spread(counter.key) & mask;
+          while (grown.get(i) != null) {
+            i = (i + 1) & mask;
+          }
+          grown.set(i, counter);
+        }
+      }
+      table = grown;
+    }
+  }
+}
@@ -0,0 +1,419 @@
+package org.example.concurrent;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Read-optimized concurrent list for read-heavy data with occasional batched updates, such as
+ * configuration.
+ *
+ * <p>The list always points at an immutable, versioned {@link Snapshot}. Reads go to the current
+ * snapshot without locking. Iteration, streams and sub-lists each stay on the snapshot they
+ * started with, so a reader never sees half of an update. {@link #snapshot()} pins one version
+ * for several reads or a parallel stream.
+ *
+ * <p>{@link #update(Consumer)} copies the current elements once into a {@link Batch}. It applies
+ * every change of the batch to that copy and then publishes the result as the next version in a
+ * single volatile write. {@link java.util.concurrent.CopyOnWriteArrayList} copies the array on
+ * every mutation instead. Writers are serialized by a lock, so concurrent batches never redo a
+ * copy. Every mutator of the list itself, bulk ones included, is a single batch. Null elements
+ * are permitted.
+ */
+public final class SnapshotList<E> extends AbstractList<E> implements RandomAccess {
+  private static final Object[] EMPTY = {};
+  private static final int BATCH_HEADROOM = 16;
+
+  private final ReentrantLock writeLock = new ReentrantLock();
+  private volatile Snapshot<E> current;
+
+  public SnapshotList() {
+    current = new Snapshot<>(EMPTY, 0, 0);
+  }
+
+  public SnapshotList(Collection<? extends E> elements) {
+    Object[] array = elements.toArray();
+    array = Arrays.copyOf(array, array.length, Object[].class);
+    current = new Snapshot<>(array, array.length, 0);
+  }
+
+  /**
+   * The current version, stable for as long as the caller holds it.
+   */
+  public Snapshot<E> snapshot() {
+    return current;
+  }
+
+  /**
+   * Number of batches published so far.
+   */
+  public long version() {
+    return current.version;
+  }
+
+  /**
+   * Applies {@code changes} to a private copy of the current elements and publishes the copy as
+   * the next version. If {@code changes} throws, nothing is published. A batch that changes
+   * nothing publishes no new version.
+   *
+   * @return the snapshot current after the update
+   */
+  public Snapshot<E> update(Consumer<? super Batch<E>> changes) {
+    writeLock.lock();
+    try {
+      Snapshot<E> base = current;
+      Batch<E> batch = new Batch<>(base);
+      try {
+        changes.accept(batch);
+      } finally {
+        batch.closed = true;
+      }
+      if (!batch.changed) {
+        return base;
+      }
+      Snapshot<E> next = new Snapshot<>(batch.elements, batch.size, base.version + 1);
+      current = next;
+      return next;
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  @Override
+  public E get(int index) {
+    return current.get(index);
+  }
+
+  @Override
+  public int size() {
+    return current.size;
+  }
+
+  @Override
+  public boolean add(E element) {
+    update(batch -> batch.add(element));
+    return true;
+  }
+
+  @Override
+  public void add(int index, E element) {
+    update(batch -> batch.add(index, element));
+  }
+
+  @Override
+  public boolean addAll(Collection<? extends E> elements) {
+    if (elements.isEmpty()) {
+      return false;
+    }
+    update(batch -> batch.addAll(elements));
+    return true;
+  }
+
+  @Override
+  public boolean addAll(int index, Collection<? extends E> elements) {
+    Objects.checkIndex(index, size() + 1);
+    if (elements.isEmpty()) {
+      return false;
+    }
+    update(batch -> batch.addAll(index, elements));
+    return true;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public E set(int index, E element) {
+    Object[] previous = new Object[1];
+    update(batch -> previous[0] = batch.set(index, element));
+    return (E) previous[0];
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public E remove(int index) {
+    Object[] previous = new Object[1];
+    update(batch -> previous[0] = batch.remove(index));
+    return (E) previous[0];
+  }
+
+  @Override
+  public boolean remove(Object element) {
+    boolean[] removed = new boolean[1];
+    update(batch -> removed[0] = batch.remove(element));
+    return removed[0];
+  }
+
+  @Override
+  public boolean removeIf(Predicate<? super E> filter) {
+    Objects.requireNonNull(filter);
+    boolean[] removed = new boolean[1];
+    update(batch -> removed[0] = batch.removeIf(filter));
+    return removed[0];
+  }
+
+  @Override
+  public boolean removeAll(Collection<?> elements) {
+    Objects.requireNonNull(elements);
+    return removeIf(elements::contains);
+  }
+
+  @Override
+  public boolean retainAll(Collection<?> elements) {
+    Objects.requireNonNull(elements);
+    return removeIf(element -> !elements.contains(element));
+  }
+
+  @Override
+  public void replaceAll(UnaryOperator<E> operator) {
+    Objects.requireNonNull(operator);
+    update(batch -> batch.replaceAll(operator));
+  }
+
+  @Override
+  public void sort(Comparator<? super E> comparator) {
+    update(batch -> batch.sort(comparator));
+  }
+
+  @Override
+  public void clear() {
+    update(Batch::clear);
+  }
+
+  @Override
+  public Iterator<E> iterator() {
+    return current.iterator();
+  }
+
+  @Override
+  public ListIterator<E> listIterator() {
+    return current.listIterator();
+  }
+
+  @Override
+  public ListIterator<E> listIterator(int index) {
+    return current.listIterator(index);
+  }
+
+  /**
+   * Read-only view of a range of the current snapshot; later updates do not show through.
+   */
+  @Override
+  public List<E> subList(int fromIndex, int toIndex) {
+    return current.subList(fromIndex, toIndex);
+  }
+
+  @Override
+  public Spliterator<E> spliterator() {
+    return current.spliterator();
+  }
+
+  @Override
+  public Object[] toArray() {
+    return current.toArray();
+  }
+
+  @Override
+  public <T> T[] toArray(T[] array) {
+    return current.toArray(array);
+  }
+
+  /**
+   * Immutable elements of one published version. Safe to share between threads, and its
+   * spliterator splits evenly for parallel streams.
+   */
+  public static final class Snapshot<E> extends AbstractList<E> implements RandomAccess {
+    private final Object[] elements;
+    private final int size;
+    private final long version;
+
+    Snapshot(Object[] elements, int size, long version) {
+      this.elements = elements;
+      this.size = size;
+      this.version = version;
+    }
+
+    public long version() {
+      return version;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+      return (E) elements[Objects.checkIndex(index, size)];
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public Spliterator<E> spliterator() {
+      return Spliterators.spliterator(elements, 0, size,
+          Spliterator.ORDERED | Spliterator.IMMUTABLE);
+    }
+
+    @Override
+    public Object[] toArray() {
+      return Arrays.copyOf(elements, size);
+    }
+  }
+
+  /**
+   * Private, mutable copy of a snapshot handed to {@link #update(Consumer)}. It may only be used
+   * inside the update; afterwards every method throws {@link IllegalStateException}.
+   */
+  public static final class Batch<E> extends AbstractList<E> implements RandomAccess {
+    private Object[] elements;
+    private int size;
+    private boolean changed;
+    private boolean closed;
+
+    Batch(Snapshot<E> base) {
+      elements = Arrays.copyOf(base.elements, base.size + BATCH_HEADROOM);
+      size = base.size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+      checkOpen();
+      return (E) elements[Objects.checkIndex(index, size)];
+    }
+
+    @Override
+    public int size() {
+      checkOpen();
+      return size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E set(int index, E element) {
+      checkOpen();
+      Objects.checkIndex(index, size);
+      E previous = (E) elements[index];
+      elements[index] = element;
+      changed = true;
+      return previous;
+    }
+
+    @Override
+    public void add(int index, E element) {
+      checkOpen();
+      Objects.checkIndex(index, size + 1);
+      if (size == elements.length) {
+        elements = Arrays.copyOf(elements, size + (size >> 1) + BATCH_HEADROOM);
+      }
+      System.arraycopy(elements, index, elements, index + 1, size - index);
+      elements[index] = element;
+      size++;
+      modCount++;
+      changed = true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> added) {
+      return addAll(size(), added);
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<? extends E> added) {
+      checkOpen();
+      Objects.checkIndex(index, size + 1);
+      Object[] array = added.toArray();
+      if (array.length == 0) {
+        return false;
+      }
+      if (size + array.length > elements.length) {
+        elements = Arrays.copyOf(elements, size + array.length + (size >> 1) + BATCH_HEADROOM);
+      }
+      System.arraycopy(elements, index, elements, index + array.length, size - index);
+      System.arraycopy(array, 0, elements, index, array.length);
+      size += array.length;
+      modCount++;
+      changed = true;
+      return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E remove(int index) {
+      checkOpen();
+      Objects.checkIndex(index, size);
+      E previous = (E) elements[index];
+      System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+      elements[--size] = null;
+      modCount++;
+      changed = true;
+      return previous;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean removeIf(Predicate<? super E> filter) {
+      checkOpen();
+      int kept = 0;
+      for (int i = 0; i < size; i++) {
+        if (!filter.test((E) elements[i])) {
+          elements[kept++] = elements[i];
+        }
+      }
+      if (kept == size) {
+        return false;
+      }
+      Arrays.fill(elements, kept, size, null);
+      size = kept;
+      modCount++;
+      changed = true;
+      return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void replaceAll(UnaryOperator<E> operator) {
+      checkOpen();
+      for (int i = 0; i < size; i++) {
+        elements[i] = operator.apply((E) elements[i]);
+      }
+      changed |= size > 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void sort(Comparator<? super E> comparator) {
+      checkOpen();
+      Arrays.sort((E[]) elements, 0, size, comparator);
+      modCount++;
+      changed |= size > 1;
+    }
+
+    @Override
+    public void clear() {
+      checkOpen();
+      if (size > 0) {
+        Arrays.fill(elements, 0, size, null);
+        size = 0;
+        modCount++;
+        changed = true;
+      }
+    }
+
+    private void checkOpen() {
+      if (closed) {
+        throw new IllegalStateException("batch already published");
+      }
+    }
+  }
+}
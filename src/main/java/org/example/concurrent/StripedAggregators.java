@@ -0,0 +1,73 @@
+package org.example.concurrent;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+import java.util.stream.Gatherer;
+
+/**
+ * Unordered aggregations where all workers update one shared striped structure instead of
+ * merging per-split state.
+ *
+ * <p>The collectors are {@link Collector.Characteristics#CONCURRENT CONCURRENT} and
+ * {@link Collector.Characteristics#UNORDERED UNORDERED}: on an unordered parallel stream
+ * {@code collect} creates a single container and never calls the combiner. On ordered streams
+ * they still work, combining per split.
+ */
+public class StripedAggregators {
+  private StripedAggregators() {
+    // Utility class, prevent instantiation
+  }
+
+  public static <T> Collector<T, ?, Long> counting() {
+    return summingLong(_ -> 1L);
+  }
+
+  public static <T> Collector<T, ?, Long> summingLong(ToLongFunction<? super T> value) {
+    return Collector.of(
+        LongAdder::new,
+        (LongAdder adder, T element) -> adder.add(value.applyAsLong(element)),
+        (left, right) -> {
+          left.add(right.sum());
+          return left;
+        },
+        LongAdder::sum,
+        Collector.Characteristics.CONCURRENT,
+        Collector.Characteristics.UNORDERED);
+  }
+
+  /**
+   * Count per key, e.g. a histogram with {@code key} computing the bucket.
+   */
+  public static <T> Collector<T, ?, ConcurrentIntLongMap> countingBy(ToIntFunction<? super T> key) {
+    return summingLongBy(key, _ -> 1L);
+  }
+
+  public static <T> Collector<T, ?, ConcurrentIntLongMap> summingLongBy(
+      ToIntFunction<? super T> key, ToLongFunction<? super T> value) {
+    return Collector.of(
+        ConcurrentIntLongMap::new,
+        (ConcurrentIntLongMap map, T element) ->
+            map.add(key.applyAsInt(element), value.applyAsLong(element)),
+        (left, right) -> {
+          right.forEach(left::add);
+          return left;
+        },
+        Collector.Characteristics.CONCURRENT,
+        Collector.Characteristics.UNORDERED,
+        Collector.Characteristics.IDENTITY_FINISH);
+  }
+
+  /**
+   * Stateless, parallel pass-through that adds {@code value} per key into {@code target} as
+   * elements flow by. There is no combiner phase: every split writes to {@code target}.
+   */
+  public static <T> Gatherer<T, ?, T> tallying(
+      ConcurrentIntLongMap target, ToIntFunction<? super T> key, ToLongFunction<? super T> value) {
+    return Gatherer.of((Void _, T element, Gatherer.Downstream<? super T> downstream) -> {
+      target.add(key.applyAsInt(element), value.applyAsLong(element));
+      return downstream.push(element);
+    });
+  }
+}
@@ -0,0 +1,54 @@
+package org.example.driver;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Workloads for AOT cache training and the startup probe.
+ *
+ * <p>{@link #train()} is meant to run under {@code -XX:AOTCacheOutput=<file>} (JDK 25): it drives
+ * every pipeline with every generator, sequentially and in parallel, through the same
+ * {@link LoadDriver} path a real run takes, so the classes, linkage and profiles it records cover
+ * what later short-lived jobs need.
+ */
+public class AotTraining {
+  static final int TRAINING_SIZE = 2_000;
+  static final Duration TRAINING_DURATION = Duration.ofMillis(10);
+  static final String FIRST_RESULT = "first-result ";
+
+  private AotTraining() {
+    // Utility class, prevent instantiation
+  }
+
+  /**
+   * Runs the training workload and returns the number of pipeline runs.
+   */
+  public static int train() {
+    int runs = 0;
+    PrintStream discard = new PrintStream(OutputStream.nullOutputStream());
+    for (InputGenerator generator : InputGenerator.values()) {
+      for (int parallelism : new int[] {1, 2}) {
+        var options = new DriverOptions(List.of(Workload.values()), generator, TRAINING_SIZE,
+            1_024, parallelism, Duration.ZERO, TRAINING_DURATION, 42L, -1);
+        try (LoadDriver driver = new LoadDriver(options)) {
+          runs += driver.runAll(discard).size();
+        }
+      }
+    }
+    return runs;
+  }
+
+  /**
+   * The work a short job does before its first result: generate a batch and run one pipeline.
+   * Prints {@code first-result <count>} as soon as it is known.
+   */
+  public static long firstResult(PrintStream out) {
+    long result = Workload.RUNNING_TOTAL.run(
+        InputGenerator.UNIFORM.generate(10_000, 1_024, 42L).stream());
+    out.println(FIRST_RESULT + result);
+    out.flush();
+    return result;
+  }
+}
@@ -0,0 +1,139 @@
+package org.example.driver;
+
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Command line options of the load driver.
+ *
+ * @param pipelines   pipelines to run, one after another
+ * @param generator   input distribution
+ * @param size        elements per batch
+ * @param keySpace    distinct keys the generator draws from
+ * @param parallelism 1 for sequential streams, otherwise parallel streams in a pool this size
+ * @param warmup      untimed run before measuring each pipeline
+ * @param duration    measured time per pipeline
+ * @param seed        generator seed
+ * @param metricsPort port for the Prometheus endpoint, or -1 for none
+ */
+public record DriverOptions(List<Workload> pipelines,
+                            InputGenerator generator,
+                            int size,
+                            int keySpace,
+                            int parallelism,
+                            Duration warmup,
+                            Duration duration,
+                            long seed,
+                            int metricsPort) {
+  public DriverOptions {
+    pipelines = List.copyOf(pipelines);
+    if (pipelines.isEmpty() || size < 1 || keySpace < 1 || parallelism < 1
+        || warmup.isNegative() || duration.isNegative() || duration.isZero()
+        || metricsPort < -1 || metricsPort > 65_535) {
+      throw new IllegalArgumentException("Invalid driver options");
+    }
+  }
+
+  public static DriverOptions defaults() {
+    return new DriverOptions(List.of(Workload.values()), InputGenerator.UNIFORM, 100_000,
+        1 << 20, Runtime.getRuntime().availableProcessors(), Duration.ofSeconds(1),
+        Duration.ofSeconds(5), 42L, -1);
+  }
+
+  /**
+   * Parses {@code --name value} pairs on top of {@link #defaults()}.
+   *
+   * @throws IllegalArgumentException on unknown options or malformed values
+   */
+  public static DriverOptions parse(String... args) {
+    DriverOptions o = defaults();
+    List<Workload> pipelines = o.pipelines;
+    InputGenerator generator = o.generator;
+    int size = o.size;
+    int keySpace = o.keySpace;
+    int parallelism = o.parallelism;
+    Duration warmup = o.warmup;
+    Duration duration = o.duration;
+    long seed = o.seed;
+    int metricsPort = o.metricsPort;
+    for (int i = 0; i < args.length; i += 2) {
+      if (i + 1 >= args.length) {
+        throw new IllegalArgumentException("Missing value for " + args[i]);
+      }
+      String value = args[i + 1];
+      try {
+        switch (args[i]) {
+          case "--pipeline" -> pipelines = pipelines(value);
+          case "--generator" -> generator = InputGenerator.valueOf(value.toUpperCase(Locale.ROOT));
+          case "--size" -> size = Integer.parseInt(value);
+          case "--key-space" -> keySpace = Integer.parseInt(value);
+          case "--parallelism" -> parallelism = Integer.parseInt(value);
+          case "--warmup" -> warmup = duration(value);
+          case "--duration" -> duration = duration(value);
+          case "--seed" -> seed = Long.parseLong(value);
+          case "--metrics-port" -> metricsPort = Integer.parseInt(value);
+          default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+        }
+      } catch (NumberFormatException | DateTimeParseException e) {
+        throw new IllegalArgumentException("Bad value for " + args[i] + ": " + value, e);
+      }
+    }
+    return new DriverOptions(pipelines, generator, size, keySpace, parallelism, warmup, duration,
+        seed, metricsPort);
+  }
+
+  public static String usage() {
+    List<String> ids = Arrays.stream(Workload.values()).map(Workload::id).toList();
+    return String.join("\n",
+        "Usage: java org.example.Main [options]",
+        "  --pipeline all|NAME[,NAME...]  " + String.join(", ", ids),
+        "  --generator uniform|zipfian|sorted   (default uniform)",
+        "  --size N            elements per batch (default 100000)",
+        "  --key-space N       distinct keys (default 1048576)",
+        "  --parallelism N     1 = sequential stream (default: cores)",
+        "  --warmup 1s         untimed run per pipeline (ms, s, m or ISO-8601)",
+        "  --duration 5s       measured time per pipeline",
+        "  --seed N            generator seed (default 42)",
+        "  --metrics-port N    serve Prometheus metrics on localhost:N while running",
+        "Startup modes:",
+        "  --train             training run; use with -XX:AOTCacheOutput=app.aot (JDK 25+)",
+        "  --first-result      run one small pipeline and exit; start with -XX:AOTCache=app.aot",
+        "  --startup-benchmark CACHE [RUNS]  time to first result without and with the cache,",
+        "                      training CACHE first if it does not exist",
+        "Benchmark modes:",
+        "  --spill-benchmark [N]  buffer N times the heap (default 10) in a spilling gatherer;",
+        "                      run with a small heap, e.g. -Xmx64m");
+  }
+
+  private static List<Workload> pipelines(String value) {
+    if (value.equals("all")) {
+      return List.of(Workload.values());
+    }
+    List<Workload> pipelines = new ArrayList<>();
+    for (String id : value.split(",")) {
+      pipelines.add(Workload.byId(id.trim()));
+    }
+    return pipelines;
+  }
+
+  static Duration duration(String value) {
+    String v = value.trim().toLowerCase(Locale.ROOT);
+    if (v.startsWith("p")) {
+      return Duration.parse(v);
+    }
+    if (v.endsWith("ms")) {
+      return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2)));
+    }
+    if (v.endsWith("s")) {
+      return Duration.ofSeconds(Long.parseLong(v.substring(0, v.length() - 1)));
+    }
+    if (v.endsWith("m")) {
+      return Duration.ofMinutes(Long.parseLong(v.substring(0, v.length() - 1)));
+    }
+    throw new IllegalArgumentException("Bad duration: " + value);
+  }
+}
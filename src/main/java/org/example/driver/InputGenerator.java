@@ -0,0 +1,47 @@
+package org.example.driver;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.example.util.ZipfianGenerator;
+
+/**
+ * Synthetic inputs for the load driver, all drawing keys from {@code [0, keySpace)}.
+ */
+public enum InputGenerator {
+  /** Keys drawn uniformly. */
+  UNIFORM {
+    @Override
+    int[] keys(int size, int keySpace, long seed) {
+      return new SplittableRandom(seed).ints(size, 0, keySpace).toArray();
+    }
+  },
+  /** Skewed keys, as from a cache or popularity-driven workload. */
+  ZIPFIAN {
+    @Override
+    int[] keys(int size, int keySpace, long seed) {
+      return new ZipfianGenerator(keySpace, seed).stream(size).mapToInt(k -> (int) k).toArray();
+    }
+  },
+  /** Uniform keys in ascending order, the best case for merges and runs. */
+  SORTED {
+    @Override
+    int[] keys(int size, int keySpace, long seed) {
+      int[] keys = UNIFORM.keys(size, keySpace, seed);
+      Arrays.sort(keys);
+      return keys;
+    }
+  };
+
+  abstract int[] keys(int size, int keySpace, long seed);
+
+  /**
+   * One batch of {@code size} boxed keys; boxing happens here, outside the timed pipeline.
+   */
+  public List<Integer> generate(int size, int keySpace, long seed) {
+    if (size < 0 || keySpace < 1) {
+      throw new IllegalArgumentException("size must be >= 0 and keySpace >= 1");
+    }
+    return Arrays.stream(keys(size, keySpace, seed)).boxed().toList();
+  }
+}
@@ -0,0 +1,127 @@
+package org.example.driver;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.example.metrics.MetricsRegistry;
+import org.example.metrics.MetricsServer;
+import org.example.pipeline.PipelineRunner;
+import org.example.util.AllocationMeter;
+
+/**
+ * Runs pipelines against synthetic input for a fixed time and reports throughput, per-batch
+ * latency percentiles and allocation rate.
+ *
+ * <p>A handful of input batches are generated up front and cycled, so generation and boxing stay
+ * out of the measurement. With parallelism above 1 each batch runs as a parallel stream inside a
+ * {@link PipelineRunner} pool of that size.
+ */
+public class LoadDriver implements AutoCloseable {
+  private static final int DISTINCT_BATCHES = 4;
+
+  private final DriverOptions options;
+  private final List<List<Integer>> batches = new ArrayList<>();
+  private final MetricsRegistry metrics = new MetricsRegistry();
+  private final PipelineRunner runner;
+  private final MetricsServer server;
+
+  public LoadDriver(DriverOptions options) {
+    this.options = options;
+    for (int i = 0; i < DISTINCT_BATCHES; i++) {
+      batches.add(options.generator().generate(options.size(), options.keySpace(),
+          options.seed() + i));
+    }
+    runner = options.parallelism() > 1
+        ? new PipelineRunner("load-driver", options.parallelism()) : null;
+    if (runner != null) {
+      metrics.register(runner);
+    }
+    try {
+      server = options.metricsPort() < 0 ? null : MetricsServer.start(metrics,
+          new InetSocketAddress(InetAddress.getLoopbackAddress(), options.metricsPort()));
+    } catch (IOException e) {
+      close();
+      throw new UncheckedIOException("Cannot start metrics endpoint", e);
+    }
+  }
+
+  /**
+   * Runs every configured pipeline, printing a line per report as it completes.
+   */
+  public List<LoadReport> runAll(PrintStream out) {
+    out.println(LoadReport.HEADER);
+    List<LoadReport> reports = new ArrayList<>();
+    for (Workload pipeline : options.pipelines()) {
+      LoadReport report = run(pipeline);
+      out.println(report.format());
+      reports.add(report);
+    }
+    return reports;
+  }
+
+  public LoadReport run(Workload pipeline) {
+    var latency = metrics.pipeline(pipeline.id()).stage("batch");
+    long warmupEnd = System.nanoTime() + options.warmup().toNanos();
+    for (int i = 0; System.nanoTime() < warmupEnd; i++) {
+      runBatch(pipeline, i);
+    }
+
+    long[] latencies = new long[1_024];
+    long batchCount = 0;
+    long allocatedBefore = AllocationMeter.totalAllocatedBytes();
+    long start = System.nanoTime();
+    long end = start + options.duration().toNanos();
+    long now = start;
+    while (now < end) {
+      long before = now;
+      runBatch(pipeline, (int) batchCount);
+      now = System.nanoTime();
+      if (batchCount == latencies.length) {
+        latencies = Arrays.copyOf(latencies, latencies.length * 2);
+      }
+      latencies[(int) batchCount++] = now - before;
+      latency.record(now - before);
+    }
+    long elapsed = now - start;
+    long allocatedAfter = AllocationMeter.totalAllocatedBytes();
+    Arrays.sort(latencies, 0, (int) batchCount);
+    return new LoadReport(pipeline, options.generator(), options.size(), options.parallelism(),
+        batchCount, batchCount * options.size(), elapsed,
+        percentile(latencies, (int) batchCount, 0.50),
+        percentile(latencies, (int) batchCount, 0.99),
+        allocatedBefore < 0 ? -1 : allocatedAfter - allocatedBefore);
+  }
+
+  @Override
+  public void close() {
+    if (server != null) {
+      server.close();
+    }
+    if (runner != null) {
+      runner.close();
+    }
+  }
+
+  private void runBatch(Workload pipeline, int index) {
+    List<Integer> batch = batches.get(index % DISTINCT_BATCHES);
+    if (runner == null) {
+      pipeline.run(batch.stream());
+    } else {
+      runner.run(() -> pipeline.run(batch.parallelStream()));
+    }
+    metrics.pipeline(pipeline.id()).addElements(batch.size());
+  }
+
+  static long percentile(long[] sorted, int count, double quantile) {
+    if (count == 0) {
+      return 0;
+    }
+    int rank = (int) Math.ceil(quantile * count);
+    return sorted[Math.clamp(rank - 1, 0, count - 1)];
+  }
+}
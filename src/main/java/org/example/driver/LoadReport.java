@@ -0,0 +1,44 @@
+package org.example.driver;
+
+import java.util.Locale;
+
+/**
+ * Measured result of one pipeline run.
+ *
+ * @param allocatedBytes bytes allocated by all threads while measuring, -1 if unsupported
+ */
+public record LoadReport(Workload pipeline,
+                         InputGenerator generator,
+                         int size,
+                         int parallelism,
+                         long batches,
+                         long elements,
+                         long elapsedNanos,
+                         long p50Nanos,
+                         long p99Nanos,
+                         long allocatedBytes) {
+  public static final String HEADER = String.format(Locale.ROOT,
+      "%-16s %-8s %10s %4s %8s %14s %10s %10s %12s",
+      "pipeline", "input", "size", "par", "batches", "elements/s", "p50 ms", "p99 ms",
+      "alloc MB/s");
+
+  public double elementsPerSecond() {
+    return elements / (elapsedNanos / 1e9);
+  }
+
+  /**
+   * Allocation rate in bytes per second, or -1 if unsupported.
+   */
+  public double allocationRate() {
+    return allocatedBytes < 0 ? -1 : allocatedBytes / (elapsedNanos / 1e9);
+  }
+
+  /**
+   * One line aligned with {@link #HEADER}.
+   */
+  public String format() {
+    return String.format(Locale.ROOT, "%-16s %-8s %10d %4d %8d %14.0f %10.3f %10.3f %12.1f",
+        pipeline.id(), generator.name().toLowerCase(Locale.ROOT), size, parallelism, batches,
+        elementsPerSecond(), p50Nanos / 1e6, p99Nanos / 1e6, allocationRate() / (1 << 20));
+  }
+}
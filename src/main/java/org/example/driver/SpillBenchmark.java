@@ -0,0 +1,93 @@
+package org.example.driver;
+
+import java.util.Locale;
+import java.util.stream.LongStream;
+import org.example.gatherers.ElementCodec;
+import org.example.gatherers.SpillingGatherer;
+
+/**
+ * Runs a finisher-buffered running total through {@link SpillingGatherer} over more data than
+ * the heap holds. The source is generated lazily, so the only copy of the buffered elements is
+ * the spill; with a {@code -Xmx64m} JVM, a heap multiple of 10 spills about 640 MiB.
+ */
+public final class SpillBenchmark {
+  /** Heap multiple of {@code Main --spill-benchmark} without an argument. */
+  public static final int DEFAULT_HEAP_MULTIPLE = 10;
+
+  // 4-byte length and 8-byte long per spilled element
+  static final int SPILLED_RECORD_BYTES = Integer.BYTES + Long.BYTES;
+  static final int MAX_IN_MEMORY = 4_096;
+
+  private SpillBenchmark() {
+    // Utility class, prevent instantiation
+  }
+
+  /**
+   * @param elements     elements buffered and replayed
+   * @param spilledBytes bytes written to the spill segments
+   * @param heapBytes    maximum heap of this JVM
+   * @param elapsedNanos integration, spill and replay
+   */
+  public record Result(long elements, long spilledBytes, long heapBytes, long elapsedNanos) {
+    public double heapMultiple() {
+      return (double) spilledBytes / heapBytes;
+    }
+
+    public double elementsPerSecond() {
+      return elements / (elapsedNanos / 1e9);
+    }
+
+    public String format() {
+      return String.format(Locale.ROOT,
+          "spill: %d elements, %.0f MiB spilled (%.1fx heap of %.0f MiB), %.0f ms, %.0f elements/s",
+          elements, spilledBytes / 1_048_576.0, heapMultiple(), heapBytes / 1_048_576.0,
+          elapsedNanos / 1e6, elementsPerSecond());
+    }
+  }
+
+  /**
+   * Elements whose spill is {@code heapMultiple} times this JVM's maximum heap.
+   */
+  public static long elementsFor(int heapMultiple) {
+    if (heapMultiple < 1) {
+      throw new IllegalArgumentException("heapMultiple must be positive: " + heapMultiple);
+    }
+    return heapMultiple * Runtime.getRuntime().maxMemory() / SPILLED_RECORD_BYTES;
+  }
+
+  /**
+   * Buffers the running totals of {@code 0..elements-1} and replays them in the finisher.
+   *
+   * @throws IllegalStateException if the replay does not match the input
+   */
+  public static Result run(long elements) {
+    long[] spilled = new long[1];
+    long[] replayed = new long[2];
+    long start = System.nanoTime();
+    LongStream.range(0, elements).boxed()
+        .gather(SpillingGatherer.<Long, Long, Long>ofSequential(MAX_IN_MEMORY,
+            ElementCodec.longs(),
+            (state, element, downstream) -> {
+              state.add(element + (state.isEmpty() ? 0 : state.getLast()));
+              return true;
+            },
+            (state, downstream) -> {
+              spilled[0] = state.spilledBytes();
+              for (Long total : state) {
+                if (!downstream.push(total)) {
+                  break;
+                }
+              }
+            }))
+        .forEachOrdered(total -> {
+          replayed[0]++;
+          replayed[1] = total;
+        });
+    long elapsed = System.nanoTime() - start;
+    if (replayed[0] != elements || elements > 0 && replayed[1] != elements * (elements - 1) / 2) {
+      throw new IllegalStateException(
+          "Replayed " + replayed[0] + " elements ending in " + replayed[1]);
+    }
+    return new Result(elements, spilled[0], Runtime.getRuntime().maxMemory(), elapsed);
+  }
+}
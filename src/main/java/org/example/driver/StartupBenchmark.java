@@ -0,0 +1,181 @@
+package org.example.driver;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.example.Main;
+
+/**
+ * Measures time to first result of fresh {@code Main --first-result} JVMs, with and without an
+ * AOT cache, and creates that cache from a {@code Main --train} run.
+ *
+ * <p>Uses the JDK 25 flags: {@code -XX:AOTCacheOutput} records and builds the cache in one
+ * training run, {@code -XX:AOTCache} starts from it. Time is taken by this process from spawning
+ * the child until it prints its first result, so JVM startup is included.
+ */
+public final class StartupBenchmark {
+  /** First JDK with one-step {@code -XX:AOTCacheOutput} training. */
+  public static final int AOT_MIN_FEATURE = 25;
+
+  // prefixes of the parent JVM options that children inherit
+  private static final List<String> FORWARDED_OPTIONS = List.of(
+      "--add-modules", "--add-exports", "--add-opens", "--add-reads", "--patch-module",
+      "--limit-modules", "--enable-preview", "--enable-native-access");
+
+  private final Path java;
+  private final String classPath;
+  private final List<String> jvmOptions;
+
+  /**
+   * @param jvmOptions options every child gets, e.g. module flags
+   */
+  public StartupBenchmark(Path java, String classPath, List<String> jvmOptions) {
+    this.java = java;
+    this.classPath = classPath;
+    this.jvmOptions = List.copyOf(jvmOptions);
+  }
+
+  /**
+   * Children use this JVM's executable and class path. Of its options they only get the module
+   * and preview flags {@code Main} needs to run, so agents, debuggers and AOT flags of the
+   * parent stay out of the measurement.
+   */
+  public static StartupBenchmark forCurrentJvm() {
+    List<String> options = ManagementFactory.getRuntimeMXBean().getInputArguments().stream()
+        .filter(option -> FORWARDED_OPTIONS.stream().anyMatch(option::startsWith))
+        .toList();
+    return new StartupBenchmark(Path.of(System.getProperty("java.home"), "bin", "java"),
+        System.getProperty("java.class.path"), options);
+  }
+
+  public static boolean aotSupported() {
+    return Runtime.version().feature() >= AOT_MIN_FEATURE;
+  }
+
+  /**
+   * Whether an AOT cache can help this benchmark: the JDK supports it and the class path is all
+   * JARs, since the cache only stores classes loaded from JAR files. Run from a packaged JAR
+   * rather than {@code target/classes}.
+   */
+  public boolean aotApplicable() {
+    return aotSupported() && Arrays.stream(classPath.split(File.pathSeparator))
+        .allMatch(entry -> entry.endsWith(".jar"));
+  }
+
+  /**
+   * Median over {@code runs} fresh JVMs.
+   *
+   * @param firstResultMillis spawn until the first result line
+   * @param wallMillis        spawn until exit
+   */
+  public record Result(int runs, double firstResultMillis, double wallMillis) {
+  }
+
+  /**
+   * Command line for a child JVM running {@code Main} with {@code mainArgs}.
+   */
+  public List<String> command(List<String> extraJvmOptions, String... mainArgs) {
+    List<String> command = new ArrayList<>();
+    command.add(java.toString());
+    command.addAll(jvmOptions);
+    command.addAll(extraJvmOptions);
+    command.add("-cp");
+    command.add(classPath);
+    command.add(Main.class.getName());
+    command.addAll(Arrays.asList(mainArgs));
+    return command;
+  }
+
+  /**
+   * Runs the training workload in a child JVM that writes the AOT cache to {@code cache}.
+   */
+  public void train(Path cache) {
+    requireAot();
+    int exit = run(command(List.of("-XX:AOTCacheOutput=" + cache), "--train"), null);
+    if (exit != 0 || !Files.isRegularFile(cache)) {
+      throw new IllegalStateException("AOT training failed with exit code " + exit);
+    }
+  }
+
+  /**
+   * Times {@code runs} children, started from {@code cache} unless it is null.
+   */
+  public Result measure(Path cache, int runs) {
+    if (runs < 1) {
+      throw new IllegalArgumentException("runs must be positive: " + runs);
+    }
+    List<String> extra = List.of();
+    if (cache != null) {
+      requireAot();
+      extra = List.of("-XX:AOTCache=" + cache, "-XX:AOTMode=on");
+    }
+    double[] first = new double[runs];
+    double[] wall = new double[runs];
+    for (int i = 0; i < runs; i++) {
+      long[] firstNanos = new long[1];
+      long start = System.nanoTime();
+      int exit = run(command(extra, "--first-result"), firstNanos);
+      wall[i] = (System.nanoTime() - start) / 1e6;
+      if (exit != 0 || firstNanos[0] == 0) {
+        throw new IllegalStateException("Startup probe failed with exit code " + exit);
+      }
+      first[i] = (firstNanos[0] - start) / 1e6;
+    }
+    return new Result(runs, median(first), median(wall));
+  }
+
+  private void requireAot() {
+    if (!aotSupported()) {
+      throw new UnsupportedOperationException(
+          "AOT cache needs JDK " + AOT_MIN_FEATURE + "+, running " + Runtime.version());
+    }
+    if (!aotApplicable()) {
+      throw new UnsupportedOperationException(
+          "AOT cache only stores classes from JARs, class path is " + classPath);
+    }
+  }
+
+  /**
+   * Runs {@code command}, echoing its output to stderr; records when the first-result line
+   * arrived if {@code firstResultNanos} is given.
+   */
+  private static int run(List<String> command, long[] firstResultNanos) {
+    try {
+      Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+      try (var out = new BufferedReader(
+          new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+        String line;
+        while ((line = out.readLine()) != null) {
+          if (firstResultNanos != null && firstResultNanos[0] == 0
+              && line.startsWith(AotTraining.FIRST_RESULT)) {
+            firstResultNanos[0] = System.nanoTime();
+          } else {
+            System.err.println(line);
+          }
+        }
+      }
+      return process.waitFor();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for child JVM", e);
+    }
+  }
+
+  private static double median(double[] values) {
+    double[] sorted = values.clone();
+    Arrays.sort(sorted);
+    int mid = sorted.length / 2;
+    return sorted.length % 2 == 1 ? sorted[mid] : (sorted[mid - 1] + sorted[mid]) / 2;
+  }
+}
@@ -0,0 +1,106 @@
+package org.example.driver;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Gatherers;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.example.concurrent.StripedAggregators;
+import org.example.gatherers.ElementCodec;
+import org.example.gatherers.ExternalSortGatherer;
+import org.example.gatherers.JoinGatherers;
+import org.example.gatherers.JoinMode;
+import org.example.gatherers.MemoizingMapGatherer;
+import org.example.gatherers.SamplingGatherers;
+import org.example.gatherers.ShortCircuitGatherers;
+
+/**
+ * Named pipelines for the load driver, built from the gatherer shapes the tests exercise. Each
+ * consumes one batch and returns how many results it produced.
+ */
+public enum Workload {
+  FOLD("fold") {
+    @Override
+    public long run(Stream<Integer> input) {
+      return input.gather(Gatherers.fold(() -> 0L, (Long a, Integer b) -> a + b))
+          .count();
+    }
+  },
+  WINDOW_FIXED("window-fixed") {
+    @Override
+    public long run(Stream<Integer> input) {
+      return input.gather(Gatherers.windowFixed(64)).count();
+    }
+  },
+  WINDOW_SLIDING("window-sliding") {
+    @Override
+    public long run(Stream<Integer> input) {
+      return input.gather(Gatherers.windowSliding(8)).count();
+    }
+  },
+  RUNNING_TOTAL("running-total") {
+    @Override
+    public long run(Stream<Integer> input) {
+      return input.gather(ShortCircuitGatherers.runningTotal()).count();
+    }
+  },
+  MEMOIZED_MAP("memoized-map") {
+    @Override
+    public long run(Stream<Integer> input) {
+      return input.gather(MemoizingMapGatherer.of(Integer::toHexString, 1_024)).count();
+    }
+  },
+  HASH_JOIN("hash-join") {
+    private static final List<Integer> DIMENSION = IntStream.range(0, 1_024).boxed().toList();
+
+    @Override
+    public long run(Stream<Integer> input) {
+      return input.gather(JoinGatherers.hashJoin(DIMENSION, (Integer key) -> key & 2_047,
+          (Integer key) -> key, JoinMode.INNER)).count();
+    }
+  },
+  RESERVOIR("reservoir") {
+    @Override
+    public long run(Stream<Integer> input) {
+      return input.gather(SamplingGatherers.reservoir(100, 42L)).count();
+    }
+  },
+  EXTERNAL_SORT("external-sort") {
+    @Override
+    public long run(Stream<Integer> input) {
+      return input.gather(ExternalSortGatherer.of(Comparator.<Integer>naturalOrder(),
+          ElementCodec.ints(), 16_384)).count();
+    }
+  },
+  TALLY("tally") {
+    @Override
+    public long run(Stream<Integer> input) {
+      return input.unordered().collect(StripedAggregators.countingBy((Integer key) -> key & 1_023))
+          .size();
+    }
+  };
+
+  private final String id;
+
+  Workload(String id) {
+    this.id = id;
+  }
+
+  public String id() {
+    return id;
+  }
+
+  /**
+   * Runs the pipeline over one batch and returns the number of results.
+   */
+  public abstract long run(Stream<Integer> input);
+
+  public static Workload byId(String id) {
+    for (Workload workload : values()) {
+      if (workload.id.equals(id)) {
+        return workload;
+      }
+    }
+    throw new IllegalArgumentException("Unknown pipeline: " + id);
+  }
+}
@@ -0,0 +1,228 @@
+package org.example.gatherers;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.function.BiConsumer;
+import java.util.function.ToLongFunction;
+import java.util.stream.Gatherer;
+import java.util.zip.CRC32C;
+
+/**
+ * Checksums that run on parallel streams. CRC32C partials are combined in the combiner with the
+ * zlib {@code crc32_combine} method (multiplying the left CRC by x^(8 * rightLength) modulo the
+ * polynomial), so the result equals the sequential CRC without touching the data twice. The
+ * 64-bit hash mode sums mixed element hashes, which does not depend on order at all.
+ */
+public class ChecksumGatherers {
+  // CRC32C (Castagnoli) polynomial, reflected
+  private static final int POLY = 0x82F63B78;
+  // X2N[n] = x^(2^n) mod POLY, reflected
+  private static final int[] X2N = x2nTable();
+  private static final long K1 = 0x9E3779B97F4A7C15L;
+  private static final long K2 = 0xC2B2AE3D27D4EB4FL;
+
+  private ChecksumGatherers() {
+    // Utility class, prevent instantiation
+  }
+
+  /**
+   * CRC32C of the concatenated chunks in encounter order; pushes one {@code Long}.
+   */
+  public static Gatherer<byte[], ?, Long> crc32c() {
+    return crc32c(Partial::update);
+  }
+
+  /**
+   * CRC32C of the concatenated chunks, each {@code int} taken as 4 big-endian bytes.
+   */
+  public static Gatherer<int[], ?, Long> crc32cOfInts() {
+    return crc32c(Partial::updateInts);
+  }
+
+  /**
+   * CRC32C of the concatenated chunks, each {@code long} taken as 8 big-endian bytes.
+   */
+  public static Gatherer<long[], ?, Long> crc32cOfLongs() {
+    return crc32c(Partial::updateLongs);
+  }
+
+  /**
+   * Order-independent 64-bit hash of the chunks as a multiset, for unordered streams.
+   */
+  public static Gatherer<byte[], ?, Long> unorderedHash64() {
+    return unorderedHash64(ChecksumGatherers::hash64);
+  }
+
+  /**
+   * Order-independent 64-bit hash: the wrapping sum of the mixed {@code elementHash} values.
+   * Equal multisets of elements give equal results, whatever the split or encounter order.
+   */
+  public static <T> Gatherer<T, ?, Long> unorderedHash64(ToLongFunction<? super T> elementHash) {
+    return Gatherer.<T, long[], Long>of(
+        () -> new long[1],
+        Gatherer.Integrator.ofGreedy((state, element, _) -> {
+          state[0] += mix64(elementHash.applyAsLong(element));
+          return true;
+        }),
+        (left, right) -> {
+          left[0] += right[0];
+          return left;
+        },
+        (state, downstream) -> downstream.push(state[0]));
+  }
+
+  /**
+   * CRC32C of {@code a} followed by {@code b}, given both CRCs and the length of {@code b}.
+   */
+  public static long crc32cCombine(long crcA, long crcB, long lengthB) {
+    if (lengthB < 0) {
+      throw new IllegalArgumentException("lengthB must be >= 0: " + lengthB);
+    }
+    return (multModP(x2nModP(lengthB, 3), (int) crcA) ^ crcB) & 0xFFFFFFFFL;
+  }
+
+  /**
+   * 64-bit hash of a byte array: 8-byte words folded with multiply-rotate, then finalized.
+   */
+  public static long hash64(byte[] bytes) {
+    ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+    long h = bytes.length * K1;
+    int i = 0;
+    for (; i + Long.BYTES <= bytes.length; i += Long.BYTES) {
+      h = Long.rotateLeft(h ^ buffer.getLong(i) * K2, 31) * K1;
+    }
+    long tail = 0;
+    for (int shift = 0; i < bytes.length; i++, shift += 8) {
+      tail |= (bytes[i] & 0xFFL) << shift;
+    }
+    return mix64(h ^ tail * K2);
+  }
+
+  private static <T> Gatherer<T, ?, Long> crc32c(BiConsumer<Partial, T> update) {
+    return Gatherer.<T, Partial, Long>of(
+        Partial::new,
+        Gatherer.Integrator.ofGreedy((state, element, _) -> {
+          update.accept(state, element);
+          return true;
+        }),
+        Partial::append,
+        (state, downstream) -> downstream.push(state.value()));
+  }
+
+  // murmur3 fmix64
+  private static long mix64(long z) {
+    z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+    z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+    return z ^ (z >>> 33);
+  }
+
+  /** a * b modulo POLY, reflected (bit 31 is x^0). */
+  private static int multModP(int a, int b) {
+    int m = 1 << 31;
+    int p = 0;
+    while (true) {
+      if ((a & m) != 0) {
+        p ^= b;
+        if ((a & (m - 1)) == 0) {
+          return p;
+        }
+      }
+      m >>>= 1;
+      b = (b & 1) != 0 ? (b >>> 1) ^ POLY : b >>> 1;
+    }
+  }
+
+  /** x^(n * 2^k) modulo POLY. */
+  private static int x2nModP(long n, int k) {
+    int p = 1 << 31;
+    while (n != 0) {
+      if ((n & 1) != 0) {
+        p = multModP(X2N[k & 31], p);
+      }
+      n >>>= 1;
+      k++;
+    }
+    return p;
+  }
+
+  private static int[] x2nTable() {
+    int[] table = new int[32];
+    int p = 1 << 30;
+    table[0] = p;
+    for (int n = 1; n < table.length; n++) {
+      p = multModP(p, p);
+      table[n] = p;
+    }
+    return table;
+  }
+
+  /**
+   * A split's CRC: {@code prefix} covers the partials combined so far, {@code crc} the
+   * {@code pending} bytes integrated since.
+   */
+  private static final class Partial {
+    private final CRC32C crc = new CRC32C();
+    private ByteBuffer scratch;
+    private long prefix;
+    private long prefixLength;
+    private long pending;
+
+    void update(byte[] chunk) {
+      crc.update(chunk);
+      pending += chunk.length;
+    }
+
+    void updateInts(int[] chunk) {
+      ByteBuffer buffer = scratch();
+      for (int value : chunk) {
+        if (buffer.remaining() < Integer.BYTES) {
+          flush(buffer);
+        }
+        buffer.putInt(value);
+      }
+      flush(buffer);
+    }
+
+    void updateLongs(long[] chunk) {
+      ByteBuffer buffer = scratch();
+      for (long value : chunk) {
+        if (buffer.remaining() < Long.BYTES) {
+          flush(buffer);
+        }
+        buffer.putLong(value);
+      }
+      flush(buffer);
+    }
+
+    Partial append(Partial right) {
+      long rightLength = right.length();
+      prefix = crc32cCombine(value(), right.value(), rightLength);
+      prefixLength = length() + rightLength;
+      crc.reset();
+      pending = 0;
+      return this;
+    }
+
+    long value() {
+      return crc32cCombine(prefix, crc.getValue(), pending);
+    }
+
+    private long length() {
+      return prefixLength + pending;
+    }
+
+    private ByteBuffer scratch() {
+      if (scratch == null) {
+        scratch = ByteBuffer.allocate(4096);
+      }
+      return scratch;
+    }
+
+    private void flush(ByteBuffer buffer) {
+      buffer.flip();
+      pending += buffer.remaining();
+      crc.update(buffer);
+      buffer.clear();
+    }
+  }
+}
@@ -0,0 +1,236 @@
+package org.example.gatherers;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Gatherer;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * pigz-style block-parallel compression. Input bytes are cut into fixed-size blocks; each block
+ * is deflated on the executor with its dictionary primed from the last 32 KiB of the previous
+ * block and ends in a sync flush, so the blocks concatenate into one valid deflate stream. Each
+ * worker thread keeps its zlib streams and resets them per block. The gatherer itself is
+ * sequential: it feeds workers and pushes compressed chunks in input order, keeping at most two
+ * blocks per core in flight.
+ */
+public class CompressionGatherers {
+  /** Default uncompressed block size, as in pigz. */
+  public static final int DEFAULT_BLOCK_SIZE = 128 * 1024;
+
+  private static final int DICTIONARY_SIZE = 32 * 1024;
+  // ID1 ID2, CM = deflate, no flags, no mtime, XFL 0, OS unknown
+  private static final byte[] GZIP_HEADER =
+      {0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+  // BFINAL = 1, BTYPE = fixed Huffman, end-of-block code
+  private static final byte[] FINAL_EMPTY_BLOCK = {0x03, 0x00};
+  private static final ThreadLocal<Worker> WORKERS = ThreadLocal.withInitial(Worker::new);
+
+  private CompressionGatherers() {
+    // Utility class, prevent instantiation
+  }
+
+  /**
+   * Gzip with default block size and level on the common pool.
+   */
+  public static Gatherer<byte[], ?, byte[]> gzip() {
+    return gzip(DEFAULT_BLOCK_SIZE, Deflater.DEFAULT_COMPRESSION, ForkJoinPool.commonPool());
+  }
+
+  public static Gatherer<byte[], ?, byte[]> gzip(int blockSize, int level, Executor executor) {
+    return gzip(Function.identity(), blockSize, level, executor);
+  }
+
+  /**
+   * Gzip of the elements' encoded bytes, concatenated. The pushed chunks together form one gzip
+   * member, readable by {@code GZIPInputStream} or {@code gzip -d}.
+   *
+   * <p>Every block is an executor task, ends in a 5-byte sync-flush marker and sees at most its
+   * predecessor as dictionary. Below about 32 KiB, the dictionary size, blocks lose ratio and
+   * throughput; tiny block sizes are valid but only useful for tests.
+   */
+  public static <T> Gatherer<T, ?, byte[]> gzip(
+      Function<? super T, byte[]> encoder, int blockSize, int level, Executor executor) {
+    return compress(encoder, blockSize, level, executor, true);
+  }
+
+  /**
+   * Same as {@link #gzip(Function, int, int, Executor)} but emits a raw deflate stream
+   * ({@code new Inflater(true)}).
+   */
+  public static <T> Gatherer<T, ?, byte[]> deflate(
+      Function<? super T, byte[]> encoder, int blockSize, int level, Executor executor) {
+    return compress(encoder, blockSize, level, executor, false);
+  }
+
+  private static <T> Gatherer<T, ?, byte[]> compress(
+      Function<? super T, byte[]> encoder, int blockSize, int level, Executor executor,
+      boolean gzip) {
+    if (blockSize <= 0) {
+      throw new IllegalArgumentException("blockSize must be > 0: " + blockSize);
+    }
+    if (level < Deflater.DEFAULT_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+      throw new IllegalArgumentException("Invalid compression level: " + level);
+    }
+    int maxInFlight = 2 * Runtime.getRuntime().availableProcessors();
+    return Gatherer.<T, BlockState, byte[]>ofSequential(
+        () -> new BlockState(blockSize, level, executor, gzip, maxInFlight),
+        (state, element, downstream) -> state.write(encoder.apply(element), downstream),
+        BlockState::finish);
+  }
+
+  static byte[] deflateBlock(byte[] data, byte[] dictionary, int level) {
+    Worker worker = WORKERS.get();
+    Deflater deflater = worker.deflater(level);
+    deflater.reset();
+    if (dictionary != null) {
+      int length = Math.min(DICTIONARY_SIZE, dictionary.length);
+      deflater.setDictionary(dictionary, dictionary.length - length, length);
+    }
+    deflater.setInput(data);
+    byte[] out = worker.scratch(data.length + data.length / 1000 + 64);
+    int total = 0;
+    while (true) {
+      total += deflater.deflate(out, total, out.length - total, Deflater.SYNC_FLUSH);
+      if (total < out.length) {
+        break;
+      }
+      // a full buffer may hide more output
+      out = worker.scratch(out.length * 2);
+    }
+    return Arrays.copyOf(out, total);
+  }
+
+  /**
+   * Per-thread zlib streams, one per level, and output scratch. {@link Deflater#reset()} keeps
+   * the native state, so a block no longer pays for creating and ending a stream.
+   */
+  private static final class Worker {
+    private final Deflater[] deflaters =
+        new Deflater[Deflater.BEST_COMPRESSION - Deflater.DEFAULT_COMPRESSION + 1];
+    private byte[] scratch = new byte[0];
+
+    Deflater deflater(int level) {
+      int index = level - Deflater.DEFAULT_COMPRESSION;
+      if (deflaters[index] == null) {
+        deflaters[index] = new Deflater(level, true);
+      }
+      return deflaters[index];
+    }
+
+    byte[] scratch(int bytes) {
+      if (scratch.length < bytes) {
+        scratch = Arrays.copyOf(scratch, bytes);
+      }
+      return scratch;
+    }
+  }
+
+  private static final class BlockState {
+    private final int blockSize;
+    private final int level;
+    private final Executor executor;
+    private final boolean gzip;
+    private final int maxInFlight;
+    private final ArrayDeque<CompletableFuture<byte[]>> inFlight = new ArrayDeque<>();
+    private final CRC32 crc = new CRC32();
+    private byte[] block;
+    private int fill;
+    private byte[] previous;
+    private long totalBytes;
+    private boolean headerSent;
+    private boolean rejected;
+
+    BlockState(int blockSize, int level, Executor executor, boolean gzip, int maxInFlight) {
+      this.blockSize = blockSize;
+      this.level = level;
+      this.executor = executor;
+      this.gzip = gzip;
+      this.maxInFlight = maxInFlight;
+      this.block = new byte[blockSize];
+    }
+
+    boolean write(byte[] bytes, Gatherer.Downstream<? super byte[]> downstream) {
+      crc.update(bytes);
+      totalBytes += bytes.length;
+      int offset = 0;
+      while (offset < bytes.length) {
+        int count = Math.min(bytes.length - offset, blockSize - fill);
+        System.arraycopy(bytes, offset, block, fill, count);
+        fill += count;
+        offset += count;
+        if (fill == blockSize) {
+          submit();
+          if (!drain(downstream, false)) {
+            return false;
+          }
+        }
+      }
+      return !downstream.isRejecting();
+    }
+
+    void finish(Gatherer.Downstream<? super byte[]> downstream) {
+      if (rejected) {
+        return;
+      }
+      if (fill > 0) {
+        submit();
+      }
+      if (!drain(downstream, true) || !emit(downstream, FINAL_EMPTY_BLOCK) || !gzip) {
+        return;
+      }
+      byte[] trailer = new byte[8];
+      putIntLe(trailer, 0, (int) crc.getValue());
+      putIntLe(trailer, 4, (int) totalBytes);
+      emit(downstream, trailer);
+    }
+
+    private void submit() {
+      byte[] data = fill == blockSize ? block : Arrays.copyOf(block, fill);
+      byte[] dictionary = previous;
+      inFlight.add(CompletableFuture.supplyAsync(
+          () -> deflateBlock(data, dictionary, level), executor));
+      previous = data;
+      block = new byte[blockSize];
+      fill = 0;
+    }
+
+    private boolean drain(Gatherer.Downstream<? super byte[]> downstream, boolean all) {
+      while (!inFlight.isEmpty()
+          && (all || inFlight.size() >= maxInFlight || inFlight.peek().isDone())) {
+        if (!emit(downstream, inFlight.poll().join())) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private boolean emit(Gatherer.Downstream<? super byte[]> downstream, byte[] chunk) {
+      if (gzip && !headerSent) {
+        headerSent = true;
+        if (!downstream.push(GZIP_HEADER.clone())) {
+          return reject();
+        }
+      }
+      return chunk.length == 0 || downstream.push(chunk) || reject();
+    }
+
+    private boolean reject() {
+      rejected = true;
+      inFlight.forEach(future -> future.cancel(false));
+      inFlight.clear();
+      return false;
+    }
+
+    private static void putIntLe(byte[] target, int offset, int value) {
+      target[offset] = (byte) value;
+      target[offset + 1] = (byte) (value >>> 8);
+      target[offset + 2] = (byte) (value >>> 16);
+      target[offset + 3] = (byte) (value >>> 24);
+    }
+  }
+}
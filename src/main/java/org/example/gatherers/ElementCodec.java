@@ -0,0 +1,61 @@
+package org.example.gatherers;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Compact binary encoding of stream elements for gatherers that move state out of the heap.
+ *
+ * @param <T> element type
+ */
+public interface ElementCodec<T> {
+  void write(DataOutput out, T value) throws IOException;
+
+  T read(DataInput in) throws IOException;
+
+  /** Fixed 4-byte big-endian ints. */
+  static ElementCodec<Integer> ints() {
+    return new ElementCodec<>() {
+      @Override
+      public void write(DataOutput out, Integer value) throws IOException {
+        out.writeInt(value);
+      }
+
+      @Override
+      public Integer read(DataInput in) throws IOException {
+        return in.readInt();
+      }
+    };
+  }
+
+  /** Fixed 8-byte big-endian longs. */
+  static ElementCodec<Long> longs() {
+    return new ElementCodec<>() {
+      @Override
+      public void write(DataOutput out, Long value) throws IOException {
+        out.writeLong(value);
+      }
+
+      @Override
+      public Long read(DataInput in) throws IOException {
+        return in.readLong();
+      }
+    };
+  }
+
+  /** Modified UTF-8 with a 2-byte length prefix, so strings are limited to 65535 bytes. */
+  static ElementCodec<String> strings() {
+    return new ElementCodec<>() {
+      @Override
+      public void write(DataOutput out, String value) throws IOException {
+        out.writeUTF(value);
+      }
+
+      @Override
+      public String read(DataInput in) throws IOException {
+        return in.readUTF();
+      }
+    };
+  }
+}
@@ -0,0 +1,356 @@
+package org.example.gatherers;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.Cleaner;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+import java.util.stream.Gatherer;
+
+/**
+ * Sorting gatherer for inputs larger than the heap.
+ *
+ * <p>Each split buffers at most {@code maxInMemory} elements. A full buffer is sorted and written
+ * as a run to a temp file, so in a parallel stream runs are generated concurrently by every
+ * split. The finisher k-way merges the runs plus the last in-memory buffer through a
+ * {@link LoserTree} and deletes the temp files. At most {@code maxFanIn} runs are open at once:
+ * with more, consecutive groups are first merged into longer runs. Equal elements keep their
+ * encounter order. Run files of a stream that fails before its finisher are deleted once its
+ * state is garbage collected.
+ *
+ * <p>Run file layout: a 4-byte element count followed by the elements as written by the
+ * {@link ElementCodec}.
+ */
+public class ExternalSortGatherer {
+  /** Runs merged at once unless given; each open run holds a read buffer. */
+  public static final int DEFAULT_MAX_FAN_IN = 64;
+
+  private static final int WRITE_BUFFER_SIZE = 1 << 20;
+  private static final int READ_BUFFER_SIZE = 1 << 18;
+  private static final Cleaner CLEANER = Cleaner.create();
+
+  private ExternalSortGatherer() {
+    // Utility class, prevent instantiation
+  }
+
+  /**
+   * Sorts with runs spilled to the default temp directory.
+   */
+  public static <T> Gatherer<T, ?, T> of(Comparator<? super T> comparator,
+                                         ElementCodec<T> codec,
+                                         int maxInMemory) {
+    return of(comparator, codec, maxInMemory, null);
+  }
+
+  /**
+   * Sorts with runs spilled to {@code tempDir}, or the default temp directory when null.
+   *
+   * @param maxInMemory elements buffered per split before a run is spilled
+   */
+  public static <T> Gatherer<T, ?, T> of(Comparator<? super T> comparator,
+                                         ElementCodec<T> codec,
+                                         int maxInMemory,
+                                         Path tempDir) {
+    return of(comparator, codec, maxInMemory, tempDir, DEFAULT_MAX_FAN_IN);
+  }
+
+  /**
+   * @param maxFanIn sources merged at once, including the in-memory buffer; at least 2
+   */
+  public static <T> Gatherer<T, ?, T> of(Comparator<? super T> comparator,
+                                         ElementCodec<T> codec,
+                                         int maxInMemory,
+                                         Path tempDir,
+                                         int maxFanIn) {
+    if (maxInMemory < 1) {
+      throw new IllegalArgumentException("maxInMemory must be positive: " + maxInMemory);
+    }
+    if (maxFanIn < 2) {
+      throw new IllegalArgumentException("maxFanIn must be at least 2: " + maxFanIn);
+    }
+    return Gatherer.of(
+        () -> new State<>(comparator, codec, maxInMemory, tempDir, maxFanIn),
+        Gatherer.Integrator.ofGreedy((State<T> state, T element,
+                                      Gatherer.Downstream<? super T> _) -> {
+          state.add(element);
+          return true;
+        }),
+        State::combine,
+        State::finish);
+  }
+
+  private static final class State<T> {
+    private final Comparator<? super T> comparator;
+    private final ElementCodec<T> codec;
+    private final int maxInMemory;
+    private final Path tempDir;
+    private final int maxFanIn;
+    private final RunFiles runs = new RunFiles();
+    // deletes the runs if the stream fails and the state is dropped without a finisher
+    private final Cleaner.Cleanable cleanable = CLEANER.register(this, runs);
+    private List<T> buffer = new ArrayList<>();
+
+    State(Comparator<? super T> comparator, ElementCodec<T> codec, int maxInMemory,
+          Path tempDir, int maxFanIn) {
+      this.comparator = comparator;
+      this.codec = codec;
+      this.maxInMemory = maxInMemory;
+      this.tempDir = tempDir;
+      this.maxFanIn = maxFanIn;
+    }
+
+    void add(T element) {
+      buffer.add(element);
+      if (buffer.size() >= maxInMemory) {
+        spill();
+      }
+    }
+
+    State<T> combine(State<T> right) {
+      // left runs and buffer precede the right ones in encounter order
+      if (right.runs.isEmpty()) {
+        buffer.addAll(right.buffer);
+        if (buffer.size() >= maxInMemory) {
+          spill();
+        }
+        return this;
+      }
+      if (!buffer.isEmpty()) {
+        spill();
+      }
+      runs.takeAll(right.runs);
+      buffer = right.buffer;
+      return this;
+    }
+
+    void finish(Gatherer.Downstream<? super T> downstream) {
+      try {
+        buffer.sort(comparator);
+        if (runs.isEmpty()) {
+          for (T element : buffer) {
+            if (!downstream.push(element)) {
+              break;
+            }
+          }
+          return;
+        }
+        // the buffer takes one of the merge's inputs
+        while (runs.size() >= maxFanIn) {
+          mergePass();
+        }
+        merge(runs.paths(), buffer.iterator(), downstream::push);
+      } finally {
+        cleanable.clean();
+      }
+    }
+
+    // merges consecutive groups of maxFanIn runs, which keeps equal elements in order
+    private void mergePass() {
+      List<Path> current = runs.paths();
+      List<Path> merged = new ArrayList<>();
+      for (int from = 0; from < current.size(); from += maxFanIn) {
+        List<Path> group = current.subList(from, Math.min(from + maxFanIn, current.size()));
+        if (group.size() == 1) {
+          merged.add(group.getFirst());
+          continue;
+        }
+        long count = 0;
+        for (Path run : group) {
+          count += RunReader.count(run);
+        }
+        Path longer = createRun();
+        runs.add(longer);
+        try (var out = openRun(longer)) {
+          out.writeInt(Math.toIntExact(count));
+          merge(group, Collections.emptyIterator(), element -> {
+            try {
+              codec.write(out, element);
+            } catch (IOException e) {
+              throw new UncheckedIOException("Failed to write merged run", e);
+            }
+            return true;
+          });
+        } catch (IOException e) {
+          throw new UncheckedIOException("Failed to write merged run", e);
+        }
+        runs.delete(group);
+        merged.add(longer);
+      }
+      runs.reorder(merged);
+    }
+
+    private void merge(List<Path> group, Iterator<T> last, Predicate<? super T> sink) {
+      List<RunReader<T>> readers = new ArrayList<>();
+      try {
+        for (Path run : group) {
+          readers.add(new RunReader<>(run, codec));
+        }
+        List<Iterator<? extends T>> sources = new ArrayList<>(readers);
+        sources.add(last);
+        LoserTree<T> tree = new LoserTree<>(sources, comparator);
+        boolean accepting = true;
+        while (accepting && tree.hasNext()) {
+          accepting = sink.test(tree.next());
+        }
+      } finally {
+        readers.forEach(RunReader::close);
+      }
+    }
+
+    private void spill() {
+      buffer.sort(comparator);
+      Path run = createRun();
+      runs.add(run);
+      try (var out = openRun(run)) {
+        out.writeInt(buffer.size());
+        for (T element : buffer) {
+          codec.write(out, element);
+        }
+      } catch (IOException e) {
+        cleanable.clean();
+        throw new UncheckedIOException("Failed to spill sorted run", e);
+      }
+      buffer = new ArrayList<>();
+    }
+
+    private Path createRun() {
+      try {
+        return tempDir == null
+            ? Files.createTempFile("external-sort-", ".run")
+            : Files.createTempFile(tempDir, "external-sort-", ".run");
+      } catch (IOException e) {
+        cleanable.clean();
+        throw new UncheckedIOException("Failed to create sorted run", e);
+      }
+    }
+
+    private static DataOutputStream openRun(Path run) throws IOException {
+      return new DataOutputStream(
+          new BufferedOutputStream(Files.newOutputStream(run), WRITE_BUFFER_SIZE));
+    }
+  }
+
+  /**
+   * Run files of one state, in encounter order. Also the cleaning action, so it must not refer
+   * back to the state.
+   */
+  private static final class RunFiles implements Runnable {
+    private final List<Path> paths = new ArrayList<>();
+
+    synchronized void add(Path run) {
+      paths.add(run);
+    }
+
+    synchronized void takeAll(RunFiles other) {
+      synchronized (other) {
+        paths.addAll(other.paths);
+        other.paths.clear();
+      }
+    }
+
+    synchronized boolean isEmpty() {
+      return paths.isEmpty();
+    }
+
+    synchronized int size() {
+      return paths.size();
+    }
+
+    synchronized List<Path> paths() {
+      return List.copyOf(paths);
+    }
+
+    synchronized void reorder(List<Path> runs) {
+      paths.clear();
+      paths.addAll(runs);
+    }
+
+    synchronized void delete(List<Path> runs) {
+      for (Path run : runs) {
+        deleteQuietly(run);
+      }
+      paths.removeAll(runs);
+    }
+
+    @Override
+    public synchronized void run() {
+      paths.forEach(RunFiles::deleteQuietly);
+      paths.clear();
+    }
+
+    private static void deleteQuietly(Path run) {
+      try {
+        Files.deleteIfExists(run);
+      } catch (IOException _) {
+        // best effort, the file lives in a temp directory
+      }
+    }
+  }
+
+  private static final class RunReader<T> implements Iterator<T>, Closeable {
+    private final DataInputStream in;
+    private final ElementCodec<T> codec;
+    private int remaining;
+
+    RunReader(Path run, ElementCodec<T> codec) {
+      this.codec = codec;
+      try {
+        this.in = new DataInputStream(
+            new BufferedInputStream(Files.newInputStream(run), READ_BUFFER_SIZE));
+        this.remaining = in.readInt();
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to open sorted run " + run, e);
+      }
+    }
+
+    static int count(Path run) {
+      try (var in = new DataInputStream(Files.newInputStream(run))) {
+        return in.readInt();
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to read sorted run " + run, e);
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return remaining > 0;
+    }
+
+    @Override
+    public T next() {
+      if (remaining == 0) {
+        throw new NoSuchElementException();
+      }
+      try {
+        remaining--;
+        return codec.read(in);
+      } catch (EOFException e) {
+        throw new UncheckedIOException("Sorted run is truncated", e);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    @Override
+    public void close() {
+      try {
+        in.close();
+      } catch (IOException _) {
+        // nothing left to read
+      }
+    }
+  }
+}
@@ -0,0 +1,317 @@
+package org.example.gatherers;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.stream.Gatherer;
+
+/**
+ * Fan-out/fan-in per element: every element forks the same set of independent subtasks on
+ * virtual threads, joins them under a {@link JoinPolicy} and pushes the combined result. Results
+ * are pushed in input order, while up to {@code maxConcurrentElements} elements are in flight.
+ *
+ * <p>Follows the rules of {@code StructuredTaskScope}, which is still a preview API in Java 25.
+ * Once an element's policy is decided, its remaining subtasks are interrupted. Whenever the
+ * gatherer sees the stream end, it cancels what is still running and waits for those threads to
+ * end: in the finisher, on a failed element or combiner, and when the downstream rejects or
+ * throws. A stage upstream of the gatherer that throws between two elements ends the stream
+ * without the gatherer noticing; the subtasks then in flight are not interrupted and finish on
+ * their own, so they should not block indefinitely.
+ */
+public class FanOutGatherers {
+  /** Elements in flight for the overloads without {@code maxConcurrentElements}. */
+  public static final int DEFAULT_MAX_CONCURRENT_ELEMENTS = 64;
+
+  private FanOutGatherers() {
+    // Utility class, prevent instantiation
+  }
+
+  /**
+   * One sub-lookup of an element; may block and throw.
+   */
+  @FunctionalInterface
+  public interface Subtask<T, S> {
+    S call(T element) throws Exception;
+  }
+
+  /**
+   * When an element's subtasks are joined.
+   */
+  public static final class JoinPolicy {
+    private static final JoinPolicy FAIL_FAST = new JoinPolicy(0);
+
+    // 0 means every subtask
+    private final int required;
+
+    private JoinPolicy(int required) {
+      this.required = required;
+    }
+
+    /**
+     * Every subtask must succeed. The first failure cancels the siblings and fails the stream.
+     */
+    public static JoinPolicy failFast() {
+      return FAIL_FAST;
+    }
+
+    /**
+     * Joins once {@code required} subtasks have succeeded and cancels the rest. Fails when so
+     * many have failed that the quorum can no longer be reached.
+     */
+    public static JoinPolicy quorum(int required) {
+      if (required < 1) {
+        throw new IllegalArgumentException("required must be > 0: " + required);
+      }
+      return new JoinPolicy(required);
+    }
+
+    /**
+     * First success wins, as with redundant replicas.
+     */
+    public static JoinPolicy anySuccessful() {
+      return quorum(1);
+    }
+
+    int required(int subtasks) {
+      return required == 0 ? subtasks : required;
+    }
+
+    @Override
+    public String toString() {
+      return required == 0 ? "failFast" : "quorum(" + required + ")";
+    }
+  }
+
+  /**
+   * Fail-fast fan-out with {@link #DEFAULT_MAX_CONCURRENT_ELEMENTS}.
+   */
+  public static <T, S, R> Gatherer<T, ?, R> fanOut(
+      List<? extends Subtask<? super T, ? extends S>> subtasks,
+      BiFunction<? super T, ? super List<S>, ? extends R> combiner) {
+    return fanOut(subtasks, JoinPolicy.failFast(), combiner, DEFAULT_MAX_CONCURRENT_ELEMENTS);
+  }
+
+  /**
+   * Forks {@code subtasks} for every element and pushes {@code combiner(element, results)}.
+   * {@code results} holds one entry per subtask, in the order of {@code subtasks}. Under a quorum
+   * policy the entries of subtasks that failed or were cancelled are null. The combiner runs on
+   * the stream's thread. When an element fails, its failure is thrown as a
+   * {@link java.util.concurrent.CompletionException}, after the elements still in flight are
+   * cancelled. The failure's suppressed exceptions hold the other failures of that element.
+   */
+  public static <T, S, R> Gatherer<T, ?, R> fanOut(
+      List<? extends Subtask<? super T, ? extends S>> subtasks, JoinPolicy policy,
+      BiFunction<? super T, ? super List<S>, ? extends R> combiner, int maxConcurrentElements) {
+    if (subtasks.isEmpty()) {
+      throw new IllegalArgumentException("subtasks must not be empty");
+    }
+    int required = policy.required(subtasks.size());
+    if (required > subtasks.size()) {
+      throw new IllegalArgumentException(
+          policy + " needs more than the " + subtasks.size() + " subtasks");
+    }
+    if (maxConcurrentElements < 1) {
+      throw new IllegalArgumentException(
+          "maxConcurrentElements must be > 0: " + maxConcurrentElements);
+    }
+    List<? extends Subtask<? super T, ? extends S>> forks = List.copyOf(subtasks);
+    return Gatherer.<T, FanOutState<T, S, R>, R>ofSequential(
+        () -> new FanOutState<>(forks, required, combiner, maxConcurrentElements),
+        FanOutState::integrate,
+        FanOutState::finish);
+  }
+
+  private static final class FanOutState<T, S, R> {
+    private final List<? extends Subtask<? super T, ? extends S>> subtasks;
+    private final int required;
+    private final BiFunction<? super T, ? super List<S>, ? extends R> combiner;
+    private final int maxConcurrentElements;
+    private final ArrayDeque<ElementScope<T, S>> inFlight = new ArrayDeque<>();
+    // subtask threads that have not ended yet, cancelled ones included
+    private final Set<Thread> live = ConcurrentHashMap.newKeySet();
+    // completed by the first element that fails, so a failure behind a slow head is not missed
+    private final CompletableFuture<Void> firstFailure = new CompletableFuture<>();
+    private boolean closed;
+
+    FanOutState(List<? extends Subtask<? super T, ? extends S>> subtasks, int required,
+                BiFunction<? super T, ? super List<S>, ? extends R> combiner,
+                int maxConcurrentElements) {
+      this.subtasks = subtasks;
+      this.required = required;
+      this.combiner = combiner;
+      this.maxConcurrentElements = maxConcurrentElements;
+    }
+
+    boolean integrate(T element, Gatherer.Downstream<? super R> downstream) {
+      if (downstream.isRejecting()) {
+        abort();
+        return false;
+      }
+      var scope = new ElementScope<T, S>(element, required, subtasks.size());
+      scope.outcome.whenComplete((_, failure) -> {
+        if (failure != null && !scope.outcome.isCancelled()) {
+          firstFailure.completeExceptionally(failure);
+        }
+      });
+      scope.fork(subtasks, live);
+      inFlight.add(scope);
+      return drain(downstream, false);
+    }
+
+    void finish(Gatherer.Downstream<? super R> downstream) {
+      if (!closed && drain(downstream, true)) {
+        close();
+      }
+    }
+
+    private boolean drain(Gatherer.Downstream<? super R> downstream, boolean all) {
+      while (!inFlight.isEmpty()
+          && (all || inFlight.size() >= maxConcurrentElements
+          || inFlight.peek().outcome.isDone() || firstFailure.isDone())) {
+        ElementScope<T, S> scope = inFlight.peek();
+        try {
+          CompletableFuture.anyOf(scope.outcome, firstFailure).exceptionally(_ -> null).join();
+          if (firstFailure.isDone()) {
+            firstFailure.join();
+          }
+          inFlight.poll();
+          if (!downstream.push(combiner.apply(scope.element, scope.outcome.join()))) {
+            abort();
+            return false;
+          }
+        } catch (RuntimeException | Error e) {
+          abort();
+          throw e;
+        }
+      }
+      return true;
+    }
+
+    private void abort() {
+      inFlight.forEach(ElementScope::cancel);
+      inFlight.clear();
+      close();
+    }
+
+    // like StructuredTaskScope.close(): waits for every subtask thread to end
+    private void close() {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      boolean interrupted = false;
+      for (Thread thread : live) {
+        while (true) {
+          try {
+            thread.join();
+            break;
+          } catch (InterruptedException e) {
+            interrupted = true;
+          }
+        }
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * The subtasks of one element, each on its own virtual thread. Decides the element's outcome
+   * under its own lock.
+   */
+  private static final class ElementScope<T, S> {
+    private final T element;
+    private final int required;
+    private final Object[] results;
+    private final Thread[] threads;
+    private final CompletableFuture<List<S>> outcome = new CompletableFuture<>();
+    private int succeeded;
+    private int failed;
+    private Throwable failure;
+
+    ElementScope(T element, int required, int subtasks) {
+      this.element = element;
+      this.required = required;
+      this.results = new Object[subtasks];
+      this.threads = new Thread[subtasks];
+    }
+
+    synchronized void fork(List<? extends Subtask<? super T, ? extends S>> subtasks,
+                           Set<Thread> live) {
+      for (int i = 0; i < threads.length; i++) {
+        int index = i;
+        Subtask<? super T, ? extends S> subtask = subtasks.get(i);
+        Thread thread = Thread.ofVirtual().unstarted(() -> {
+          try {
+            run(index, subtask);
+          } finally {
+            live.remove(Thread.currentThread());
+          }
+        });
+        live.add(thread);
+        threads[i] = thread;
+        thread.start();
+      }
+    }
+
+    synchronized void cancel() {
+      outcome.cancel(false);
+      interruptAll();
+    }
+
+    private void run(int index, Subtask<? super T, ? extends S> subtask) {
+      if (outcome.isDone()) {
+        return;
+      }
+      S value;
+      try {
+        value = subtask.call(element);
+      } catch (Throwable t) {
+        onFailure(t);
+        return;
+      }
+      onSuccess(index, value);
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized void onSuccess(int index, S value) {
+      if (outcome.isDone()) {
+        return;
+      }
+      results[index] = value;
+      if (++succeeded == required) {
+        outcome.complete(Collections.unmodifiableList(Arrays.asList((S[]) results.clone())));
+        interruptAll();
+      }
+    }
+
+    private synchronized void onFailure(Throwable t) {
+      if (outcome.isDone()) {
+        return;
+      }
+      if (failure == null) {
+        failure = t;
+      } else {
+        failure.addSuppressed(t);
+      }
+      if (threads.length - ++failed < required) {
+        outcome.completeExceptionally(failure);
+        interruptAll();
+      }
+    }
+
+    private void interruptAll() {
+      for (Thread thread : threads) {
+        if (thread != null && thread != Thread.currentThread()) {
+          thread.interrupt();
+        }
+      }
+    }
+  }
+}
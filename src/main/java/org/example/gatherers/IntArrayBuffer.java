@@ -0,0 +1,68 @@
+package org.example.gatherers;
+
+import java.util.Arrays;
+
+/**
+ * Growable {@code int} list without boxing, meant to be recycled through a {@link StatePool}.
+ */
+public final class IntArrayBuffer {
+  private int[] data;
+  private int size;
+
+  public IntArrayBuffer(int initialCapacity) {
+    this.data = new int[Math.max(1, initialCapacity)];
+  }
+
+  public void add(int value) {
+    if (size == data.length) {
+      data = Arrays.copyOf(data, data.length * 2);
+    }
+    data[size++] = value;
+  }
+
+  public int get(int index) {
+    if (index >= size) {
+      throw new IndexOutOfBoundsException("index " + index + " size " + size);
+    }
+    return data[index];
+  }
+
+  /**
+   * Last element, or {@code defaultValue} when empty.
+   */
+  public int lastOr(int defaultValue) {
+    return size == 0 ? defaultValue : data[size - 1];
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public int capacity() {
+    return data.length;
+  }
+
+  /**
+   * Forgets the contents but keeps the backing array for the next user.
+   */
+  public void clear() {
+    size = 0;
+  }
+
+  /**
+   * Appends {@code other[i] + offset} for every element of {@code other}.
+   */
+  public void addAllWithOffset(IntArrayBuffer other, int offset) {
+    int required = size + other.size;
+    if (required > data.length) {
+      data = Arrays.copyOf(data, Math.max(required, data.length * 2));
+    }
+    for (int i = 0; i < other.size; i++) {
+      data[size++] = other.data[i] + offset;
+    }
+  }
+}
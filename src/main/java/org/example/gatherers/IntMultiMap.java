@@ -0,0 +1,83 @@
+package org.example.gatherers;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Read-only {@code int} key to values table for hash joins. Keys live in an open-addressing
+ * {@code int[]} (no boxing), values with equal keys are chained through an index array and
+ * visited in insertion order.
+ */
+final class IntMultiMap<V> {
+  private static final int EMPTY = -1;
+
+  private final int[] slotKeys;
+  private final int[] slotHeads;
+  private final int[] next;
+  private final Object[] values;
+  private final int mask;
+
+  IntMultiMap(List<? extends V> source, ToIntFunction<? super V> key) {
+    int capacity = Integer.highestOneBit(Math.max(2, source.size() * 2) - 1) << 1;
+    this.slotKeys = new int[capacity];
+    this.slotHeads = new int[capacity];
+    Arrays.fill(slotHeads, EMPTY);
+    this.mask = capacity - 1;
+    this.next = new int[source.size()];
+    this.values = new Object[source.size()];
+    // insert back to front so that chains list values in insertion order
+    for (int i = source.size() - 1; i >= 0; i--) {
+      V value = source.get(i);
+      int slot = slotOf(key.applyAsInt(value), true);
+      values[i] = value;
+      next[i] = slotHeads[slot];
+      slotHeads[slot] = i;
+    }
+  }
+
+  /**
+   * Calls {@code action} for the values stored under {@code key}, in insertion order, until it
+   * returns false.
+   *
+   * @return whether {@code action} stopped the iteration
+   */
+  @SuppressWarnings("unchecked")
+  boolean forEachWhile(int key, Predicate<? super V> action) {
+    int slot = slotOf(key, false);
+    if (slot == EMPTY) {
+      return false;
+    }
+    for (int i = slotHeads[slot]; i != EMPTY; i = next[i]) {
+      if (!action.test((V) values[i])) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  boolean containsKey(int key) {
+    return slotOf(key, false) != EMPTY;
+  }
+
+  private int slotOf(int key, boolean insert) {
+    int slot = mix(key) & mask;
+    while (slotHeads[slot] != EMPTY) {
+      if (slotKeys[slot] == key) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+    if (!insert) {
+      return EMPTY;
+    }
+    slotKeys[slot] = key;
+    return slot;
+  }
+
+  private static int mix(int key) {
+    int h = key * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+}
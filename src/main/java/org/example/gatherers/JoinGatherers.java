@@ -0,0 +1,155 @@
+package org.example.gatherers;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Gatherer;
+
+/**
+ * Gatherers that join the stream (left side) with a second source (right side).
+ */
+public class JoinGatherers {
+  private JoinGatherers() {
+    // Utility class, prevent instantiation
+  }
+
+  /**
+   * Sorted merge join. Both sides must be sorted ascending by key; the right side is iterated in
+   * lockstep with the stream, so apart from the right elements sharing the current key nothing
+   * is held in memory (O(1) for unique right keys). Sequential, as lockstep iteration requires.
+   *
+   * @throws IllegalStateException during the stream if either side turns out not to be sorted
+   */
+  public static <L, R, K> Gatherer<L, ?, Joined<L, R>> mergeJoin(
+      Iterable<? extends R> right,
+      Function<? super L, ? extends K> leftKey,
+      Function<? super R, ? extends K> rightKey,
+      Comparator<? super K> keyOrder,
+      JoinMode mode) {
+    Objects.requireNonNull(mode);
+    return Gatherer.ofSequential(
+        () -> new MergeState<L, R, K>(right.iterator(), rightKey, keyOrder),
+        Gatherer.Integrator.ofGreedy(
+            (MergeState<L, R, K> state, L element,
+             Gatherer.Downstream<? super Joined<L, R>> downstream) ->
+                state.join(element, leftKey.apply(element), mode, downstream)));
+  }
+
+  /**
+   * Hash join on an {@code int} key. The table is always built from {@code right}, once; the
+   * stream is never buffered, so the caller must pass the smaller side as {@code right}. Probing
+   * is stateless, so the left stream may be parallel. Right elements sharing a key are emitted in
+   * their original order.
+   *
+   * @throws NullPointerException if {@code right} contains null
+   */
+  public static <L, R> Gatherer<L, ?, Joined<L, R>> hashJoin(
+      Collection<? extends R> right,
+      ToIntFunction<? super L> leftKey,
+      ToIntFunction<? super R> rightKey,
+      JoinMode mode) {
+    Objects.requireNonNull(mode);
+    final IntMultiMap<R> table = new IntMultiMap<>(List.copyOf(right), rightKey);
+    return switch (mode) {
+      case ANTI -> Gatherer.of((Void _, L element, Gatherer.Downstream<? super Joined<L, R>> ds) ->
+          table.containsKey(leftKey.applyAsInt(element)) || ds.push(new Joined<>(element, null)));
+      case INNER -> Gatherer.of(
+          (Void _, L element, Gatherer.Downstream<? super Joined<L, R>> ds) ->
+              !table.forEachWhile(leftKey.applyAsInt(element),
+                  r -> ds.push(new Joined<>(element, r))));
+      case LEFT -> Gatherer.of(
+          (Void _, L element, Gatherer.Downstream<? super Joined<L, R>> ds) -> {
+            int key = leftKey.applyAsInt(element);
+            if (!table.containsKey(key)) {
+              return ds.push(new Joined<>(element, null));
+            }
+            return !table.forEachWhile(key, r -> ds.push(new Joined<>(element, r)));
+          });
+    };
+  }
+
+  private static final class MergeState<L, R, K> {
+    private final Iterator<? extends R> right;
+    private final Function<? super R, ? extends K> rightKey;
+    private final Comparator<? super K> keyOrder;
+    private final List<R> group = new ArrayList<>();
+    private R lookahead;
+    private K lookaheadKey;
+    private boolean hasLookahead;
+    private K groupKey;
+    private boolean hasGroup;
+    private K lastLeftKey;
+    private boolean hasLeft;
+
+    MergeState(Iterator<? extends R> right, Function<? super R, ? extends K> rightKey,
+               Comparator<? super K> keyOrder) {
+      this.right = right;
+      this.rightKey = rightKey;
+      this.keyOrder = keyOrder;
+      pull();
+    }
+
+    boolean join(L element, K key, JoinMode mode,
+                 Gatherer.Downstream<? super Joined<L, R>> downstream) {
+      if (hasLeft && keyOrder.compare(lastLeftKey, key) > 0) {
+        throw new IllegalStateException(
+            "Left side is not sorted: " + key + " after " + lastLeftKey);
+      }
+      lastLeftKey = key;
+      hasLeft = true;
+      boolean matched = hasGroup && keyOrder.compare(groupKey, key) == 0 || loadGroup(key);
+      if (!matched) {
+        return mode == JoinMode.INNER || downstream.push(new Joined<>(element, null));
+      }
+      if (mode == JoinMode.ANTI) {
+        return true;
+      }
+      for (R r : group) {
+        if (!downstream.push(new Joined<>(element, r))) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private boolean loadGroup(K key) {
+      group.clear();
+      hasGroup = false;
+      while (hasLookahead && keyOrder.compare(lookaheadKey, key) < 0) {
+        pull();
+      }
+      if (!hasLookahead || keyOrder.compare(lookaheadKey, key) != 0) {
+        return false;
+      }
+      while (hasLookahead && keyOrder.compare(lookaheadKey, key) == 0) {
+        group.add(lookahead);
+        pull();
+      }
+      groupKey = key;
+      hasGroup = true;
+      return true;
+    }
+
+    private void pull() {
+      if (!right.hasNext()) {
+        hasLookahead = false;
+        lookahead = null;
+        return;
+      }
+      R next = right.next();
+      K nextKey = rightKey.apply(next);
+      if (hasLookahead && keyOrder.compare(lookaheadKey, nextKey) > 0) {
+        throw new IllegalStateException(
+            "Right side is not sorted: " + nextKey + " after " + lookaheadKey);
+      }
+      lookahead = next;
+      lookaheadKey = nextKey;
+      hasLookahead = true;
+    }
+  }
+}
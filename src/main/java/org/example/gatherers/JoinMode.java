@@ -0,0 +1,13 @@
+package org.example.gatherers;
+
+/**
+ * Which left elements a join emits.
+ */
+public enum JoinMode {
+  /** One {@link Joined} per matching left/right pair. */
+  INNER,
+  /** Like {@link #INNER}, plus left elements without a match paired with a null right. */
+  LEFT,
+  /** Only left elements without a match, paired with a null right. */
+  ANTI
+}
@@ -0,0 +1,10 @@
+package org.example.gatherers;
+
+/**
+ * Output of the join gatherers.
+ *
+ * @param left  element of the streamed (left) side
+ * @param right matching element of the other side, null for unmatched left elements
+ */
+public record Joined<L, R>(L left, R right) {
+}
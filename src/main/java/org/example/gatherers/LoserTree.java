@@ -0,0 +1,99 @@
+package org.example.gatherers;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * K-way merge of sorted iterators using a tournament tree of losers.
+ *
+ * <p>Each inner node keeps the loser of the match played there and {@code tree[0]} the overall
+ * winner, so taking the next element replays only the path from one leaf to the root:
+ * {@code log2(k)} comparisons per element. Ties go to the lower source index, which makes the
+ * merge stable when sources are given in encounter order.
+ *
+ * @param <T> element type
+ */
+final class LoserTree<T> implements Iterator<T> {
+  private static final int SENTINEL = -1;
+
+  private final Comparator<? super T> comparator;
+  private final List<? extends Iterator<? extends T>> sources;
+  private final Object[] heads;
+  private final boolean[] exhausted;
+  private final int[] tree;
+
+  LoserTree(List<? extends Iterator<? extends T>> sources, Comparator<? super T> comparator) {
+    this.comparator = comparator;
+    this.sources = sources;
+    int k = sources.size();
+    this.heads = new Object[k];
+    this.exhausted = new boolean[k];
+    this.tree = new int[Math.max(k, 1)];
+    Arrays.fill(tree, SENTINEL);
+    for (int i = 0; i < k; i++) {
+      advance(i);
+    }
+    for (int i = k - 1; i >= 0; i--) {
+      replay(i);
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    int winner = tree[0];
+    return winner != SENTINEL && !exhausted[winner];
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public T next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    int winner = tree[0];
+    T result = (T) heads[winner];
+    advance(winner);
+    replay(winner);
+    return result;
+  }
+
+  private void advance(int source) {
+    Iterator<? extends T> it = sources.get(source);
+    if (it.hasNext()) {
+      heads[source] = it.next();
+    } else {
+      heads[source] = null;
+      exhausted[source] = true;
+    }
+  }
+
+  private void replay(int leaf) {
+    int winner = leaf;
+    for (int node = (leaf + sources.size()) >> 1; node > 0; node >>= 1) {
+      if (beats(tree[node], winner)) {
+        int loser = winner;
+        winner = tree[node];
+        tree[node] = loser;
+      }
+    }
+    tree[0] = winner;
+  }
+
+  @SuppressWarnings("unchecked")
+  private boolean beats(int a, int b) {
+    if (a == SENTINEL) {
+      return true;
+    }
+    if (b == SENTINEL || exhausted[a]) {
+      return false;
+    }
+    if (exhausted[b]) {
+      return true;
+    }
+    int c = comparator.compare((T) heads[a], (T) heads[b]);
+    return c < 0 || c == 0 && a < b;
+  }
+}
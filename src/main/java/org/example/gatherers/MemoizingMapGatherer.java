@@ -0,0 +1,32 @@
+package org.example.gatherers;
+
+import java.util.function.Function;
+import java.util.stream.Gatherer;
+import org.example.cache.TinyLfuCache;
+
+/**
+ * Map gatherer that remembers results of an expensive function in a shared, bounded
+ * {@link TinyLfuCache}. Stateless apart from the cache, so it runs in parallel streams.
+ */
+public class MemoizingMapGatherer {
+  private MemoizingMapGatherer() {
+    // Utility class, prevent instantiation
+  }
+
+  /**
+   * Maps through a new cache holding at most {@code maximumSize} results.
+   */
+  public static <T, R> Gatherer<T, ?, R> of(Function<? super T, ? extends R> mapper,
+                                            int maximumSize) {
+    return of(mapper, new TinyLfuCache<>(maximumSize));
+  }
+
+  /**
+   * Maps through {@code cache}, which may be shared between pipelines and inspected for stats.
+   */
+  public static <T, R> Gatherer<T, ?, R> of(Function<? super T, ? extends R> mapper,
+                                            TinyLfuCache<T, R> cache) {
+    return Gatherer.of((Void _, T element, Gatherer.Downstream<? super R> downstream) ->
+        downstream.push(cache.get(element, mapper)));
+  }
+}
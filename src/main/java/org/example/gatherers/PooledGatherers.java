@@ -0,0 +1,42 @@
+package org.example.gatherers;
+
+import java.util.stream.Gatherer;
+
+/**
+ * Gatherers whose per-split state comes from a {@link StatePool} and goes back to it once the
+ * combiner or finisher is done with it.
+ */
+public class PooledGatherers {
+  private PooledGatherers() {
+    // Utility class, prevent instantiation
+  }
+
+  /**
+   * Running totals like {@link ShortCircuitGatherers#runningTotal()}, but buffered as primitive
+   * ints in pooled {@link IntArrayBuffer}s. The combiner appends in place instead of building
+   * intermediate lists, releases the right split's buffer, and the finisher releases the last
+   * one.
+   */
+  public static Gatherer<Integer, ?, Integer> runningTotal(StatePool<IntArrayBuffer> pool) {
+    return Gatherer.of(
+        pool::acquire,
+        Gatherer.Integrator.ofGreedy(
+            (IntArrayBuffer state, Integer element, Gatherer.Downstream<? super Integer> _) -> {
+              state.add(element + state.lastOr(0));
+              return true;
+            }),
+        (IntArrayBuffer left, IntArrayBuffer right) -> {
+          left.addAllWithOffset(right, left.lastOr(0));
+          pool.release(right);
+          return left;
+        },
+        (IntArrayBuffer state, Gatherer.Downstream<? super Integer> downstream) -> {
+          for (int i = 0; i < state.size(); i++) {
+            if (!downstream.push(state.get(i))) {
+              break;
+            }
+          }
+          pool.release(state);
+        });
+  }
+}
@@ -0,0 +1,633 @@
+package org.example.gatherers;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.RecordComponent;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Gatherer;
+
+/**
+ * Binary codec for records, writing components straight into a {@link ByteBuffer} or a
+ * {@link MemorySegment}.
+ *
+ * <p>The layout comes from {@link Class#getRecordComponents()} once per record type: accessors
+ * and the canonical constructor are folded into one encode and one decode method handle per
+ * target, so encoding neither boxes nor allocates and decoding allocates only the record and its
+ * strings. Segments are accessed through {@link ValueLayout}s at a threaded offset, so they may
+ * be larger than 2 GiB and need not be backed by a {@code byte[]}. Components may be primitives,
+ * {@code String} (latin-1 bytes or UTF-16 chars, nullable), enums (ordinal, nullable) or nested
+ * records (not null). Numbers are big-endian, unless a buffer says otherwise; segments are always
+ * big-endian, so they hold the same bytes as a default buffer.
+ *
+ * @param <R> record type
+ */
+public final class RecordCodec<R extends Record> {
+  private static final Map<Class<?>, RecordCodec<?>> CACHE = new ConcurrentHashMap<>();
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+  private static final int NULL_STRING = Integer.MIN_VALUE;
+  private static final Map<Class<?>, String> PRIMITIVES = Map.of(
+      byte.class, "", short.class, "Short", char.class, "Char", int.class, "Int",
+      long.class, "Long", float.class, "Float", double.class, "Double");
+
+  private static final MethodType SEGMENT_ENCODE =
+      MethodType.methodType(long.class, MemorySegment.class, long.class, Object.class);
+  private static final MethodType SEGMENT_SKIP =
+      MethodType.methodType(long.class, MemorySegment.class, long.class);
+  private static final ValueLayout.OfShort SHORT =
+      ValueLayout.JAVA_SHORT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+  private static final ValueLayout.OfChar CHAR =
+      ValueLayout.JAVA_CHAR_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+  private static final ValueLayout.OfInt INT =
+      ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+  private static final ValueLayout.OfLong LONG =
+      ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+  private static final ValueLayout.OfFloat FLOAT =
+      ValueLayout.JAVA_FLOAT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+  private static final ValueLayout.OfDouble DOUBLE =
+      ValueLayout.JAVA_DOUBLE_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+
+  private final Class<R> type;
+  private final MethodHandle encoder;
+  private final MethodHandle decoder;
+  // (MemorySegment, long offset, Object record) -> offset after the record
+  private final MethodHandle segmentEncoder;
+  // (MemorySegment, long offset) -> record
+  private final MethodHandle segmentDecoder;
+  // (MemorySegment, long offset) -> offset after the record
+  private final MethodHandle segmentSkip;
+
+  private RecordCodec(Class<R> type, MethodHandles.Lookup lookup) {
+    this.type = type;
+    RecordComponent[] components = type.getRecordComponents();
+    Class<?>[] parameterTypes = new Class<?>[components.length];
+    try {
+      MethodHandle encode = MethodHandles.empty(
+          MethodType.methodType(void.class, ByteBuffer.class, Object.class));
+      for (int i = components.length - 1; i >= 0; i--) {
+        parameterTypes[i] = components[i].getType();
+        MethodHandle accessor = lookup.unreflect(components[i].getAccessor())
+            .asType(MethodType.methodType(parameterTypes[i], Object.class));
+        MethodHandle write = MethodHandles.filterArguments(
+            writer(parameterTypes[i], lookup), 1, accessor);
+        encode = MethodHandles.foldArguments(encode, write);
+      }
+      MethodHandle decode = MethodHandles.dropArguments(
+          lookup.findConstructor(type, MethodType.methodType(void.class, parameterTypes))
+              .asType(MethodType.methodType(Object.class, parameterTypes)),
+          components.length, ByteBuffer.class);
+      for (int i = components.length - 1; i >= 0; i--) {
+        decode = MethodHandles.foldArguments(decode, i, reader(parameterTypes[i], lookup));
+      }
+      this.encoder = encode;
+      this.decoder = decode;
+
+      // segments have no position, so each step takes the offset and returns the next one
+      MethodHandle segmentEncode = MethodHandles.dropArguments(
+          MethodHandles.identity(long.class), 0, MemorySegment.class);
+      segmentEncode = MethodHandles.dropArguments(segmentEncode, 2, Object.class);
+      MethodHandle skip = MethodHandles.dropArguments(
+          MethodHandles.identity(long.class), 0, MemorySegment.class);
+      MethodHandle[] skips = new MethodHandle[components.length];
+      for (int i = 0; i < components.length; i++) {
+        MethodHandle accessor = lookup.unreflect(components[i].getAccessor())
+            .asType(MethodType.methodType(parameterTypes[i], Object.class));
+        MethodHandle write = MethodHandles.filterArguments(
+            segmentWriter(parameterTypes[i], lookup), 2, accessor);
+        // write(segment, encodeSoFar(segment, offset, record), record)
+        segmentEncode = MethodHandles.permuteArguments(
+            MethodHandles.collectArguments(write, 1, segmentEncode), SEGMENT_ENCODE,
+            0, 0, 1, 2, 2);
+        skips[i] = segmentSkip(parameterTypes[i], lookup);
+        skip = MethodHandles.permuteArguments(
+            MethodHandles.collectArguments(skips[i], 1, skip), SEGMENT_SKIP, 0, 0, 1);
+      }
+      // constructor(segment, offset, values read so far...), built from the last component
+      MethodHandle segmentDecode = MethodHandles.dropArguments(
+          lookup.findConstructor(type, MethodType.methodType(void.class, parameterTypes))
+              .asType(MethodType.methodType(Object.class, parameterTypes)),
+          0, MemorySegment.class, long.class);
+      for (int i = components.length - 1; i >= 0; i--) {
+        // next(segment, skip_i(segment, offset), values..., read_i(segment, offset))
+        MethodHandle read = MethodHandles.collectArguments(
+            segmentDecode, 2 + i, segmentReader(parameterTypes[i], lookup));
+        read = MethodHandles.collectArguments(read, 1, skips[i]);
+        int[] reorder = new int[5 + i];
+        reorder[1] = 0;
+        reorder[2] = 1;
+        for (int v = 0; v < i; v++) {
+          reorder[3 + v] = 2 + v;
+        }
+        reorder[3 + i] = 0;
+        reorder[4 + i] = 1;
+        Class<?>[] parameters = new Class<?>[2 + i];
+        parameters[0] = MemorySegment.class;
+        parameters[1] = long.class;
+        System.arraycopy(parameterTypes, 0, parameters, 2, i);
+        segmentDecode = MethodHandles.permuteArguments(
+            read, MethodType.methodType(Object.class, parameters), reorder);
+      }
+      this.segmentEncoder = segmentEncode;
+      this.segmentDecoder = segmentDecode;
+      this.segmentSkip = skip;
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalArgumentException("Cannot access record " + type.getName(), e);
+    }
+  }
+
+  /**
+   * Codec for {@code type}, built once and cached. Non-public records must be in a package open
+   * to this module (the default for classpath code).
+   */
+  @SuppressWarnings("unchecked")
+  public static <R extends Record> RecordCodec<R> of(Class<R> type) {
+    return (RecordCodec<R>) CACHE.computeIfAbsent(type, t -> {
+      try {
+        return new RecordCodec<>(type, MethodHandles.privateLookupIn(t, LOOKUP));
+      } catch (IllegalAccessException e) {
+        throw new IllegalArgumentException("Cannot access record " + t.getName(), e);
+      }
+    });
+  }
+
+  /**
+   * Codec built with the caller's {@code lookup}, for records not open to this module.
+   */
+  public static <R extends Record> RecordCodec<R> of(Class<R> type, MethodHandles.Lookup lookup) {
+    return new RecordCodec<>(type, lookup);
+  }
+
+  public Class<R> type() {
+    return type;
+  }
+
+  /**
+   * Writes {@code record} at the buffer's position and advances it.
+   *
+   * @throws BufferOverflowException if it does not fit; the position is then undefined
+   */
+  public void encode(R record, ByteBuffer buffer) {
+    try {
+      encoder.invokeExact(buffer, (Object) record);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable t) {
+      throw new IllegalStateException(t);
+    }
+  }
+
+  /**
+   * Reads one record at the buffer's position and advances it.
+   */
+  public R decode(ByteBuffer buffer) {
+    try {
+      return type.cast((Object) decoder.invokeExact(buffer));
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable t) {
+      throw new IllegalStateException(t);
+    }
+  }
+
+  /**
+   * Writes {@code record} at {@code offset} and returns the bytes written. Like the buffer
+   * variant, it allocates nothing.
+   *
+   * @throws IndexOutOfBoundsException if it does not fit; the bytes up to the end of the segment
+   *                                   are then undefined
+   */
+  public int encode(R record, MemorySegment segment, long offset) {
+    try {
+      return (int) ((long) segmentEncoder.invokeExact(segment, offset, (Object) record) - offset);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable t) {
+      throw new IllegalStateException(t);
+    }
+  }
+
+  /**
+   * Reads the record at {@code offset}; {@link #end} tells where the next one starts.
+   */
+  public R decode(MemorySegment segment, long offset) {
+    try {
+      return type.cast((Object) segmentDecoder.invokeExact(segment, offset));
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable t) {
+      throw new IllegalStateException(t);
+    }
+  }
+
+  /**
+   * Offset just past the record at {@code offset}, found without decoding it.
+   */
+  public long end(MemorySegment segment, long offset) {
+    try {
+      return (long) segmentSkip.invokeExact(segment, offset);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable t) {
+      throw new IllegalStateException(t);
+    }
+  }
+
+  /**
+   * Encodes records into batches of up to {@code batchSize} records; each pushed buffer is
+   * flipped, holds whole records and belongs to the downstream. Sequential, so batches keep
+   * encounter order.
+   */
+  public Gatherer<R, ?, ByteBuffer> encoder(int batchSize, int batchBytes) {
+    if (batchSize <= 0 || batchBytes <= 0) {
+      throw new IllegalArgumentException("batchSize and batchBytes must be > 0");
+    }
+    return Gatherer.<R, Batch, ByteBuffer>ofSequential(
+        () -> new Batch(batchBytes),
+        (batch, record, downstream) -> {
+          while (true) {
+            int start = batch.buffer.position();
+            try {
+              encode(record, batch.buffer);
+              break;
+            } catch (BufferOverflowException e) {
+              batch.buffer.position(start);
+              if (batch.count == 0) {
+                batch.buffer = ByteBuffer.allocate(batch.buffer.capacity() * 2);
+              } else if (!batch.push(downstream)) {
+                return false;
+              }
+            }
+          }
+          return ++batch.count < batchSize || batch.push(downstream);
+        },
+        (batch, downstream) -> {
+          if (batch.count > 0) {
+            batch.push(downstream);
+          }
+        });
+  }
+
+  /**
+   * Decodes every record in each incoming buffer (from its position to its limit).
+   */
+  public Gatherer<ByteBuffer, ?, R> decoder() {
+    return Gatherer.of((Void _, ByteBuffer buffer, Gatherer.Downstream<? super R> downstream) -> {
+      ByteBuffer view = buffer.duplicate().order(buffer.order());
+      while (view.hasRemaining()) {
+        if (!downstream.push(decode(view))) {
+          return false;
+        }
+      }
+      return true;
+    });
+  }
+
+  private static MethodHandle writer(Class<?> type, MethodHandles.Lookup lookup)
+      throws ReflectiveOperationException {
+    MethodHandle put;
+    if (type == boolean.class) {
+      put = LOOKUP.findStatic(RecordCodec.class, "putBoolean",
+          MethodType.methodType(void.class, ByteBuffer.class, boolean.class));
+    } else if (type.isPrimitive()) {
+      put = LOOKUP.findVirtual(ByteBuffer.class, "put" + PRIMITIVES.get(type),
+          MethodType.methodType(ByteBuffer.class, type));
+    } else if (type == String.class) {
+      put = LOOKUP.findStatic(RecordCodec.class, "putString",
+          MethodType.methodType(void.class, ByteBuffer.class, String.class));
+    } else if (type.isEnum()) {
+      put = LOOKUP.findStatic(RecordCodec.class, "putEnum",
+          MethodType.methodType(void.class, ByteBuffer.class, Enum.class));
+    } else if (type.isRecord()) {
+      put = nested(type, lookup).encoder;
+    } else {
+      throw new IllegalArgumentException("Unsupported component type " + type.getName());
+    }
+    return put.asType(MethodType.methodType(void.class, ByteBuffer.class, type));
+  }
+
+  private static MethodHandle reader(Class<?> type, MethodHandles.Lookup lookup)
+      throws ReflectiveOperationException {
+    MethodHandle get;
+    if (type == boolean.class) {
+      get = LOOKUP.findStatic(RecordCodec.class, "getBoolean",
+          MethodType.methodType(boolean.class, ByteBuffer.class));
+    } else if (type.isPrimitive()) {
+      get = LOOKUP.findVirtual(ByteBuffer.class, "get" + PRIMITIVES.get(type),
+          MethodType.methodType(type));
+    } else if (type == String.class) {
+      get = LOOKUP.findStatic(RecordCodec.class, "getString",
+          MethodType.methodType(String.class, ByteBuffer.class));
+    } else if (type.isEnum()) {
+      get = MethodHandles.insertArguments(
+          LOOKUP.findStatic(RecordCodec.class, "getEnum",
+              MethodType.methodType(Object.class, ByteBuffer.class, Object[].class)),
+          1, (Object) type.getEnumConstants());
+    } else if (type.isRecord()) {
+      get = nested(type, lookup).decoder;
+    } else {
+      throw new IllegalArgumentException("Unsupported component type " + type.getName());
+    }
+    return get.asType(MethodType.methodType(type, ByteBuffer.class));
+  }
+
+  private static MethodHandle segmentWriter(Class<?> type, MethodHandles.Lookup lookup)
+      throws ReflectiveOperationException {
+    MethodHandle write;
+    if (type.isPrimitive()) {
+      write = LOOKUP.findStatic(RecordCodec.class, "write" + capitalized(type),
+          MethodType.methodType(long.class, MemorySegment.class, long.class, type));
+    } else if (type == String.class) {
+      write = LOOKUP.findStatic(RecordCodec.class, "writeString",
+          MethodType.methodType(long.class, MemorySegment.class, long.class, String.class));
+    } else if (type.isEnum()) {
+      write = LOOKUP.findStatic(RecordCodec.class, "writeEnum",
+          MethodType.methodType(long.class, MemorySegment.class, long.class, Enum.class));
+    } else if (type.isRecord()) {
+      write = nested(type, lookup).segmentEncoder;
+    } else {
+      throw new IllegalArgumentException("Unsupported component type " + type.getName());
+    }
+    return write.asType(
+        MethodType.methodType(long.class, MemorySegment.class, long.class, type));
+  }
+
+  private static MethodHandle segmentReader(Class<?> type, MethodHandles.Lookup lookup)
+      throws ReflectiveOperationException {
+    MethodHandle read;
+    if (type.isPrimitive()) {
+      read = LOOKUP.findStatic(RecordCodec.class, "read" + capitalized(type),
+          MethodType.methodType(type, MemorySegment.class, long.class));
+    } else if (type == String.class) {
+      read = LOOKUP.findStatic(RecordCodec.class, "readString",
+          MethodType.methodType(String.class, MemorySegment.class, long.class));
+    } else if (type.isEnum()) {
+      read = MethodHandles.insertArguments(
+          LOOKUP.findStatic(RecordCodec.class, "readEnum",
+              MethodType.methodType(Object.class, MemorySegment.class, long.class,
+                  Object[].class)),
+          2, (Object) type.getEnumConstants());
+    } else if (type.isRecord()) {
+      read = nested(type, lookup).segmentDecoder;
+    } else {
+      throw new IllegalArgumentException("Unsupported component type " + type.getName());
+    }
+    return read.asType(MethodType.methodType(type, MemorySegment.class, long.class));
+  }
+
+  private static MethodHandle segmentSkip(Class<?> type, MethodHandles.Lookup lookup)
+      throws ReflectiveOperationException {
+    if (type == String.class) {
+      return LOOKUP.findStatic(RecordCodec.class, "skipString", SEGMENT_SKIP);
+    }
+    if (type.isRecord()) {
+      return nested(type, lookup).segmentSkip;
+    }
+    long bytes;
+    if (type == boolean.class || type == byte.class) {
+      bytes = Byte.BYTES;
+    } else if (type == short.class || type == char.class) {
+      bytes = Short.BYTES;
+    } else if (type == int.class || type == float.class || type.isEnum()) {
+      bytes = Integer.BYTES;
+    } else if (type == long.class || type == double.class) {
+      bytes = Long.BYTES;
+    } else {
+      throw new IllegalArgumentException("Unsupported component type " + type.getName());
+    }
+    return MethodHandles.dropArguments(MethodHandles.insertArguments(
+        LOOKUP.findStatic(RecordCodec.class, "advance",
+            MethodType.methodType(long.class, long.class, long.class)), 1, bytes),
+        0, MemorySegment.class);
+  }
+
+  private static String capitalized(Class<?> primitive) {
+    String name = primitive.getName();
+    return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static RecordCodec<?> nested(Class<?> type, MethodHandles.Lookup lookup) {
+    return new RecordCodec<>((Class<? extends Record>) type, lookup);
+  }
+
+  private static void putBoolean(ByteBuffer buffer, boolean value) {
+    buffer.put((byte) (value ? 1 : 0));
+  }
+
+  private static boolean getBoolean(ByteBuffer buffer) {
+    return buffer.get() != 0;
+  }
+
+  /**
+   * Length header: {@code n >= 0} for n latin-1 bytes, {@code -n - 1} for n UTF-16 chars,
+   * {@link #NULL_STRING} for null.
+   */
+  private static void putString(ByteBuffer buffer, String value) {
+    if (value == null) {
+      buffer.putInt(NULL_STRING);
+      return;
+    }
+    int length = value.length();
+    boolean latin1 = true;
+    for (int i = 0; i < length && latin1; i++) {
+      latin1 = value.charAt(i) <= 0xFF;
+    }
+    if (latin1) {
+      buffer.putInt(length);
+      for (int i = 0; i < length; i++) {
+        buffer.put((byte) value.charAt(i));
+      }
+    } else {
+      buffer.putInt(-length - 1);
+      for (int i = 0; i < length; i++) {
+        buffer.putChar(value.charAt(i));
+      }
+    }
+  }
+
+  private static String getString(ByteBuffer buffer) {
+    int header = buffer.getInt();
+    if (header == NULL_STRING) {
+      return null;
+    }
+    if (header >= 0) {
+      byte[] bytes = new byte[header];
+      buffer.get(bytes);
+      return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+    char[] chars = new char[-header - 1];
+    for (int i = 0; i < chars.length; i++) {
+      chars[i] = buffer.getChar();
+    }
+    return new String(chars);
+  }
+
+  private static void putEnum(ByteBuffer buffer, Enum<?> value) {
+    buffer.putInt(value == null ? -1 : value.ordinal());
+  }
+
+  private static Object getEnum(ByteBuffer buffer, Object[] constants) {
+    int ordinal = buffer.getInt();
+    return ordinal < 0 ? null : constants[ordinal];
+  }
+
+  private static long advance(long offset, long bytes) {
+    return offset + bytes;
+  }
+
+  private static long writeBoolean(MemorySegment segment, long offset, boolean value) {
+    segment.set(ValueLayout.JAVA_BYTE, offset, (byte) (value ? 1 : 0));
+    return offset + Byte.BYTES;
+  }
+
+  private static long writeByte(MemorySegment segment, long offset, byte value) {
+    segment.set(ValueLayout.JAVA_BYTE, offset, value);
+    return offset + Byte.BYTES;
+  }
+
+  private static long writeShort(MemorySegment segment, long offset, short value) {
+    segment.set(SHORT, offset, value);
+    return offset + Short.BYTES;
+  }
+
+  private static long writeChar(MemorySegment segment, long offset, char value) {
+    segment.set(CHAR, offset, value);
+    return offset + Character.BYTES;
+  }
+
+  private static long writeInt(MemorySegment segment, long offset, int value) {
+    segment.set(INT, offset, value);
+    return offset + Integer.BYTES;
+  }
+
+  private static long writeLong(MemorySegment segment, long offset, long value) {
+    segment.set(LONG, offset, value);
+    return offset + Long.BYTES;
+  }
+
+  private static long writeFloat(MemorySegment segment, long offset, float value) {
+    segment.set(FLOAT, offset, value);
+    return offset + Float.BYTES;
+  }
+
+  private static long writeDouble(MemorySegment segment, long offset, double value) {
+    segment.set(DOUBLE, offset, value);
+    return offset + Double.BYTES;
+  }
+
+  private static boolean readBoolean(MemorySegment segment, long offset) {
+    return segment.get(ValueLayout.JAVA_BYTE, offset) != 0;
+  }
+
+  private static byte readByte(MemorySegment segment, long offset) {
+    return segment.get(ValueLayout.JAVA_BYTE, offset);
+  }
+
+  private static short readShort(MemorySegment segment, long offset) {
+    return segment.get(SHORT, offset);
+  }
+
+  private static char readChar(MemorySegment segment, long offset) {
+    return segment.get(CHAR, offset);
+  }
+
+  private static int readInt(MemorySegment segment, long offset) {
+    return segment.get(INT, offset);
+  }
+
+  private static long readLong(MemorySegment segment, long offset) {
+    return segment.get(LONG, offset);
+  }
+
+  private static float readFloat(MemorySegment segment, long offset) {
+    return segment.get(FLOAT, offset);
+  }
+
+  private static double readDouble(MemorySegment segment, long offset) {
+    return segment.get(DOUBLE, offset);
+  }
+
+  // same header and bytes as putString
+  private static long writeString(MemorySegment segment, long offset, String value) {
+    if (value == null) {
+      segment.set(INT, offset, NULL_STRING);
+      return offset + Integer.BYTES;
+    }
+    int length = value.length();
+    boolean latin1 = true;
+    for (int i = 0; i < length && latin1; i++) {
+      latin1 = value.charAt(i) <= 0xFF;
+    }
+    long at = offset + Integer.BYTES;
+    if (latin1) {
+      segment.set(INT, offset, length);
+      for (int i = 0; i < length; i++) {
+        segment.set(ValueLayout.JAVA_BYTE, at++, (byte) value.charAt(i));
+      }
+    } else {
+      segment.set(INT, offset, -length - 1);
+      for (int i = 0; i < length; i++, at += Character.BYTES) {
+        segment.set(CHAR, at, value.charAt(i));
+      }
+    }
+    return at;
+  }
+
+  private static String readString(MemorySegment segment, long offset) {
+    int header = segment.get(INT, offset);
+    if (header == NULL_STRING) {
+      return null;
+    }
+    long at = offset + Integer.BYTES;
+    if (header >= 0) {
+      byte[] bytes = new byte[header];
+      MemorySegment.copy(segment, ValueLayout.JAVA_BYTE, at, bytes, 0, header);
+      return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+    char[] chars = new char[-header - 1];
+    MemorySegment.copy(segment, CHAR, at, chars, 0, chars.length);
+    return new String(chars);
+  }
+
+  private static long skipString(MemorySegment segment, long offset) {
+    int header = segment.get(INT, offset);
+    long at = offset + Integer.BYTES;
+    if (header == NULL_STRING) {
+      return at;
+    }
+    return header >= 0 ? at + header : at + (long) (-header - 1) * Character.BYTES;
+  }
+
+  private static long writeEnum(MemorySegment segment, long offset, Enum<?> value) {
+    segment.set(INT, offset, value == null ? -1 : value.ordinal());
+    return offset + Integer.BYTES;
+  }
+
+  private static Object readEnum(MemorySegment segment, long offset, Object[] constants) {
+    int ordinal = segment.get(INT, offset);
+    return ordinal < 0 ? null : constants[ordinal];
+  }
+
+  private static final class Batch {
+    private ByteBuffer buffer;
+    private int count;
+
+    Batch(int bytes) {
+      buffer = ByteBuffer.allocate(bytes);
+    }
+
+    boolean push(Gatherer.Downstream<? super ByteBuffer> downstream) {
+      ByteBuffer full = buffer.flip();
+      buffer = ByteBuffer.allocate(full.capacity());
+      count = 0;
+      return downstream.push(full);
+    }
+  }
+}
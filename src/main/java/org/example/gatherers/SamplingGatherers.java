@@ -0,0 +1,151 @@
+package org.example.gatherers;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+import java.util.stream.Gatherer;
+
+/**
+ * Fixed-size uniform sampling of streams too large to buffer.
+ */
+public class SamplingGatherers {
+  private SamplingGatherers() {
+    // Utility class, prevent instantiation
+  }
+
+  /**
+   * Reservoir sample of {@code k} elements seeded from {@link SplittableRandom}; see
+   * {@link #reservoir(int, RandomGenerator.SplittableGenerator)}.
+   */
+  public static <T> Gatherer<T, ?, T> reservoir(int k, long seed) {
+    return reservoir(k, new SplittableRandom(seed));
+  }
+
+  /**
+   * Uniform sample of {@code min(k, n)} elements, pushed by the finisher in no particular order.
+   *
+   * <p>Uses Algorithm L (Li, 1994): after the reservoir fills, the gap to the next replaced
+   * element is drawn directly, so skipped elements cost one comparison and no random numbers.
+   * Each split gets its own generator split from {@code random}, and the combiner draws the
+   * merged sample from both reservoirs weighted by how many elements each has seen, which keeps
+   * parallel samples uniform. Memory is O(k). Sequential runs of gatherers built from equally
+   * seeded generators return the same sample.
+   */
+  public static <T> Gatherer<T, ?, T> reservoir(int k, RandomGenerator.SplittableGenerator random) {
+    if (k <= 0) {
+      throw new IllegalArgumentException("k must be > 0: " + k);
+    }
+    return Gatherer.<T, Reservoir<T>, T>of(
+        () -> {
+          synchronized (random) {
+            return new Reservoir<>(k, random.split());
+          }
+        },
+        Gatherer.Integrator.ofGreedy((state, element, _) -> {
+          state.offer(element);
+          return true;
+        }),
+        Reservoir::merge,
+        Reservoir::pushAll);
+  }
+
+  private static final class Reservoir<T> {
+    private final Object[] items;
+    private final RandomGenerator random;
+    private long seen;
+    private long next;
+    private double w;
+
+    Reservoir(int k, RandomGenerator random) {
+      this.items = new Object[k];
+      this.random = random;
+    }
+
+    void offer(T element) {
+      int k = items.length;
+      if (seen < k) {
+        items[(int) seen] = element;
+        if (++seen == k) {
+          w = Math.exp(Math.log(uniform()) / k);
+          advance(seen - 1);
+        }
+        return;
+      }
+      if (seen == next) {
+        items[random.nextInt(k)] = element;
+        w *= Math.exp(Math.log(uniform()) / k);
+        advance(seen);
+      }
+      seen++;
+    }
+
+    /**
+     * Draws {@code min(k, seen)} elements from both reservoirs: each draw comes from the left
+     * with probability proportional to the left elements not yet represented, so the result is
+     * a uniform sample of the union.
+     */
+    Reservoir<T> merge(Reservoir<T> other) {
+      if (other.seen == 0) {
+        return this;
+      }
+      if (seen == 0) {
+        return other;
+      }
+      int k = items.length;
+      int leftSize = size();
+      int rightSize = other.size();
+      long leftRemaining = seen;
+      long rightRemaining = other.seen;
+      var merged = new Reservoir<T>(k, random);
+      int target = (int) Math.min(k, seen + other.seen);
+      for (int i = 0; i < target; i++) {
+        if (random.nextLong(leftRemaining + rightRemaining) < leftRemaining) {
+          merged.items[i] = takeRandom(items, leftSize--);
+          leftRemaining--;
+        } else {
+          merged.items[i] = takeRandom(other.items, rightSize--);
+          rightRemaining--;
+        }
+      }
+      merged.seen = seen + other.seen;
+      merged.next = Long.MAX_VALUE;
+      return merged;
+    }
+
+    @SuppressWarnings("unchecked")
+    boolean pushAll(Gatherer.Downstream<? super T> downstream) {
+      int size = size();
+      for (int i = 0; i < size && !downstream.isRejecting(); i++) {
+        if (!downstream.push((T) items[i])) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private int size() {
+      return (int) Math.min(items.length, seen);
+    }
+
+    /** Partial Fisher-Yates: removes a random element from the first {@code size} slots. */
+    private Object takeRandom(Object[] source, int size) {
+      int index = random.nextInt(size);
+      Object taken = source[index];
+      source[index] = source[size - 1];
+      source[size - 1] = taken;
+      return taken;
+    }
+
+    /** Index of the next element to replace, given the index of the last one taken. */
+    private void advance(long current) {
+      next = current + (long) Math.floor(Math.log(uniform()) / Math.log1p(-w)) + 1;
+      if (next <= current) {
+        next = Long.MAX_VALUE;
+      }
+    }
+
+    /** Uniform in (0, 1], so the logarithm is finite. */
+    private double uniform() {
+      return 1.0 - random.nextDouble();
+    }
+  }
+}
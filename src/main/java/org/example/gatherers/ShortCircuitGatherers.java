@@ -0,0 +1,134 @@
+package org.example.gatherers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Gatherer;
+
+/**
+ * Buffering gatherers that respect downstream rejection.
+ *
+ * <p>With {@code .limit(n)} after a gatherer the downstream stops accepting once it has
+ * {@code n} elements: {@code push} returns false and {@code isRejecting()} returns true. The
+ * gatherers here check that in the integrator, so no further upstream elements are pulled, and
+ * in the finisher, so buffered elements are not pushed into a rejecting downstream. Buffers are
+ * released as soon as they can no longer be emitted.
+ */
+public class ShortCircuitGatherers {
+  private ShortCircuitGatherers() {
+    // Utility class, prevent instantiation
+  }
+
+  /**
+   * Passes elements through and appends {@code trailer} at the end, unless the downstream has
+   * already stopped accepting.
+   */
+  public static <T> Gatherer<T, ?, T> withTrailer(T trailer) {
+    return Gatherer.of(
+        (Void _, T element, Gatherer.Downstream<? super T> downstream) ->
+            downstream.push(element),
+        (Void _, Gatherer.Downstream<? super T> downstream) -> {
+          if (!downstream.isRejecting()) {
+            downstream.push(trailer);
+          }
+        });
+  }
+
+  /**
+   * Running totals, emitted by the finisher. Parallel splits are combined by offsetting the right
+   * split with the left split's last total.
+   */
+  public static Gatherer<Integer, ?, Integer> runningTotal() {
+    return Gatherer.of(
+        ArrayList::new,
+        (ArrayList<Integer> state, Integer element, Gatherer.Downstream<? super Integer> ds) -> {
+          if (ds.isRejecting()) {
+            release(state);
+            return false;
+          }
+          state.add(element + (state.isEmpty() ? 0 : state.getLast()));
+          return true;
+        },
+        (ArrayList<Integer> left, ArrayList<Integer> right) -> {
+          int offset = left.isEmpty() ? 0 : left.getLast();
+          left.ensureCapacity(left.size() + right.size());
+          for (Integer total : right) {
+            left.add(total + offset);
+          }
+          release(right);
+          return left;
+        },
+        ShortCircuitGatherers::pushAllAndRelease);
+  }
+
+  /**
+   * Emits all elements in reverse encounter order.
+   */
+  public static <T> Gatherer<T, ?, T> reversed() {
+    return Gatherer.of(
+        ArrayList::new,
+        (ArrayList<T> state, T element, Gatherer.Downstream<? super T> downstream) -> {
+          if (downstream.isRejecting()) {
+            release(state);
+            return false;
+          }
+          state.add(element);
+          return true;
+        },
+        (ArrayList<T> left, ArrayList<T> right) -> {
+          left.addAll(right);
+          release(right);
+          return left;
+        },
+        (ArrayList<T> state, Gatherer.Downstream<? super T> downstream) -> {
+          for (int i = state.size() - 1; i >= 0 && downstream.push(state.get(i)); i--) {
+            state.set(i, null);
+          }
+          release(state);
+        });
+  }
+
+  /**
+   * Groups elements into lists of {@code size}; the last window may be shorter. Stops pulling
+   * from upstream as soon as a window is rejected.
+   */
+  public static <T> Gatherer<T, ?, List<T>> windowFixed(int size) {
+    if (size < 1) {
+      throw new IllegalArgumentException("size must be positive: " + size);
+    }
+    return Gatherer.ofSequential(
+        () -> new ArrayList<T>(size),
+        Gatherer.Integrator.<ArrayList<T>, T, List<T>>of((window, element, downstream) -> {
+          window.add(element);
+          if (window.size() < size) {
+            return !downstream.isRejecting();
+          }
+          List<T> full = List.copyOf(window);
+          window.clear();
+          return downstream.push(full);
+        }),
+        (ArrayList<T> window, Gatherer.Downstream<? super List<T>> downstream) -> {
+          if (!window.isEmpty() && !downstream.isRejecting()) {
+            downstream.push(List.copyOf(window));
+          }
+          release(window);
+        });
+  }
+
+  /**
+   * Pushes buffered elements in order until the downstream rejects, then drops the buffer.
+   */
+  public static <T> void pushAllAndRelease(ArrayList<T> buffer,
+                                           Gatherer.Downstream<? super T> downstream) {
+    for (int i = 0; i < buffer.size(); i++) {
+      if (!downstream.push(buffer.get(i))) {
+        break;
+      }
+    }
+    release(buffer);
+  }
+
+  private static void release(ArrayList<?> buffer) {
+    buffer.clear();
+    buffer.trimToSize();
+  }
+}
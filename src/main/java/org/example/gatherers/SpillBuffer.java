@@ -0,0 +1,270 @@
+package org.example.gatherers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.ref.Cleaner;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Append-only element buffer that keeps at most {@code maxInMemory} elements on the heap and
+ * spills the rest to memory-mapped temp segments.
+ *
+ * <p>It offers the {@code List} methods buffering gatherers use ({@link #add}, {@link #getLast},
+ * {@link #isEmpty}, {@link #size}, iteration), so integrator and finisher code reads the same as
+ * with an {@code ArrayList}. Iteration replays the heap prefix and then the spilled elements, in
+ * insertion order. Spilled records are a 4-byte length followed by the {@link ElementCodec}
+ * bytes. Segments are mapped in a shared {@link Arena}; {@link #close()} unmaps them, and their
+ * files are unlinked right after mapping. A buffer dropped without {@code close()}, e.g. by a
+ * stream that failed before its finisher, is unmapped once it is garbage collected.
+ *
+ * @param <T> element type
+ */
+public final class SpillBuffer<T> implements Iterable<T>, AutoCloseable {
+  /** Default size of one mapped segment. */
+  public static final long DEFAULT_SEGMENT_BYTES = 64L << 20;
+
+  private static final Cleaner CLEANER = Cleaner.create();
+
+  private final int maxInMemory;
+  private final ElementCodec<T> codec;
+  private final Path tempDir;
+  private final long segmentBytes;
+  private final List<T> memory = new ArrayList<>();
+  private final List<MemorySegment> segments = new ArrayList<>();
+  private final List<Long> segmentUsed = new ArrayList<>();
+  private final Scratch scratch = new Scratch();
+  private final DataOutputStream scratchOut = new DataOutputStream(scratch);
+  private Arena arena;
+  private Cleaner.Cleanable unmap;
+  private MemorySegment current;
+  private long position;
+  private long size;
+  private T last;
+
+  public SpillBuffer(int maxInMemory, ElementCodec<T> codec) {
+    this(maxInMemory, codec, null, DEFAULT_SEGMENT_BYTES);
+  }
+
+  /**
+   * @param tempDir      directory for segment files, the default temp directory when null
+   * @param segmentBytes size of each mapped segment
+   */
+  public SpillBuffer(int maxInMemory, ElementCodec<T> codec, Path tempDir, long segmentBytes) {
+    if (maxInMemory < 0 || segmentBytes < 16) {
+      throw new IllegalArgumentException("maxInMemory must be >= 0 and segmentBytes >= 16");
+    }
+    this.maxInMemory = maxInMemory;
+    this.codec = codec;
+    this.tempDir = tempDir;
+    this.segmentBytes = segmentBytes;
+  }
+
+  public void add(T element) {
+    if (memory.size() < maxInMemory) {
+      memory.add(element);
+    } else {
+      spill(element);
+    }
+    last = element;
+    size++;
+  }
+
+  public void addAll(Iterable<? extends T> elements) {
+    for (T element : elements) {
+      add(element);
+    }
+  }
+
+  public T getLast() {
+    if (size == 0) {
+      throw new NoSuchElementException();
+    }
+    return last;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public long size() {
+    return size;
+  }
+
+  /**
+   * Elements currently held on the heap.
+   */
+  public int inMemorySize() {
+    return memory.size();
+  }
+
+  public long spilledBytes() {
+    long bytes = position;
+    for (int i = 0; i < segmentUsed.size(); i++) {
+      bytes += segmentUsed.get(i);
+    }
+    return bytes;
+  }
+
+  @Override
+  public Iterator<T> iterator() {
+    return new ReplayIterator();
+  }
+
+  /**
+   * Drops all elements and unmaps the spill segments. The buffer is empty but usable afterwards.
+   */
+  @Override
+  public void close() {
+    memory.clear();
+    segments.clear();
+    segmentUsed.clear();
+    current = null;
+    position = 0;
+    size = 0;
+    last = null;
+    if (unmap != null) {
+      unmap.clean();
+      unmap = null;
+      arena = null;
+    }
+  }
+
+  private void spill(T element) {
+    scratch.reset();
+    try {
+      codec.write(scratchOut, element);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    int length = scratch.size();
+    long needed = Integer.BYTES + (long) length;
+    if (current == null || position + needed > current.byteSize()) {
+      newSegment(Math.max(segmentBytes, needed));
+    }
+    current.set(ValueLayout.JAVA_INT_UNALIGNED, position, length);
+    MemorySegment.copy(scratch.bytes(), 0, current, ValueLayout.JAVA_BYTE,
+        position + Integer.BYTES, length);
+    position += needed;
+  }
+
+  private void newSegment(long bytes) {
+    if (current != null) {
+      segmentUsed.add(position);
+    }
+    if (arena == null) {
+      Arena mapped = Arena.ofShared();
+      arena = mapped;
+      // must not reach this buffer, or the buffer never becomes unreachable
+      unmap = CLEANER.register(this, mapped::close);
+    }
+    try {
+      Path file = tempDir == null
+          ? Files.createTempFile("spill-", ".seg")
+          : Files.createTempFile(tempDir, "spill-", ".seg");
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ,
+          StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE)) {
+        current = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes, arena);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to map spill segment", e);
+    }
+    segments.add(current);
+    position = 0;
+  }
+
+  private long usedBytes(int segment) {
+    return segment < segmentUsed.size() ? segmentUsed.get(segment) : position;
+  }
+
+  private final class ReplayIterator implements Iterator<T> {
+    private final Iterator<T> heap = memory.iterator();
+    private int segment = -1;
+    private SegmentInputStream in;
+    private DataInputStream data;
+
+    @Override
+    public boolean hasNext() {
+      if (heap.hasNext()) {
+        return true;
+      }
+      while (in == null || in.offset >= in.limit) {
+        if (segment + 1 >= segments.size()) {
+          return false;
+        }
+        segment++;
+        in = new SegmentInputStream(segments.get(segment), usedBytes(segment));
+        data = new DataInputStream(in);
+      }
+      return true;
+    }
+
+    @Override
+    public T next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      if (heap.hasNext()) {
+        return heap.next();
+      }
+      try {
+        data.readInt();
+        return codec.read(data);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+
+  private static final class SegmentInputStream extends InputStream {
+    private final MemorySegment segment;
+    private final long limit;
+    private long offset;
+
+    SegmentInputStream(MemorySegment segment, long limit) {
+      this.segment = segment;
+      this.limit = limit;
+    }
+
+    @Override
+    public int read() {
+      if (offset >= limit) {
+        return -1;
+      }
+      return segment.get(ValueLayout.JAVA_BYTE, offset++) & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+      if (offset >= limit) {
+        return -1;
+      }
+      int count = (int) Math.min(len, limit - offset);
+      MemorySegment.copy(segment, ValueLayout.JAVA_BYTE, offset, b, off, count);
+      offset += count;
+      return count;
+    }
+  }
+
+  /**
+   * Reusable encode buffer whose backing array can be copied without {@code toByteArray()}.
+   */
+  private static final class Scratch extends ByteArrayOutputStream {
+    byte[] bytes() {
+      return buf;
+    }
+  }
+}
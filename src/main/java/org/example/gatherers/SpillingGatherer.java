@@ -0,0 +1,79 @@
+package org.example.gatherers;
+
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.stream.Gatherer;
+
+/**
+ * Builds finisher-buffered gatherers on a {@link SpillBuffer}, so the buffer can grow beyond the
+ * heap. Integrator, combiner and finisher are written exactly as for an {@code ArrayList} state;
+ * the buffer is closed (and its segments unmapped) after the finisher, and a buffer the combiner
+ * does not return is closed as soon as the combiner is done with it.
+ */
+public class SpillingGatherer {
+  private SpillingGatherer() {
+    // Utility class, prevent instantiation
+  }
+
+  /**
+   * Sequential variant.
+   */
+  public static <T, E, R> Gatherer<T, ?, R> ofSequential(
+      int maxInMemory,
+      ElementCodec<E> codec,
+      Gatherer.Integrator<SpillBuffer<E>, T, R> integrator,
+      BiConsumer<SpillBuffer<E>, Gatherer.Downstream<? super R>> finisher) {
+    return Gatherer.ofSequential(
+        () -> new SpillBuffer<>(maxInMemory, codec),
+        integrator,
+        closing(finisher));
+  }
+
+  /**
+   * Parallel variant; each split has its own buffer and budget, and the combiner merges them.
+   */
+  public static <T, E, R> Gatherer<T, ?, R> of(
+      int maxInMemory,
+      ElementCodec<E> codec,
+      Gatherer.Integrator<SpillBuffer<E>, T, R> integrator,
+      BinaryOperator<SpillBuffer<E>> combiner,
+      BiConsumer<SpillBuffer<E>, Gatherer.Downstream<? super R>> finisher) {
+    return Gatherer.of(
+        () -> new SpillBuffer<>(maxInMemory, codec),
+        integrator,
+        closing(combiner),
+        closing(finisher));
+  }
+
+  private static <E> BinaryOperator<SpillBuffer<E>> closing(
+      BinaryOperator<SpillBuffer<E>> combiner) {
+    return (left, right) -> {
+      SpillBuffer<E> combined;
+      try {
+        combined = combiner.apply(left, right);
+      } catch (RuntimeException | Error e) {
+        left.close();
+        right.close();
+        throw e;
+      }
+      if (combined != left) {
+        left.close();
+      }
+      if (combined != right) {
+        right.close();
+      }
+      return combined;
+    };
+  }
+
+  private static <E, R> BiConsumer<SpillBuffer<E>, Gatherer.Downstream<? super R>> closing(
+      BiConsumer<SpillBuffer<E>, Gatherer.Downstream<? super R>> finisher) {
+    return (buffer, downstream) -> {
+      try {
+        finisher.accept(buffer, downstream);
+      } finally {
+        buffer.close();
+      }
+    };
+  }
+}
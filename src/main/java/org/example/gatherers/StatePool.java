@@ -0,0 +1,77 @@
+package org.example.gatherers;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Thread-local free lists of gatherer state objects.
+ *
+ * <p>Every fork-join split calls a gatherer's initializer. Acquiring from the pool instead of
+ * allocating lets a worker thread reuse the buffers its previous splits released, which removes
+ * most per-split allocation for fine-grained splits. States are reset when released and may be
+ * released on another thread than the one that acquired them; they then join that thread's list.
+ *
+ * @param <S> state type
+ */
+public final class StatePool<S> {
+  private final Supplier<S> factory;
+  private final Consumer<S> reset;
+  private final Predicate<S> retain;
+  private final int maxPerThread;
+  private final ThreadLocal<ArrayDeque<S>> free = ThreadLocal.withInitial(ArrayDeque::new);
+  private final LongAdder created = new LongAdder();
+  private final LongAdder reused = new LongAdder();
+
+  /**
+   * @param factory      creates a new state when the thread's list is empty
+   * @param reset        clears a released state, e.g. {@code IntArrayBuffer::clear}
+   * @param retain       states failing this test are dropped on release, e.g. oversized buffers
+   * @param maxPerThread maximum number of free states kept per thread
+   */
+  public StatePool(Supplier<S> factory, Consumer<S> reset, Predicate<S> retain,
+                   int maxPerThread) {
+    this.factory = factory;
+    this.reset = reset;
+    this.retain = retain;
+    this.maxPerThread = maxPerThread;
+  }
+
+  /**
+   * Pool of {@link IntArrayBuffer}s. Buffers grown beyond {@code maxRetainedCapacity} are not
+   * kept, so one huge split does not pin memory forever.
+   */
+  public static StatePool<IntArrayBuffer> intBuffers(int initialCapacity,
+                                                     int maxRetainedCapacity) {
+    return new StatePool<>(() -> new IntArrayBuffer(initialCapacity), IntArrayBuffer::clear,
+        buffer -> buffer.capacity() <= maxRetainedCapacity, 4);
+  }
+
+  public S acquire() {
+    S state = free.get().pollLast();
+    if (state != null) {
+      reused.increment();
+      return state;
+    }
+    created.increment();
+    return factory.get();
+  }
+
+  public void release(S state) {
+    ArrayDeque<S> list = free.get();
+    if (list.size() < maxPerThread && retain.test(state)) {
+      reset.accept(state);
+      list.addLast(state);
+    }
+  }
+
+  public long createdCount() {
+    return created.sum();
+  }
+
+  public long reusedCount() {
+    return reused.sum();
+  }
+}
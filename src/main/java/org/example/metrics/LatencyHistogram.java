@@ -0,0 +1,89 @@
+package org.example.metrics;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with fixed 1-2.5-5 buckets from 1 µs to 10 s. Each bucket is a
+ * {@link LongAdder}, so recording from many threads never contends and reading for export never
+ * blocks a writer.
+ */
+public final class LatencyHistogram {
+  static final long[] BOUNDS_NANOS = bounds();
+  static final String[] BOUNDS_SECONDS = secondsLabels();
+
+  private final LongAdder[] buckets = new LongAdder[BOUNDS_NANOS.length + 1];
+  private final LongAdder sumNanos = new LongAdder();
+
+  public LatencyHistogram() {
+    for (int i = 0; i < buckets.length; i++) {
+      buckets[i] = new LongAdder();
+    }
+  }
+
+  public void record(long nanos) {
+    buckets[bucket(nanos)].increment();
+    sumNanos.add(nanos);
+  }
+
+  public long count() {
+    long count = 0;
+    for (LongAdder bucket : buckets) {
+      count += bucket.sum();
+    }
+    return count;
+  }
+
+  public long sumNanos() {
+    return sumNanos.sum();
+  }
+
+  /**
+   * Cumulative counts per upper bound, the last entry being {@code +Inf}.
+   */
+  public long[] cumulativeCounts() {
+    long[] counts = new long[buckets.length];
+    long running = 0;
+    for (int i = 0; i < buckets.length; i++) {
+      running += buckets[i].sum();
+      counts[i] = running;
+    }
+    return counts;
+  }
+
+  private static int bucket(long nanos) {
+    int low = 0;
+    int high = BOUNDS_NANOS.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (nanos <= BOUNDS_NANOS[mid]) {
+        high = mid;
+      } else {
+        low = mid + 1;
+      }
+    }
+    return low;
+  }
+
+  private static long[] bounds() {
+    long[] bounds = new long[22];
+    long decade = 1_000;
+    for (int i = 0; i < bounds.length; i += 3) {
+      bounds[i] = decade;
+      if (i + 1 < bounds.length) {
+        bounds[i + 1] = decade * 5 / 2;
+        bounds[i + 2] = decade * 5;
+      }
+      decade *= 10;
+    }
+    return bounds;
+  }
+
+  private static String[] secondsLabels() {
+    String[] labels = new String[BOUNDS_NANOS.length];
+    for (int i = 0; i < labels.length; i++) {
+      labels[i] = BigDecimal.valueOf(BOUNDS_NANOS[i], 9).stripTrailingZeros().toPlainString();
+    }
+    return labels;
+  }
+}
@@ -0,0 +1,197 @@
+package org.example.metrics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import org.example.pipeline.PipelineRunner;
+import org.example.pipeline.PoolStats;
+import org.example.util.AllocationMeter;
+
+/**
+ * Named pipelines, fork-join pools and JVM statistics, rendered in the Prometheus text exposition
+ * format (version 0.0.4).
+ *
+ * <p>Hot-path recording only touches {@link java.util.concurrent.atomic.LongAdder}s; a scrape
+ * reads their sums and the MXBeans, so exporting never blocks a pipeline.
+ *
+ * <p>{@link ForkJoinPool#commonPool()} is always exported as {@code pool="common"}: every parallel
+ * stream started outside a {@link PipelineRunner} runs there.
+ */
+public final class MetricsRegistry {
+  private static final String COMMON_POOL = "common";
+
+  private final Map<String, PipelineMetrics> pipelines = new ConcurrentHashMap<>();
+  private final List<PipelineRunner> runners = new CopyOnWriteArrayList<>();
+  private final AllocationRate allocationRate = new AllocationRate();
+
+  public PipelineMetrics pipeline(String name) {
+    return pipelines.computeIfAbsent(name, PipelineMetrics::new);
+  }
+
+  /**
+   * Exports {@code runner}'s pool stats until it is shut down.
+   */
+  public void register(PipelineRunner runner) {
+    runners.add(runner);
+  }
+
+  public String scrape() {
+    StringBuilder out = new StringBuilder(4_096);
+    writeTo(out);
+    return out.toString();
+  }
+
+  public void writeTo(Appendable out) {
+    try {
+      writePipelines(out);
+      writePools(out);
+      writeJvm(out);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void writePipelines(Appendable out) throws IOException {
+    var all = List.copyOf(pipelines.values());
+    family(out, "pipeline_elements_total", "counter", "Elements counted by the pipeline.");
+    for (PipelineMetrics p : all) {
+      sample(out, "pipeline_elements_total", label("pipeline", p.name()), p.elements());
+    }
+    family(out, "pipeline_elements_per_second", "gauge",
+        "Average elements per second since the pipeline was registered.");
+    for (PipelineMetrics p : all) {
+      sample(out, "pipeline_elements_per_second", label("pipeline", p.name()),
+          p.elementsPerSecond());
+    }
+    family(out, "pipeline_stage_latency_seconds", "histogram",
+        "Time per integrate call of a pipeline stage, including downstream pushes.");
+    for (PipelineMetrics p : all) {
+      for (var stage : p.stages().entrySet()) {
+        String labels = label("pipeline", p.name()) + "," + label("stage", stage.getKey());
+        LatencyHistogram histogram = stage.getValue();
+        long[] counts = histogram.cumulativeCounts();
+        for (int i = 0; i < counts.length; i++) {
+          String le = i < LatencyHistogram.BOUNDS_SECONDS.length
+              ? LatencyHistogram.BOUNDS_SECONDS[i] : "+Inf";
+          sample(out, "pipeline_stage_latency_seconds_bucket",
+              labels + "," + label("le", le), counts[i]);
+        }
+        sample(out, "pipeline_stage_latency_seconds_sum", labels, histogram.sumNanos() / 1e9);
+        sample(out, "pipeline_stage_latency_seconds_count", labels, counts[counts.length - 1]);
+      }
+    }
+  }
+
+  private void writePools(Appendable out) throws IOException {
+    runners.removeIf(PipelineRunner::isShutdown);
+    var stats = new ArrayList<PoolStats>(runners.size() + 1);
+    stats.add(PoolStats.of(COMMON_POOL, ForkJoinPool.commonPool()));
+    runners.forEach(runner -> stats.add(runner.stats()));
+    pool(out, stats, "forkjoin_pool_parallelism", "gauge", "Target parallelism.",
+        PoolStats::parallelism);
+    pool(out, stats, "forkjoin_pool_threads", "gauge", "Worker threads started.",
+        PoolStats::poolSize);
+    pool(out, stats, "forkjoin_pool_active_threads", "gauge",
+        "Workers stealing or executing tasks.", PoolStats::activeThreads);
+    pool(out, stats, "forkjoin_pool_queued_tasks", "gauge", "Tasks in worker queues.",
+        PoolStats::queuedTasks);
+    pool(out, stats, "forkjoin_pool_queued_submissions", "gauge",
+        "External submissions not yet picked up.", PoolStats::queuedSubmissions);
+    pool(out, stats, "forkjoin_pool_steals_total", "counter",
+        "Tasks stolen between worker queues.", PoolStats::stealCount);
+  }
+
+  private void writeJvm(Appendable out) throws IOException {
+    var collectors = ManagementFactory.getGarbageCollectorMXBeans();
+    gc(out, collectors, "jvm_gc_collections_total", "Completed collections.",
+        GarbageCollectorMXBean::getCollectionCount);
+    gc(out, collectors, "jvm_gc_collection_seconds_total", "Accumulated collection time.",
+        gcBean -> gcBean.getCollectionTime() / 1e3);
+    long allocated = AllocationMeter.totalAllocatedBytes();
+    if (allocated >= 0) {
+      family(out, "jvm_allocated_bytes_total", "counter", "Bytes allocated by all threads.");
+      sample(out, "jvm_allocated_bytes_total", "", allocated);
+      family(out, "jvm_allocation_rate_bytes_per_second", "gauge",
+          "Allocation rate since the previous scrape.");
+      sample(out, "jvm_allocation_rate_bytes_per_second", "", allocationRate.rate(allocated));
+    }
+  }
+
+  private static void pool(Appendable out, List<PoolStats> stats, String name, String type,
+                           String help, ToDoubleFunction<PoolStats> value) throws IOException {
+    family(out, name, type, help);
+    for (PoolStats s : stats) {
+      sample(out, name, label("pool", s.name()), value.applyAsDouble(s));
+    }
+  }
+
+  private static void gc(Appendable out, List<GarbageCollectorMXBean> collectors, String name,
+                         String help, Function<GarbageCollectorMXBean, Number> value)
+      throws IOException {
+    family(out, name, "counter", help);
+    for (GarbageCollectorMXBean collector : collectors) {
+      sample(out, name, label("gc", collector.getName()),
+          Math.max(0, value.apply(collector).doubleValue()));
+    }
+  }
+
+  private static void family(Appendable out, String name, String type, String help)
+      throws IOException {
+    out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+    out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+  }
+
+  private static void sample(Appendable out, String name, String labels, double value)
+      throws IOException {
+    out.append(name);
+    if (!labels.isEmpty()) {
+      out.append('{').append(labels).append('}');
+    }
+    out.append(' ');
+    if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+      out.append(Long.toString((long) value));
+    } else {
+      out.append(Double.toString(value));
+    }
+    out.append('\n');
+  }
+
+  static String label(String name, String value) {
+    StringBuilder label = new StringBuilder(name).append("=\"");
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '\\' -> label.append("\\\\");
+        case '"' -> label.append("\\\"");
+        case '\n' -> label.append("\\n");
+        default -> label.append(c);
+      }
+    }
+    return label.append('"').toString();
+  }
+
+  /**
+   * Allocation rate between consecutive scrapes, from the total of all threads' allocations.
+   */
+  private static final class AllocationRate {
+    private long lastBytes;
+    private long lastNanos;
+
+    synchronized double rate(long bytes) {
+      long now = System.nanoTime();
+      double rate = lastNanos == 0 ? 0 : (bytes - lastBytes) / ((now - lastNanos) / 1e9);
+      lastBytes = bytes;
+      lastNanos = now;
+      return Math.max(0, rate);
+    }
+  }
+}
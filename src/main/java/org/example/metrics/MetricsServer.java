@@ -0,0 +1,68 @@
+package org.example.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves a {@link MetricsRegistry} at {@code GET /metrics} on the JDK's built-in HTTP server.
+ * Each scrape runs on its own virtual thread.
+ */
+public final class MetricsServer implements AutoCloseable {
+  static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+  private final HttpServer server;
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+  private MetricsServer(MetricsRegistry registry, InetSocketAddress address) throws IOException {
+    server = HttpServer.create(address, 0);
+    server.createContext("/metrics", exchange -> handle(registry, exchange));
+    server.setExecutor(executor);
+  }
+
+  /**
+   * Starts serving; port 0 picks a free port, see {@link #port()}.
+   */
+  public static MetricsServer start(MetricsRegistry registry, InetSocketAddress address)
+      throws IOException {
+    MetricsServer metricsServer = new MetricsServer(registry, address);
+    metricsServer.server.start();
+    return metricsServer;
+  }
+
+  public int port() {
+    return server.getAddress().getPort();
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.close();
+  }
+
+  private static void handle(MetricsRegistry registry, HttpExchange exchange) throws IOException {
+    try (exchange) {
+      String method = exchange.getRequestMethod();
+      if (!method.equals("GET") && !method.equals("HEAD")) {
+        exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+        exchange.sendResponseHeaders(405, -1);
+        return;
+      }
+      byte[] body = registry.scrape().getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+      if (method.equals("HEAD")) {
+        exchange.sendResponseHeaders(200, -1);
+        return;
+      }
+      exchange.sendResponseHeaders(200, body.length);
+      try (OutputStream response = exchange.getResponseBody()) {
+        response.write(body);
+      }
+    }
+  }
+}
@@ -0,0 +1,89 @@
+package org.example.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Gatherer;
+
+/**
+ * Metrics of one named pipeline: elements passed and per-stage integrate latencies. Obtain from
+ * {@link MetricsRegistry#pipeline(String)}; all recording is lock-free.
+ */
+public final class PipelineMetrics {
+  private final String name;
+  private final long startNanos = System.nanoTime();
+  private final LongAdder elements = new LongAdder();
+  private final Map<String, LatencyHistogram> stages = new ConcurrentHashMap<>();
+
+  PipelineMetrics(String name) {
+    this.name = name;
+  }
+
+  public String name() {
+    return name;
+  }
+
+  public long elements() {
+    return elements.sum();
+  }
+
+  /**
+   * Counts elements processed outside a {@link #counted()} stage, e.g. a whole batch at once.
+   */
+  public void addElements(long count) {
+    elements.add(count);
+  }
+
+  /**
+   * Average throughput since the pipeline was registered.
+   */
+  public double elementsPerSecond() {
+    double seconds = (System.nanoTime() - startNanos) / 1e9;
+    return seconds > 0 ? elements.sum() / seconds : 0;
+  }
+
+  /**
+   * Histogram for {@code stage}, created on first use; look it up once, outside the hot path.
+   */
+  public LatencyHistogram stage(String stage) {
+    return stages.computeIfAbsent(stage, _ -> new LatencyHistogram());
+  }
+
+  Map<String, LatencyHistogram> stages() {
+    return stages;
+  }
+
+  /**
+   * Stateless pass-through that counts every element for this pipeline.
+   */
+  public <T> Gatherer<T, ?, T> counted() {
+    return Gatherer.of(Gatherer.Integrator.ofGreedy(
+        (Void _, T element, Gatherer.Downstream<? super T> downstream) -> {
+          elements.increment();
+          return downstream.push(element);
+        }));
+  }
+
+  /**
+   * Wraps {@code gatherer} so each integrate call is recorded in the {@code stage} histogram.
+   * The time includes pushes into later stages of the same pipeline.
+   */
+  public <T, A, R> Gatherer<T, A, R> timed(String stage, Gatherer<T, A, R> gatherer) {
+    final LatencyHistogram histogram = stage(stage);
+    final Gatherer.Integrator<A, T, R> inner = gatherer.integrator();
+    Gatherer.Integrator<A, T, R> integrator = (state, element, downstream) -> {
+      long start = System.nanoTime();
+      try {
+        return inner.integrate(state, element, downstream);
+      } finally {
+        histogram.record(System.nanoTime() - start);
+      }
+    };
+    if (inner instanceof Gatherer.Integrator.Greedy) {
+      final Gatherer.Integrator<A, T, R> timed = integrator;
+      integrator = Gatherer.Integrator.<A, T, R>ofGreedy(timed::integrate);
+    }
+    return Gatherer.of(gatherer.initializer(), integrator, gatherer.combiner(),
+        gatherer.finisher());
+  }
+}
@@ -0,0 +1,186 @@
+package org.example.pipeline;
+
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.stream.Gatherer;
+
+/**
+ * Builds a chain of stateless map/filter steps around at most one stateful gatherer and compiles
+ * it into a single {@link Gatherer}.
+ *
+ * <p>{@code stream.filter(a).map(b).gather(g).map(c).filter(d)} adds one stream stage per call.
+ * The equivalent {@code stream.gather(FusedPipeline.<T>start().filter(a).map(b).gather(g)
+ * .map(c).filter(d).toGatherer())} runs every step inside one integrator: steps before the
+ * gatherer are composed into one function, steps after it into another.
+ *
+ * <p>Instances are immutable; every builder method returns a new pipeline.
+ *
+ * @param <T> element type entering the pipeline
+ * @param <R> element type leaving the pipeline
+ */
+public final class FusedPipeline<T, R> {
+  /** Marker returned by a composed stage when a filter dropped the element. */
+  static final Object SKIP = new Object();
+
+  private static final Function<Object, Object> IDENTITY = x -> x;
+
+  private final Function<Object, Object> pre;
+  private final Gatherer<Object, Object, Object> gatherer;
+  private final Function<Object, Object> post;
+
+  private FusedPipeline(Function<Object, Object> pre,
+                        Gatherer<Object, Object, Object> gatherer,
+                        Function<Object, Object> post) {
+    this.pre = pre;
+    this.gatherer = gatherer;
+    this.post = post;
+  }
+
+  public static <T> FusedPipeline<T, T> start() {
+    return new FusedPipeline<>(IDENTITY, null, IDENTITY);
+  }
+
+  @SuppressWarnings("unchecked")
+  public <R2> FusedPipeline<T, R2> map(Function<? super R, ? extends R2> mapper) {
+    Function<Object, Object> f = (Function<Object, Object>) mapper;
+    return withOpenStage(compose(openStage(), f));
+  }
+
+  @SuppressWarnings("unchecked")
+  public FusedPipeline<T, R> filter(Predicate<? super R> predicate) {
+    Predicate<Object> p = (Predicate<Object>) predicate;
+    Function<Object, Object> stage = openStage();
+    if (stage == IDENTITY) {
+      return withOpenStage(x -> p.test(x) ? x : SKIP);
+    }
+    return withOpenStage(x -> {
+      Object v = stage.apply(x);
+      return v == SKIP || !p.test(v) ? SKIP : v;
+    });
+  }
+
+  /**
+   * Switches to primitive {@code int} steps. Values stay unboxed until {@link IntPipeline#boxed()}.
+   */
+  public IntPipeline<T> mapToInt(ToIntFunction<? super R> mapper) {
+    return new IntPipeline<>(this, mapper, IntPipeline.IDENTITY);
+  }
+
+  /**
+   * Fuses the one stateful gatherer of this pipeline. Steps added afterwards run on the
+   * gatherer's output, inside the same integrator and finisher.
+   *
+   * @throws IllegalStateException if a gatherer was already fused
+   */
+  @SuppressWarnings("unchecked")
+  public <R2> FusedPipeline<T, R2> gather(Gatherer<? super R, ?, R2> next) {
+    if (gatherer != null) {
+      throw new IllegalStateException("Only one stateful gatherer can be fused per pipeline");
+    }
+    return new FusedPipeline<>(pre, (Gatherer<Object, Object, Object>) next, IDENTITY);
+  }
+
+  /**
+   * Compiles the pipeline. Without a fused gatherer the result is stateless and parallelizable;
+   * otherwise it keeps the fused gatherer's initializer, combiner and finisher.
+   */
+  @SuppressWarnings("unchecked")
+  public Gatherer<T, ?, R> toGatherer() {
+    final Function<Object, Object> before = pre;
+    if (gatherer == null) {
+      return Gatherer.of((Void _, T x, Gatherer.Downstream<? super R> downstream) -> {
+        Object v = before.apply(x);
+        return v == SKIP || downstream.push((R) v);
+      });
+    }
+    return (Gatherer<T, ?, R>) (Gatherer<?, ?, ?>) fusedGatherer(before, gatherer, post);
+  }
+
+  private static Gatherer<Object, FusedState, Object> fusedGatherer(
+      Function<Object, Object> before,
+      Gatherer<Object, Object, Object> inner,
+      Function<Object, Object> after) {
+    final Supplier<Object> initializer = inner.initializer();
+    final Gatherer.Integrator<Object, Object, Object> integrator = inner.integrator();
+    final BiConsumer<Object, Gatherer.Downstream<? super Object>> finisher = inner.finisher();
+
+    Supplier<FusedState> fusedInitializer =
+        () -> new FusedState(initializer.get(), after);
+    Gatherer.Integrator<FusedState, Object, Object> fusedIntegrator =
+        (state, x, downstream) -> {
+          Object v = before.apply(x);
+          return v == SKIP || integrator.integrate(state.inner, v, state.sink(downstream));
+        };
+    BiConsumer<FusedState, Gatherer.Downstream<? super Object>> fusedFinisher =
+        (state, downstream) -> finisher.accept(state.inner, state.sink(downstream));
+
+    BinaryOperator<Object> combiner = inner.combiner();
+    if (combiner == Gatherer.defaultCombiner()) {
+      return Gatherer.ofSequential(fusedInitializer, fusedIntegrator, fusedFinisher);
+    }
+    return Gatherer.of(fusedInitializer, fusedIntegrator, (left, right) -> {
+      left.inner = combiner.apply(left.inner, right.inner);
+      return left;
+    }, fusedFinisher);
+  }
+
+  Function<Object, Object> openStage() {
+    return gatherer == null ? pre : post;
+  }
+
+  <R2> FusedPipeline<T, R2> withOpenStage(Function<Object, Object> stage) {
+    if (gatherer == null) {
+      return new FusedPipeline<>(stage, null, post);
+    }
+    return new FusedPipeline<>(pre, gatherer, stage);
+  }
+
+  private static Function<Object, Object> compose(Function<Object, Object> stage,
+                                                  Function<Object, Object> f) {
+    if (stage == IDENTITY) {
+      return f::apply;
+    }
+    return x -> {
+      Object v = stage.apply(x);
+      return v == SKIP ? SKIP : f.apply(v);
+    };
+  }
+
+  /**
+   * Per-split state: the fused gatherer's own state plus a reusable downstream that applies the
+   * post-gatherer steps, so nothing is allocated per element.
+   */
+  private static final class FusedState implements Gatherer.Downstream<Object> {
+    private Object inner;
+    private final Function<Object, Object> after;
+    private Gatherer.Downstream<? super Object> target;
+
+    FusedState(Object inner, Function<Object, Object> after) {
+      this.inner = inner;
+      this.after = after;
+    }
+
+    Gatherer.Downstream<? super Object> sink(Gatherer.Downstream<? super Object> downstream) {
+      if (after == IDENTITY) {
+        return downstream;
+      }
+      target = downstream;
+      return this;
+    }
+
+    @Override
+    public boolean push(Object element) {
+      Object v = after.apply(element);
+      return v == SKIP || target.push(v);
+    }
+
+    @Override
+    public boolean isRejecting() {
+      return target.isRejecting();
+    }
+  }
+}
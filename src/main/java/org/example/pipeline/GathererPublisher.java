@@ -0,0 +1,162 @@
+package org.example.pipeline;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import java.util.stream.Gatherer;
+
+/**
+ * Exposes a source plus gatherer pipeline as a cold {@link Flow.Publisher}.
+ *
+ * <p>Every subscription iterates the source again on its own virtual thread and drives the
+ * gatherer by hand. {@code Downstream.push} parks that thread until the subscriber has
+ * requested more, so nothing is buffered: memory is bounded by outstanding demand, not by the
+ * length of the stream. Cancelling makes {@code push} return false and
+ * {@code Downstream.isRejecting()} return true, which lets short-circuit aware gatherers stop
+ * early; the source is not pulled any further.
+ *
+ * @param <T> source element type
+ * @param <R> published element type
+ */
+public class GathererPublisher<T, R> implements Flow.Publisher<R> {
+  private static final AtomicInteger SUBSCRIPTION_IDS = new AtomicInteger();
+
+  private final Iterable<? extends T> source;
+  private final Gatherer<? super T, ?, R> gatherer;
+
+  public GathererPublisher(Iterable<? extends T> source, Gatherer<? super T, ?, R> gatherer) {
+    this.source = Objects.requireNonNull(source);
+    this.gatherer = Objects.requireNonNull(gatherer);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void subscribe(Flow.Subscriber<? super R> subscriber) {
+    Objects.requireNonNull(subscriber);
+    var subscription = new DemandSubscription<R>(subscriber);
+    var typed = (Gatherer<T, Object, R>) gatherer;
+    Thread.ofVirtual()
+        .name("gatherer-publisher-" + SUBSCRIPTION_IDS.incrementAndGet())
+        .start(() -> subscription.run(source, typed));
+  }
+
+  private static final class DemandSubscription<R>
+      implements Flow.Subscription, Gatherer.Downstream<R> {
+    private final Flow.Subscriber<? super R> subscriber;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition demandChanged = lock.newCondition();
+    private long demand;
+    private boolean cancelled;
+    private Throwable pendingError;
+
+    DemandSubscription(Flow.Subscriber<? super R> subscriber) {
+      this.subscriber = subscriber;
+    }
+
+    <T, A> void run(Iterable<? extends T> source, Gatherer<T, A, R> gatherer) {
+      subscriber.onSubscribe(this);
+      try {
+        Supplier<A> initializer = gatherer.initializer();
+        Gatherer.Integrator<A, T, R> integrator = gatherer.integrator();
+        BiConsumer<A, Gatherer.Downstream<? super R>> finisher = gatherer.finisher();
+        A state = initializer.get();
+        Iterator<? extends T> it = source.iterator();
+        while (!isRejecting() && it.hasNext()) {
+          if (!integrator.integrate(state, it.next(), this)) {
+            break;
+          }
+        }
+        if (!isRejecting()) {
+          finisher.accept(state, this);
+        }
+      } catch (RuntimeException | Error e) {
+        cancel();
+        subscriber.onError(e);
+        return;
+      }
+      Throwable error = takePendingError();
+      if (error != null) {
+        subscriber.onError(error);
+      } else if (!isRejecting()) {
+        subscriber.onComplete();
+      }
+    }
+
+    @Override
+    public boolean push(R element) {
+      lock.lock();
+      try {
+        while (demand == 0 && !cancelled) {
+          demandChanged.awaitUninterruptibly();
+        }
+        if (cancelled) {
+          return false;
+        }
+        if (demand != Long.MAX_VALUE) {
+          demand--;
+        }
+      } finally {
+        lock.unlock();
+      }
+      subscriber.onNext(element);
+      return !isRejecting();
+    }
+
+    @Override
+    public boolean isRejecting() {
+      lock.lock();
+      try {
+        return cancelled;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    @Override
+    public void request(long n) {
+      lock.lock();
+      try {
+        if (cancelled) {
+          return;
+        }
+        if (n <= 0) {
+          // reactive-streams rule 3.9: signal the error and stop; delivered by the producer
+          pendingError = new IllegalArgumentException("non-positive request: " + n);
+          cancelled = true;
+        } else {
+          demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+        }
+        demandChanged.signalAll();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    @Override
+    public void cancel() {
+      lock.lock();
+      try {
+        cancelled = true;
+        demandChanged.signalAll();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private Throwable takePendingError() {
+      lock.lock();
+      try {
+        Throwable error = pendingError;
+        pendingError = null;
+        return error;
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+}
@@ -0,0 +1,74 @@
+package org.example.pipeline;
+
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+import java.util.function.ToIntFunction;
+
+/**
+ * Primitive {@code int} segment of a {@link FusedPipeline}. Consecutive int maps and filters are
+ * composed into a single {@link IntStage} and run without boxing between them.
+ *
+ * @param <T> element type entering the whole pipeline
+ */
+public final class IntPipeline<T> {
+  static final IntStage IDENTITY = v -> v;
+
+  private final FusedPipeline<T, ?> upstream;
+  private final ToIntFunction<Object> toInt;
+  private final IntStage stage;
+
+  @SuppressWarnings("unchecked")
+  IntPipeline(FusedPipeline<T, ?> upstream, ToIntFunction<?> toInt, IntStage stage) {
+    this.upstream = upstream;
+    this.toInt = (ToIntFunction<Object>) toInt;
+    this.stage = stage;
+  }
+
+  public IntPipeline<T> map(IntUnaryOperator mapper) {
+    final IntStage prev = stage;
+    if (prev == IDENTITY) {
+      return new IntPipeline<>(upstream, toInt, v -> mapper.applyAsInt(v));
+    }
+    return new IntPipeline<>(upstream, toInt, v -> {
+      long r = prev.apply(v);
+      return r == IntStage.SKIPPED ? IntStage.SKIPPED : mapper.applyAsInt((int) r);
+    });
+  }
+
+  public IntPipeline<T> filter(IntPredicate predicate) {
+    final IntStage prev = stage;
+    return new IntPipeline<>(upstream, toInt, v -> {
+      long r = prev.apply(v);
+      return r == IntStage.SKIPPED || !predicate.test((int) r) ? IntStage.SKIPPED : r;
+    });
+  }
+
+  /**
+   * Leaves the primitive segment; each surviving value is boxed exactly once.
+   */
+  public FusedPipeline<T, Integer> boxed() {
+    final Function<Object, Object> prev = upstream.openStage();
+    final ToIntFunction<Object> unbox = toInt;
+    final IntStage ints = stage;
+    return upstream.withOpenStage(x -> {
+      Object v = prev.apply(x);
+      if (v == FusedPipeline.SKIP) {
+        return FusedPipeline.SKIP;
+      }
+      long r = ints.apply(unbox.applyAsInt(v));
+      return r == IntStage.SKIPPED ? FusedPipeline.SKIP : Integer.valueOf((int) r);
+    });
+  }
+
+  /**
+   * Composed int steps. The result is either the mapped value widened to {@code long} or
+   * {@link #SKIPPED}, which no widened {@code int} can equal.
+   */
+  @FunctionalInterface
+  interface IntStage {
+    long SKIPPED = Long.MIN_VALUE;
+
+    long apply(int value);
+  }
+}
@@ -0,0 +1,111 @@
+package org.example.pipeline;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Gatherer;
+
+/**
+ * Runs stream pipelines inside a dedicated, named {@link ForkJoinPool}.
+ *
+ * <p>A parallel stream forks its tasks into the pool of the thread that starts the terminal
+ * operation. Pipelines started through {@link #run(Supplier)} therefore never touch
+ * {@link ForkJoinPool#commonPool()}, so one heavy pipeline cannot starve the others.
+ */
+public class PipelineRunner implements AutoCloseable {
+  private static final Duration DEFAULT_SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+
+  private final String name;
+  private final ForkJoinPool pool;
+
+  public PipelineRunner(String name, int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+    }
+    this.name = name;
+    this.pool = new ForkJoinPool(parallelism, namedThreadFactory(name), null, false);
+  }
+
+  private static ForkJoinPool.ForkJoinWorkerThreadFactory namedThreadFactory(String name) {
+    final AtomicInteger counter = new AtomicInteger();
+    return pool -> {
+      ForkJoinWorkerThread thread =
+          ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+      thread.setName(name + "-worker-" + counter.getAndIncrement());
+      return thread;
+    };
+  }
+
+  public String name() {
+    return name;
+  }
+
+  /**
+   * Evaluates the given pipeline (including its terminal operation) inside this pool and waits
+   * for the result.
+   */
+  public <T> T run(Supplier<T> pipeline) {
+    if (pool.isShutdown()) {
+      throw shutDown(null);
+    }
+    ForkJoinTask<T> task;
+    try {
+      task = pool.submit(pipeline::get);
+    } catch (RejectedExecutionException e) {
+      // a concurrent close() won the race against the check above
+      throw shutDown(e);
+    }
+    return task.join();
+  }
+
+  private IllegalStateException shutDown(Throwable cause) {
+    return new IllegalStateException("Pipeline runner '" + name + "' is shut down", cause);
+  }
+
+  /**
+   * Convenience for the common shape: parallel stream of {@code source}, one gatherer, collected
+   * into a list.
+   */
+  public <T, R> List<R> run(Collection<T> source, Gatherer<? super T, ?, R> gatherer) {
+    return run(() -> source.parallelStream().gather(gatherer).toList());
+  }
+
+  public PoolStats stats() {
+    return PoolStats.of(name, pool);
+  }
+
+  public boolean isShutdown() {
+    return pool.isShutdown();
+  }
+
+  /**
+   * Stops accepting new pipelines and waits up to {@code timeout} for running ones to finish.
+   * Anything still running after that is cancelled.
+   *
+   * @return true if the pool terminated without being forced
+   */
+  public boolean shutdown(Duration timeout) {
+    pool.shutdown();
+    try {
+      if (pool.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+        return true;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    pool.shutdownNow();
+    return false;
+  }
+
+  @Override
+  public void close() {
+    shutdown(DEFAULT_SHUTDOWN_TIMEOUT);
+  }
+}
@@ -0,0 +1,32 @@
+package org.example.pipeline;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Point-in-time snapshot of a {@link PipelineRunner} pool or the common pool.
+ *
+ * @param name           pool name, also used as worker thread name prefix
+ * @param parallelism    target parallelism of the pool
+ * @param poolSize       number of worker threads started so far
+ * @param activeThreads  workers currently stealing or executing tasks
+ * @param queuedTasks    tasks sitting in worker queues (queue depth)
+ * @param queuedSubmissions tasks submitted from outside and not yet picked up
+ * @param stealCount     total tasks stolen from one worker queue by another
+ */
+public record PoolStats(String name,
+                        int parallelism,
+                        int poolSize,
+                        int activeThreads,
+                        long queuedTasks,
+                        int queuedSubmissions,
+                        long stealCount) {
+  public static PoolStats of(String name, ForkJoinPool pool) {
+    return new PoolStats(name,
+        pool.getParallelism(),
+        pool.getPoolSize(),
+        pool.getActiveThreadCount(),
+        pool.getQueuedTaskCount(),
+        pool.getQueuedSubmissionCount(),
+        pool.getStealCount());
+  }
+}
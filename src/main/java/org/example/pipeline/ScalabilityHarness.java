@@ -0,0 +1,170 @@
+package org.example.pipeline;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.stream.Gatherer;
+import java.util.stream.IntStream;
+
+/**
+ * Measures how gatherer shapes scale with cores.
+ *
+ * <p>Each shape runs as {@code source.parallelStream().gather(shape).toList()} on a dedicated
+ * {@link PipelineRunner} for every parallelism from 1 to {@code maxParallelism} and every input
+ * size. From the median times it derives speedup and efficiency and fits Amdahl's law
+ * {@code S(p) = 1 / (f + (1 - f) / p)} for the serial fraction {@code f}. Combiner and finisher
+ * are timed separately; when either takes at least {@link #BOTTLENECK_SHARE} of the wall time at
+ * the highest parallelism the shape is flagged with that phase as its bottleneck.
+ */
+public class ScalabilityHarness {
+  public static final double BOTTLENECK_SHARE = 0.25;
+
+  private final int maxParallelism;
+  private final int[] inputSizes;
+  private final int warmupRuns;
+  private final int measuredRuns;
+  private final Map<String, Gatherer<Integer, ?, ?>> shapes = new LinkedHashMap<>();
+
+  public ScalabilityHarness(int maxParallelism, int[] inputSizes, int warmupRuns,
+                            int measuredRuns) {
+    if (maxParallelism < 1 || measuredRuns < 1 || warmupRuns < 0 || inputSizes.length == 0) {
+      throw new IllegalArgumentException("Need parallelism >= 1, sizes and measured runs >= 1");
+    }
+    this.maxParallelism = maxParallelism;
+    this.inputSizes = inputSizes.clone();
+    this.warmupRuns = warmupRuns;
+    this.measuredRuns = measuredRuns;
+  }
+
+  public ScalabilityHarness shape(String name, Gatherer<Integer, ?, ?> gatherer) {
+    shapes.put(name, gatherer);
+    return this;
+  }
+
+  public ScalabilityReport run() {
+    List<ScalabilityPoint> points = new ArrayList<>();
+    List<ScalabilitySummary> summaries = new ArrayList<>();
+    for (var shape : shapes.entrySet()) {
+      for (int size : inputSizes) {
+        List<Integer> source = IntStream.range(0, size).boxed().toList();
+        PhaseTimer timer = new PhaseTimer();
+        Gatherer<Integer, ?, ?> timed = timer.wrap(shape.getValue());
+        int[] parallelism = new int[maxParallelism];
+        double[] speedups = new double[maxParallelism];
+        long baseline = 0;
+        for (int p = 1; p <= maxParallelism; p++) {
+          timer.reset();
+          long median = medianNanos(p, source, timed);
+          baseline = p == 1 ? median : baseline;
+          double speedup = (double) baseline / Math.max(1, median);
+          parallelism[p - 1] = p;
+          speedups[p - 1] = speedup;
+          points.add(new ScalabilityPoint(shape.getKey(), size, p, median, speedup, speedup / p));
+          if (p == maxParallelism) {
+            summaries.add(summary(shape.getKey(), size, parallelism, speedups, timer, median));
+          }
+        }
+      }
+    }
+    return new ScalabilityReport(List.copyOf(points), List.copyOf(summaries));
+  }
+
+  private long medianNanos(int parallelism, List<Integer> source, Gatherer<Integer, ?, ?> shape) {
+    long[] times = new long[measuredRuns];
+    try (PipelineRunner runner = new PipelineRunner("scalability-p" + parallelism, parallelism)) {
+      for (int i = 0; i < warmupRuns; i++) {
+        runner.run(source, shape);
+      }
+      for (int i = 0; i < measuredRuns; i++) {
+        long start = System.nanoTime();
+        runner.run(source, shape);
+        times[i] = System.nanoTime() - start;
+      }
+    }
+    Arrays.sort(times);
+    return times[measuredRuns / 2];
+  }
+
+  private ScalabilitySummary summary(String shape, int size, int[] parallelism,
+                                     double[] speedups, PhaseTimer timer, long medianNanos) {
+    // the timer accumulated over all runs at the highest parallelism
+    double wall = (double) medianNanos * (warmupRuns + measuredRuns);
+    double combinerShare = Math.min(1.0, timer.combinerNanos.sum() / wall);
+    double finisherShare = Math.min(1.0, timer.finisherNanos.sum() / wall);
+    String bottleneck = "none";
+    if (Math.max(combinerShare, finisherShare) >= BOTTLENECK_SHARE) {
+      bottleneck = combinerShare >= finisherShare ? "combiner" : "finisher";
+    }
+    return new ScalabilitySummary(shape, size, amdahlSerialFraction(parallelism, speedups),
+        combinerShare, finisherShare, bottleneck);
+  }
+
+  /**
+   * Least-squares fit of Amdahl's serial fraction. With {@code y = 1 / S(p)} and
+   * {@code x = 1 - 1 / p} the law reads {@code y - 1 / p = f * x}.
+   *
+   * @return fitted fraction clamped to [0, 1]; 0 when only parallelism 1 was measured
+   */
+  public static double amdahlSerialFraction(int[] parallelism, double[] speedups) {
+    double numerator = 0;
+    double denominator = 0;
+    for (int i = 0; i < parallelism.length; i++) {
+      double x = 1 - 1.0 / parallelism[i];
+      double y = 1 / speedups[i];
+      numerator += x * (y - 1.0 / parallelism[i]);
+      denominator += x * x;
+    }
+    if (denominator == 0) {
+      return 0;
+    }
+    return Math.clamp(numerator / denominator, 0.0, 1.0);
+  }
+
+  /**
+   * Adds combiner and finisher timing to a gatherer without changing its behaviour.
+   */
+  private static final class PhaseTimer {
+    private final LongAdder combinerNanos = new LongAdder();
+    private final LongAdder finisherNanos = new LongAdder();
+
+    void reset() {
+      combinerNanos.reset();
+      finisherNanos.reset();
+    }
+
+    @SuppressWarnings("unchecked")
+    <A, R> Gatherer<Integer, A, R> wrap(Gatherer<Integer, ?, ?> untyped) {
+      Gatherer<Integer, A, R> gatherer = (Gatherer<Integer, A, R>) untyped;
+      BinaryOperator<A> combiner = gatherer.combiner();
+      if (combiner != Gatherer.<A>defaultCombiner()) {
+        final BinaryOperator<A> inner = combiner;
+        combiner = (left, right) -> {
+          long start = System.nanoTime();
+          try {
+            return inner.apply(left, right);
+          } finally {
+            combinerNanos.add(System.nanoTime() - start);
+          }
+        };
+      }
+      BiConsumer<A, Gatherer.Downstream<? super R>> finisher = gatherer.finisher();
+      if (finisher != Gatherer.<A, R>defaultFinisher()) {
+        final BiConsumer<A, Gatherer.Downstream<? super R>> inner = finisher;
+        finisher = (state, downstream) -> {
+          long start = System.nanoTime();
+          try {
+            inner.accept(state, downstream);
+          } finally {
+            finisherNanos.add(System.nanoTime() - start);
+          }
+        };
+      }
+      return Gatherer.of(gatherer.initializer(), gatherer.integrator(), combiner, finisher);
+    }
+  }
+}
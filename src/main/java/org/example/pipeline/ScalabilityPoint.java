@@ -0,0 +1,19 @@
+package org.example.pipeline;
+
+/**
+ * One measurement of a {@link ScalabilityHarness} run.
+ *
+ * @param shape        name of the gatherer shape
+ * @param inputSize    number of source elements
+ * @param parallelism  pool size the pipeline ran on
+ * @param medianNanos  median wall time of the measured runs
+ * @param speedup      time at parallelism 1 divided by {@code medianNanos}
+ * @param efficiency   {@code speedup / parallelism}
+ */
+public record ScalabilityPoint(String shape,
+                               int inputSize,
+                               int parallelism,
+                               long medianNanos,
+                               double speedup,
+                               double efficiency) {
+}
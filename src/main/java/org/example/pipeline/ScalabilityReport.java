@@ -0,0 +1,54 @@
+package org.example.pipeline;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Result of {@link ScalabilityHarness#run}, exportable as CSV or JSON.
+ *
+ * @param points    one entry per shape, input size and parallelism
+ * @param summaries one entry per shape and input size
+ */
+public record ScalabilityReport(List<ScalabilityPoint> points,
+                                List<ScalabilitySummary> summaries) {
+  public String toCsv() {
+    StringBuilder csv = new StringBuilder(
+        "shape,inputSize,parallelism,medianNanos,speedup,efficiency,serialFraction,bottleneck\n");
+    for (ScalabilityPoint p : points) {
+      ScalabilitySummary s = summaryOf(p.shape(), p.inputSize());
+      csv.append(String.format(Locale.ROOT, "%s,%d,%d,%d,%.4f,%.4f,%.4f,%s%n",
+          p.shape(), p.inputSize(), p.parallelism(), p.medianNanos(), p.speedup(),
+          p.efficiency(), s.serialFraction(), s.bottleneck()));
+    }
+    return csv.toString();
+  }
+
+  public String toJson() {
+    StringBuilder json = new StringBuilder("{\"points\":[");
+    for (int i = 0; i < points.size(); i++) {
+      ScalabilityPoint p = points.get(i);
+      json.append(i == 0 ? "" : ",").append(String.format(Locale.ROOT,
+          "{\"shape\":\"%s\",\"inputSize\":%d,\"parallelism\":%d,\"medianNanos\":%d,"
+              + "\"speedup\":%.4f,\"efficiency\":%.4f}",
+          p.shape(), p.inputSize(), p.parallelism(), p.medianNanos(), p.speedup(),
+          p.efficiency()));
+    }
+    json.append("],\"summaries\":[");
+    for (int i = 0; i < summaries.size(); i++) {
+      ScalabilitySummary s = summaries.get(i);
+      json.append(i == 0 ? "" : ",").append(String.format(Locale.ROOT,
+          "{\"shape\":\"%s\",\"inputSize\":%d,\"serialFraction\":%.4f,\"combinerShare\":%.4f,"
+              + "\"finisherShare\":%.4f,\"bottleneck\":\"%s\"}",
+          s.shape(), s.inputSize(), s.serialFraction(), s.combinerShare(), s.finisherShare(),
+          s.bottleneck()));
+    }
+    return json.append("]}").toString();
+  }
+
+  private ScalabilitySummary summaryOf(String shape, int inputSize) {
+    return summaries.stream()
+        .filter(s -> s.shape().equals(shape) && s.inputSize() == inputSize)
+        .findFirst()
+        .orElseThrow();
+  }
+}
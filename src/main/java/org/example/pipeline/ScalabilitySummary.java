@@ -0,0 +1,19 @@
+package org.example.pipeline;
+
+/**
+ * Scaling verdict for one shape at one input size.
+ *
+ * @param shape          name of the gatherer shape
+ * @param inputSize      number of source elements
+ * @param serialFraction Amdahl serial fraction fitted over all parallelism levels, in [0, 1]
+ * @param combinerShare  combiner time over wall time at the highest parallelism
+ * @param finisherShare  finisher time over wall time at the highest parallelism
+ * @param bottleneck     {@code combiner}, {@code finisher} or {@code none}
+ */
+public record ScalabilitySummary(String shape,
+                                 int inputSize,
+                                 double serialFraction,
+                                 double combinerShare,
+                                 double finisherShare,
+                                 String bottleneck) {
+}
@@ -0,0 +1,40 @@
+package org.example.pipeline;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link PipelineRunner} per tenant, so latency-sensitive tenants never share workers with
+ * batch ones. Pools are created lazily on first use.
+ */
+public class TenantPipelineRunners implements AutoCloseable {
+  private final int parallelismPerTenant;
+  private final Map<String, PipelineRunner> runners = new ConcurrentHashMap<>();
+
+  public TenantPipelineRunners(int parallelismPerTenant) {
+    this.parallelismPerTenant = parallelismPerTenant;
+  }
+
+  public PipelineRunner forTenant(String tenant) {
+    return forTenant(tenant, parallelismPerTenant);
+  }
+
+  /**
+   * Returns the tenant's runner, creating it with {@code parallelism} workers if it does not exist
+   * yet. The parallelism of an existing runner is left unchanged.
+   */
+  public PipelineRunner forTenant(String tenant, int parallelism) {
+    return runners.computeIfAbsent(tenant, t -> new PipelineRunner("tenant-" + t, parallelism));
+  }
+
+  public List<PoolStats> stats() {
+    return runners.values().stream().map(PipelineRunner::stats).toList();
+  }
+
+  @Override
+  public void close() {
+    runners.values().forEach(PipelineRunner::close);
+    runners.clear();
+  }
+}
@@ -0,0 +1,44 @@
+package org.example.simd;
+
+import jdk.incubator.vector.VectorOperators;
+
+/**
+ * Element-wise arithmetic map applied as {@code element op operand}.
+ */
+public enum ArithmeticOp {
+  ADD(VectorOperators.ADD),
+  SUBTRACT(VectorOperators.SUB),
+  MULTIPLY(VectorOperators.MUL),
+  MIN(VectorOperators.MIN),
+  MAX(VectorOperators.MAX);
+
+  private final VectorOperators.Binary vectorOp;
+
+  ArithmeticOp(VectorOperators.Binary vectorOp) {
+    this.vectorOp = vectorOp;
+  }
+
+  VectorOperators.Binary vectorOp() {
+    return vectorOp;
+  }
+
+  public int applyAsInt(int element, int operand) {
+    return switch (this) {
+      case ADD -> element + operand;
+      case SUBTRACT -> element - operand;
+      case MULTIPLY -> element * operand;
+      case MIN -> Math.min(element, operand);
+      case MAX -> Math.max(element, operand);
+    };
+  }
+
+  public long applyAsLong(long element, long operand) {
+    return switch (this) {
+      case ADD -> element + operand;
+      case SUBTRACT -> element - operand;
+      case MULTIPLY -> element * operand;
+      case MIN -> Math.min(element, operand);
+      case MAX -> Math.max(element, operand);
+    };
+  }
+}
@@ -0,0 +1,36 @@
+package org.example.simd;
+
+import jdk.incubator.vector.VectorOperators;
+
+/**
+ * Filter predicate evaluated as {@code element cmp operand}; matching elements are kept.
+ */
+public enum Comparison {
+  GREATER_THAN(VectorOperators.GT),
+  GREATER_OR_EQUAL(VectorOperators.GE),
+  LESS_THAN(VectorOperators.LT),
+  LESS_OR_EQUAL(VectorOperators.LE),
+  EQUAL(VectorOperators.EQ),
+  NOT_EQUAL(VectorOperators.NE);
+
+  private final VectorOperators.Comparison vectorOp;
+
+  Comparison(VectorOperators.Comparison vectorOp) {
+    this.vectorOp = vectorOp;
+  }
+
+  VectorOperators.Comparison vectorOp() {
+    return vectorOp;
+  }
+
+  public boolean test(long element, long operand) {
+    return switch (this) {
+      case GREATER_THAN -> element > operand;
+      case GREATER_OR_EQUAL -> element >= operand;
+      case LESS_THAN -> element < operand;
+      case LESS_OR_EQUAL -> element <= operand;
+      case EQUAL -> element == operand;
+      case NOT_EQUAL -> element != operand;
+    };
+  }
+}
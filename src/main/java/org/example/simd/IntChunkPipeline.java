@@ -0,0 +1,110 @@
+package org.example.simd;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Gatherer;
+import java.util.stream.IntStream;
+
+/**
+ * Sequence of vectorized map/filter stages applied to whole {@code int[]} chunks instead of one
+ * boxed element at a time.
+ *
+ * <pre>{@code
+ * var pipeline = IntChunkPipeline.create()
+ *     .filter(Comparison.GREATER_THAN, 0)
+ *     .map(ArithmeticOp.MULTIPLY, 2)
+ *     .map(ArithmeticOp.MULTIPLY, 3)
+ *     .filter(Comparison.LESS_THAN, 100);
+ * int[] result = pipeline.stream(data, 4096).parallel().toArray();
+ * }</pre>
+ *
+ * <p>Instances are immutable; every builder method returns a new pipeline.
+ */
+public final class IntChunkPipeline {
+  private final List<Stage> stages;
+
+  private IntChunkPipeline(List<Stage> stages) {
+    this.stages = stages;
+  }
+
+  public static IntChunkPipeline create() {
+    return new IntChunkPipeline(List.of());
+  }
+
+  public IntChunkPipeline map(ArithmeticOp op, int operand) {
+    return with((chunk, length) -> {
+      IntKernels.map(op, operand, chunk, chunk, length);
+      return length;
+    });
+  }
+
+  public IntChunkPipeline filter(Comparison cmp, int operand) {
+    return with((chunk, length) -> IntKernels.filter(cmp, operand, chunk, chunk, length));
+  }
+
+  private IntChunkPipeline with(Stage stage) {
+    List<Stage> next = new ArrayList<>(stages);
+    next.add(stage);
+    return new IntChunkPipeline(List.copyOf(next));
+  }
+
+  /**
+   * Runs all stages over {@code chunk[0, length)} in place.
+   *
+   * @return number of elements left at the front of {@code chunk}
+   */
+  public int applyInPlace(int[] chunk, int length) {
+    int remaining = length;
+    for (Stage stage : stages) {
+      if (remaining == 0) {
+        break;
+      }
+      remaining = stage.apply(chunk, remaining);
+    }
+    return remaining;
+  }
+
+  /**
+   * Processes a copy of {@code chunk} and returns only the surviving elements.
+   */
+  public int[] apply(int[] chunk) {
+    int[] copy = chunk.clone();
+    int remaining = applyInPlace(copy, copy.length);
+    return remaining == copy.length ? copy : Arrays.copyOf(copy, remaining);
+  }
+
+  /**
+   * Stateless gatherer for streams whose elements are already chunks. Chunks that end up empty
+   * are dropped.
+   */
+  public Gatherer<int[], ?, int[]> toGatherer() {
+    return Gatherer.of((Void _, int[] chunk, Gatherer.Downstream<? super int[]> downstream) -> {
+      int[] result = apply(chunk);
+      return result.length == 0 || downstream.push(result);
+    });
+  }
+
+  /**
+   * Streams {@code data} through the pipeline in chunks of {@code chunkSize}. The returned
+   * stream is sequential; call {@code parallel()} to process chunks on several threads.
+   */
+  public IntStream stream(int[] data, int chunkSize) {
+    if (chunkSize < 1) {
+      throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+    }
+    int chunks = (data.length + chunkSize - 1) / chunkSize;
+    return IntStream.range(0, chunks)
+        .mapToObj(c -> {
+          int from = c * chunkSize;
+          int[] chunk = Arrays.copyOfRange(data, from, Math.min(from + chunkSize, data.length));
+          return Arrays.stream(chunk, 0, applyInPlace(chunk, chunk.length));
+        })
+        .flatMapToInt(s -> s);
+  }
+
+  @FunctionalInterface
+  private interface Stage {
+    int apply(int[] chunk, int length);
+  }
+}
@@ -0,0 +1,107 @@
+package org.example.simd;
+
+import java.util.Objects;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Bulk map/filter kernels over {@code long[]} chunks using the Vector API.
+ *
+ * <p>The main loop processes {@link #lanes()} elements per iteration; the remainder that does
+ * not fill a whole vector falls back to the scalar loop. Source and destination may be the same
+ * array, so chunks can be processed in place.
+ */
+public class LongKernels {
+  private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+
+  private LongKernels() {
+    // Utility class, prevent instantiation
+  }
+
+  /**
+   * Number of long lanes processed per vector operation on this machine.
+   */
+  public static int lanes() {
+    return SPECIES.length();
+  }
+
+  /**
+   * {@code dst[i] = src[i] op operand} for {@code i < length}.
+   */
+  public static void map(ArithmeticOp op, long operand, long[] src, long[] dst, int length) {
+    checkBounds(src, dst, length);
+    int i = 0;
+    int upperBound = SPECIES.loopBound(length);
+    for (; i < upperBound; i += SPECIES.length()) {
+      LongVector.fromArray(SPECIES, src, i)
+          .lanewise(op.vectorOp(), operand)
+          .intoArray(dst, i);
+    }
+    scalarMap(op, operand, src, dst, i, length);
+  }
+
+  /**
+   * Copies the elements of {@code src[0, length)} matching {@code cmp operand} to the front of
+   * {@code dst}, keeping their order. Uses mask-based compaction, so no branch per element.
+   *
+   * @return number of elements kept
+   */
+  public static int filter(Comparison cmp, long operand, long[] src, long[] dst, int length) {
+    checkBounds(src, dst, length);
+    int kept = 0;
+    int i = 0;
+    int upperBound = SPECIES.loopBound(length);
+    for (; i < upperBound; i += SPECIES.length()) {
+      LongVector v = LongVector.fromArray(SPECIES, src, i);
+      VectorMask<Long> matches = v.compare(cmp.vectorOp(), operand);
+      int count = matches.trueCount();
+      if (count > 0) {
+        v.compress(matches).intoArray(dst, kept, SPECIES.indexInRange(0, count));
+        kept += count;
+      }
+    }
+    return scalarFilter(cmp, operand, src, dst, i, length, kept);
+  }
+
+  /**
+   * Scalar reference of {@link #map}.
+   */
+  public static void scalarMap(ArithmeticOp op, long operand, long[] src, long[] dst,
+                               int length) {
+    checkBounds(src, dst, length);
+    scalarMap(op, operand, src, dst, 0, length);
+  }
+
+  /**
+   * Scalar reference of {@link #filter}.
+   */
+  public static int scalarFilter(Comparison cmp, long operand, long[] src, long[] dst,
+                                 int length) {
+    checkBounds(src, dst, length);
+    return scalarFilter(cmp, operand, src, dst, 0, length, 0);
+  }
+
+  private static void scalarMap(ArithmeticOp op, long operand, long[] src, long[] dst,
+                                int from, int to) {
+    for (int i = from; i < to; i++) {
+      dst[i] = op.applyAsLong(src[i], operand);
+    }
+  }
+
+  private static int scalarFilter(Comparison cmp, long operand, long[] src, long[] dst,
+                                  int from, int to, int kept) {
+    for (int i = from; i < to; i++) {
+      long value = src[i];
+      if (cmp.test(value, operand)) {
+        dst[kept++] = value;
+      }
+    }
+    return kept;
+  }
+
+  private static void checkBounds(long[] src, long[] dst, int length) {
+    Objects.checkFromToIndex(0, length, src.length);
+    Objects.checkFromToIndex(0, length, dst.length);
+  }
+}
@@ -0,0 +1,239 @@
+package org.example.trace;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+import java.util.stream.Gatherer;
+
+/**
+ * Records begin/end events of pipeline stages per thread and exports them as Chrome/Perfetto
+ * trace JSON (open in {@code chrome://tracing} or ui.perfetto.dev).
+ *
+ * <p>Each thread writes into its own preallocated arrays, so recording takes no lock and builds
+ * no strings: a stage is an int id from {@link #stage(String)} and an event is a timestamp, a
+ * stage id and a phase. When a thread's buffer is full further events of that thread are
+ * dropped and counted.
+ *
+ * <p>Export reads the buffers without synchronization: call it after the traced pipeline has
+ * completed, e.g. after its terminal operation returned.
+ */
+public class TraceRecorder {
+  private static final byte BEGIN = 'B';
+  private static final byte END = 'E';
+
+  private final int eventsPerThread;
+  private final long originNanos = System.nanoTime();
+  private final Map<String, Integer> stageIds = new ConcurrentHashMap<>();
+  private final List<String> stageNames = new CopyOnWriteArrayList<>();
+  private final Queue<ThreadBuffer> buffers = new ConcurrentLinkedQueue<>();
+  private final ThreadLocal<ThreadBuffer> localBuffer = ThreadLocal.withInitial(this::newBuffer);
+  private final LongAdder dropped = new LongAdder();
+
+  public TraceRecorder(int eventsPerThread) {
+    if (eventsPerThread < 2) {
+      throw new IllegalArgumentException("eventsPerThread must be at least 2: " + eventsPerThread);
+    }
+    this.eventsPerThread = eventsPerThread;
+  }
+
+  /**
+   * Registers a stage name once, outside the hot path, and returns its id.
+   */
+  public int stage(String name) {
+    return stageIds.computeIfAbsent(name, n -> {
+      synchronized (stageNames) {
+        stageNames.add(n);
+        return stageNames.size() - 1;
+      }
+    });
+  }
+
+  public void begin(int stageId) {
+    localBuffer.get().record(System.nanoTime(), stageId, BEGIN);
+  }
+
+  public void end(int stageId) {
+    localBuffer.get().record(System.nanoTime(), stageId, END);
+  }
+
+  /**
+   * Events that did not fit into their thread's buffer.
+   */
+  public long droppedEvents() {
+    return dropped.sum();
+  }
+
+  public int recordedEvents() {
+    return buffers.stream().mapToInt(b -> b.size).sum();
+  }
+
+  /**
+   * Wraps every phase of {@code gatherer} in begin/end events named
+   * {@code name.initializer}, {@code name.integrator}, {@code name.combiner} and
+   * {@code name.finisher}. Default (absent) phases stay absent, so a sequential gatherer stays
+   * sequential.
+   */
+  public <T, A, R> Gatherer<T, A, R> traced(String name, Gatherer<T, A, R> gatherer) {
+    final int initializerId = stage(name + ".initializer");
+    final int integratorId = stage(name + ".integrator");
+    final int combinerId = stage(name + ".combiner");
+    final int finisherId = stage(name + ".finisher");
+
+    Supplier<A> initializer = gatherer.initializer();
+    if (initializer != Gatherer.<A>defaultInitializer()) {
+      final Supplier<A> inner = initializer;
+      initializer = () -> {
+        begin(initializerId);
+        try {
+          return inner.get();
+        } finally {
+          end(initializerId);
+        }
+      };
+    }
+
+    final Gatherer.Integrator<A, T, R> innerIntegrator = gatherer.integrator();
+    Gatherer.Integrator<A, T, R> integrator = (state, element, downstream) -> {
+      begin(integratorId);
+      try {
+        return innerIntegrator.integrate(state, element, downstream);
+      } finally {
+        end(integratorId);
+      }
+    };
+    if (innerIntegrator instanceof Gatherer.Integrator.Greedy) {
+      final Gatherer.Integrator<A, T, R> timed = integrator;
+      integrator = Gatherer.Integrator.<A, T, R>ofGreedy(timed::integrate);
+    }
+
+    BinaryOperator<A> combiner = gatherer.combiner();
+    if (combiner != Gatherer.<A>defaultCombiner()) {
+      final BinaryOperator<A> inner = combiner;
+      combiner = (left, right) -> {
+        begin(combinerId);
+        try {
+          return inner.apply(left, right);
+        } finally {
+          end(combinerId);
+        }
+      };
+    }
+
+    BiConsumer<A, Gatherer.Downstream<? super R>> finisher = gatherer.finisher();
+    if (finisher != Gatherer.<A, R>defaultFinisher()) {
+      final BiConsumer<A, Gatherer.Downstream<? super R>> inner = finisher;
+      finisher = (state, downstream) -> {
+        begin(finisherId);
+        try {
+          inner.accept(state, downstream);
+        } finally {
+          end(finisherId);
+        }
+      };
+    }
+    return Gatherer.of(initializer, integrator, combiner, finisher);
+  }
+
+  public String toChromeTraceJson() {
+    StringBuilder json = new StringBuilder();
+    writeChromeTrace(json);
+    return json.toString();
+  }
+
+  /**
+   * Writes all recorded events in the Chrome trace event format, one track per thread.
+   */
+  public void writeChromeTrace(Appendable out) {
+    try {
+      out.append("{\"displayTimeUnit\":\"ns\",\"traceEvents\":[");
+      boolean first = true;
+      for (ThreadBuffer buffer : buffers) {
+        first = appendSeparator(out, first);
+        out.append("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":")
+            .append(Long.toString(buffer.threadId))
+            .append(",\"args\":{\"name\":\"").append(escape(buffer.threadName)).append("\"}}");
+        for (int i = 0; i < buffer.size; i++) {
+          first = appendSeparator(out, first);
+          long nanos = buffer.timestamps[i] - originNanos;
+          out.append("{\"name\":\"").append(escape(stageNames.get(buffer.stages[i])))
+              .append("\",\"ph\":\"").append((char) buffer.phases[i])
+              .append("\",\"ts\":").append(Long.toString(nanos / 1_000))
+              .append('.').append(String.format("%03d", nanos % 1_000))
+              .append(",\"pid\":1,\"tid\":").append(Long.toString(buffer.threadId))
+              .append('}');
+        }
+      }
+      out.append("]}");
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static boolean appendSeparator(Appendable out, boolean first) throws IOException {
+    if (!first) {
+      out.append(',');
+    }
+    return false;
+  }
+
+  private static String escape(String value) {
+    return value.replace("\\", "\\\\").replace("\"", "\\\"");
+  }
+
+  private ThreadBuffer newBuffer() {
+    ThreadBuffer buffer = new ThreadBuffer(Thread.currentThread(), eventsPerThread);
+    buffers.add(buffer);
+    return buffer;
+  }
+
+  private final class ThreadBuffer {
+    private final long threadId;
+    private final String threadName;
+    private final long[] timestamps;
+    private final int[] stages;
+    private final byte[] phases;
+    private int size;
+    private int openSpans;
+    private int droppedOpenSpans;
+
+    ThreadBuffer(Thread thread, int capacity) {
+      this.threadId = thread.threadId();
+      this.threadName = thread.getName();
+      this.timestamps = new long[capacity];
+      this.stages = new int[capacity];
+      this.phases = new byte[capacity];
+    }
+
+    void record(long nanos, int stageId, byte phase) {
+      if (phase == BEGIN) {
+        // keep room for this span's END and the ENDs of all open spans, so the trace stays
+        // balanced; once a BEGIN is dropped every nested BEGIN is dropped as well
+        if (size + 2 + openSpans > timestamps.length) {
+          droppedOpenSpans++;
+          dropped.increment();
+          return;
+        }
+        openSpans++;
+      } else if (droppedOpenSpans > 0) {
+        droppedOpenSpans--;
+        dropped.increment();
+        return;
+      } else {
+        openSpans--;
+      }
+      timestamps[size] = nanos;
+      stages[size] = stageId;
+      phases[size] = phase;
+      size++;
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package org.example.util;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Reads how many heap bytes threads have allocated, via the HotSpot
+ * {@link com.sun.management.ThreadMXBean} extension.
+ */
+public class AllocationMeter {
+  private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN =
+      (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  private AllocationMeter() {
+    // Utility class, prevent instantiation
+  }
+
+  public static boolean isSupported() {
+    return THREAD_MX_BEAN.isThreadAllocatedMemorySupported()
+        && THREAD_MX_BEAN.isThreadAllocatedMemoryEnabled();
+  }
+
+  /**
+   * Total bytes allocated by the current thread so far; only differences are meaningful.
+   */
+  public static long currentThreadAllocatedBytes() {
+    return THREAD_MX_BEAN.getCurrentThreadAllocatedBytes();
+  }
+
+  /**
+   * Total bytes allocated by all live and terminated threads, or -1 if unsupported.
+   */
+  public static long totalAllocatedBytes() {
+    return isSupported() ? THREAD_MX_BEAN.getTotalThreadAllocatedBytes() : -1;
+  }
+
+  /**
+   * Bytes allocated by the current thread while running {@code action}.
+   */
+  public static long allocatedBytes(Runnable action) {
+    long before = currentThreadAllocatedBytes();
+    action.run();
+    return currentThreadAllocatedBytes() - before;
+  }
+}
@@ -1,10 +1,13 @@
 package org.example.util;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.ZoneId;
-import java.time.ZonedDateTime;
+import java.time.ZoneOffset;
 
 public class Utils {
+  private static final long SECONDS_PER_DAY = 86_400;
+
   private Utils() {
     // Utility class, prevent instantiation
   }
@@ -12,36 +15,77 @@ public class Utils {
   /**
    * Returns current timestamp in format: dd-mm-yyyy hh:mm:SS:mmm:nnnnnn
    *
+   * <p>Fields are computed from the epoch second and the zone offset and written digit by digit,
+   * so a call allocates the {@code Instant}, the default zone lookup and the result string, but
+   * no formatter, boxes or date-time objects.
+   *
    * @return formatted current datetime string
    */
   public static String getCurrentFormattedTime() {
     // Get current time with nanosecond precision
     final Instant now = Instant.now();
+    return formatTime(now, ZoneId.systemDefault().getRules().getOffset(now));
+  }
 
-    // Convert to ZonedDateTime (using system default timezone)
-    final ZonedDateTime dateTime = now.atZone(ZoneId.systemDefault());
-
-    // Extract components
-    int day = dateTime.getDayOfMonth();
-    int month = dateTime.getMonthValue();
-    int year = dateTime.getYear();
-    int hour = dateTime.getHour();
-    int minute = dateTime.getMinute();
-    int second = dateTime.getSecond();
+  /**
+   * Formats {@code now} at {@code offset} as {@link #getCurrentFormattedTime()} does, for years
+   * 0 to 9999.
+   *
+   * @return formatted datetime string
+   */
+  public static String formatTime(Instant now, ZoneOffset offset) {
+    // Local seconds since the epoch at the given offset
+    final long localSeconds = now.getEpochSecond() + offset.getTotalSeconds();
+    final long epochDay = Math.floorDiv(localSeconds, SECONDS_PER_DAY);
+    final int secondOfDay = (int) Math.floorMod(localSeconds, SECONDS_PER_DAY);
 
-    // Extract nanoseconds within the second (0 to 999,999,999)
-    int totalNanosInSecond = dateTime.getNano();
+    // Civil date from days since 1970-01-01 (proleptic Gregorian, eras of 400 years)
+    final long shifted = epochDay + 719_468;
+    final long era = Math.floorDiv(shifted, 146_097);
+    final int dayOfEra = (int) (shifted - era * 146_097);
+    final int yearOfEra = (dayOfEra - dayOfEra / 1_460 + dayOfEra / 36_524 - dayOfEra / 146_096)
+        / 365;
+    final int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+    final int monthIndex = (5 * dayOfYear + 2) / 153;
+    int day = dayOfYear - (153 * monthIndex + 2) / 5 + 1;
+    int month = monthIndex < 10 ? monthIndex + 3 : monthIndex - 9;
+    int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
 
-    // Split into milliseconds (3 digits) and remaining nanoseconds (6 digits)
+    // Split nanoseconds into milliseconds (3 digits) and remaining nanoseconds (6 digits)
+    int totalNanosInSecond = now.getNano();
     int milliseconds = totalNanosInSecond / 1_000_000;
     int remainingNanos = totalNanosInSecond % 1_000_000;
 
-    // Format as: dd mm yyyy hh:mm:SS:mmm:nnnnnn
-    return String.format("%02d-%02d-%04d %02d:%02d:%02d:%03d:%06d",
-        day, month, year, hour, minute, second, milliseconds, remainingNanos);
+    // Format as: dd-mm-yyyy hh:mm:SS:mmm:nnnnnn
+    byte[] out = new byte[30];
+    digits(out, 0, day, 2);
+    out[2] = '-';
+    digits(out, 3, month, 2);
+    out[5] = '-';
+    digits(out, 6, year, 4);
+    out[10] = ' ';
+    digits(out, 11, secondOfDay / 3_600, 2);
+    out[13] = ':';
+    digits(out, 14, secondOfDay / 60 % 60, 2);
+    out[16] = ':';
+    digits(out, 17, secondOfDay % 60, 2);
+    out[19] = ':';
+    digits(out, 20, milliseconds, 3);
+    out[23] = ':';
+    digits(out, 24, remainingNanos, 6);
+    return new String(out, StandardCharsets.ISO_8859_1);
   }
 
   public static String constructMessage(String message) {
     return getCurrentFormattedTime() + ":" + Thread.currentThread().getName() + ":" + message;
   }
+
+  // Zero-padded decimal; years outside 0-9999 are truncated to their last four digits
+  private static void digits(byte[] out, int offset, int value, int width) {
+    int v = Math.abs(value);
+    for (int i = offset + width - 1; i >= offset; i--) {
+      out[i] = (byte) ('0' + v % 10);
+      v /= 10;
+    }
+  }
 }
@@ -0,0 +1,72 @@
+package org.example.util;
+
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+
+/**
+ * Generates keys in {@code [0, items)} following a Zipfian distribution: key 0 is the most
+ * popular, key 1 the second most popular and so on. Uses the Gray et al. method (as in YCSB),
+ * so each key costs O(1) after an O(items) setup.
+ *
+ * <p>Not thread-safe; use one generator per thread.
+ */
+public class ZipfianGenerator {
+  /** Skew used by YCSB, a common stand-in for real-world key popularity. */
+  public static final double DEFAULT_THETA = 0.99;
+
+  private final long items;
+  private final double theta;
+  private final double zetaN;
+  private final double alpha;
+  private final double eta;
+  private final SplittableRandom random;
+
+  public ZipfianGenerator(long items, long seed) {
+    this(items, DEFAULT_THETA, seed);
+  }
+
+  /**
+   * @param theta skew in (0, 1); larger values concentrate more requests on the top keys
+   */
+  public ZipfianGenerator(long items, double theta, long seed) {
+    if (items < 1) {
+      throw new IllegalArgumentException("items must be positive: " + items);
+    }
+    if (theta <= 0 || theta >= 1) {
+      throw new IllegalArgumentException("theta must be in (0, 1): " + theta);
+    }
+    this.items = items;
+    this.theta = theta;
+    this.zetaN = zeta(items, theta);
+    this.alpha = 1.0 / (1.0 - theta);
+    this.eta = (1 - Math.pow(2.0 / items, 1 - theta)) / (1 - zeta(2, theta) / zetaN);
+    this.random = new SplittableRandom(seed);
+  }
+
+  private static double zeta(long n, double theta) {
+    double sum = 0;
+    for (long i = 1; i <= n; i++) {
+      sum += 1 / Math.pow(i, theta);
+    }
+    return sum;
+  }
+
+  public long next() {
+    double u = random.nextDouble();
+    double uz = u * zetaN;
+    if (uz < 1.0) {
+      return 0;
+    }
+    if (uz < 1.0 + Math.pow(0.5, theta)) {
+      return Math.min(1, items - 1);
+    }
+    return Math.min(items - 1, (long) (items * Math.pow(eta * u - eta + 1, alpha)));
+  }
+
+  /**
+   * The next {@code count} keys as a sequential stream.
+   */
+  public LongStream stream(long count) {
+    return LongStream.generate(this::next).limit(count);
+  }
+}
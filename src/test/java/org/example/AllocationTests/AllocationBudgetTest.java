@@ -0,0 +1,327 @@
+package org.example.AllocationTests;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Gatherer;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import jdk.jfr.Description;
+import org.example.cache.TinyLfuCache;
+import org.example.checkpoint.CheckpointCodec;
+import org.example.checkpoint.CheckpointStore;
+import org.example.checkpoint.CheckpointedGatherer;
+import org.example.columnar.PackedIntColumn;
+import org.example.columnar.PackedLongColumn;
+import org.example.concurrent.ConcurrentIntLongMap;
+import org.example.concurrent.StripedAggregators;
+import org.example.gatherers.ChecksumGatherers;
+import org.example.gatherers.CompressionGatherers;
+import org.example.gatherers.ElementCodec;
+import org.example.gatherers.ExternalSortGatherer;
+import org.example.gatherers.JoinGatherers;
+import org.example.gatherers.JoinMode;
+import org.example.gatherers.MemoizingMapGatherer;
+import org.example.gatherers.PooledGatherers;
+import org.example.gatherers.RecordCodec;
+import org.example.gatherers.SamplingGatherers;
+import org.example.gatherers.ShortCircuitGatherers;
+import org.example.gatherers.SpillBuffer;
+import org.example.gatherers.SpillingGatherer;
+import org.example.gatherers.StatePool;
+import org.example.metrics.LatencyHistogram;
+import org.example.metrics.MetricsRegistry;
+import org.example.pipeline.FusedPipeline;
+import org.example.simd.ArithmeticOp;
+import org.example.simd.IntChunkPipeline;
+import org.example.simd.IntKernels;
+import org.example.trace.TraceRecorder;
+import org.example.util.AllocationMeter;
+import org.example.util.Utils;
+import org.example.util.ZipfianGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Bytes allocated per element by each component's hot path, measured on the current thread
+ * after warm-up. Budgets sit just above what the component inherently allocates (boxes and
+ * records it emits, amortized buffer growth); a change that starts boxing, copying or
+ * allocating per element pushes it over.
+ */
+class AllocationBudgetTest {
+  static final int ELEMENTS = 100_000;
+  static final int WARMUP_ROUNDS = 20;
+  static final int MEASURED_ROUNDS = 5;
+  // values stay in the Integer cache, so emitting them does not box
+  static final List<Integer> smallInts = IntStream.range(0, ELEMENTS).map(i -> i % 100).boxed()
+      .toList();
+  static final List<Integer> zeros = IntStream.range(0, ELEMENTS).map(_ -> 0).boxed().toList();
+  static final List<Integer> ascending = IntStream.range(0, ELEMENTS).boxed().toList();
+
+  record Row(String name, int index) {
+  }
+
+  /**
+   * Fewest bytes per element over several measured rounds, after warm-up rounds.
+   */
+  static double bytesPerElement(long elements, Runnable action) {
+    assertTrue(AllocationMeter.isSupported());
+    for (int i = 0; i < WARMUP_ROUNDS; i++) {
+      action.run();
+    }
+    long best = Long.MAX_VALUE;
+    for (int i = 0; i < MEASURED_ROUNDS; i++) {
+      best = Math.min(best, AllocationMeter.allocatedBytes(action));
+    }
+    return (double) best / elements;
+  }
+
+  static void assertBudget(String component, double budget, long elements, Runnable action) {
+    double measured = bytesPerElement(elements, action);
+    System.out.printf("%-36s %10.3f bytes/element (budget %s)%n", component, measured, budget);
+    assertTrue(measured <= budget,
+        component + " allocates " + measured + " bytes per element, budget " + budget);
+  }
+
+  /**
+   * Drives the gatherer directly into a discarding downstream, so only the gatherer's own
+   * allocations are measured and not the stream machinery around it.
+   */
+  static <T> Runnable drain(List<T> input, Gatherer<? super T, ?, ?> gatherer) {
+    return () -> drive(input, gatherer);
+  }
+
+  static <T, A, R> void drive(List<T> input, Gatherer<? super T, A, R> gatherer) {
+    Gatherer.Downstream<R> discard = _ -> true;
+    A state = gatherer.initializer().get();
+    var integrator = gatherer.integrator();
+    for (int i = 0; i < input.size(); i++) {
+      if (!integrator.integrate(state, input.get(i), discard)) {
+        break;
+      }
+    }
+    gatherer.finisher().accept(state, discard);
+  }
+
+  @Test
+  @Description("Utils formats timestamps without a Formatter or boxing")
+  void utils() {
+    assertBudget("Utils.getCurrentFormattedTime", 256, ELEMENTS / 10, () -> {
+      for (int i = 0; i < ELEMENTS / 10; i++) {
+        Utils.getCurrentFormattedTime();
+      }
+    });
+    assertBudget("Utils.constructMessage", 384, ELEMENTS / 10, () -> {
+      for (int i = 0; i < ELEMENTS / 10; i++) {
+        Utils.constructMessage("m");
+      }
+    });
+    var time = Utils.getCurrentFormattedTime();
+    assertTrue(time.matches("\\d{2}-\\d{2}-\\d{4} \\d{2}:\\d{2}:\\d{2}:\\d{3}:\\d{6}"), time);
+  }
+
+  @Test
+  @Description("Gatherers only allocate what they emit or buffer")
+  void gatherers() {
+    assertBudget("ShortCircuitGatherers.withTrailer", 1, ELEMENTS,
+        drain(smallInts, ShortCircuitGatherers.withTrailer(-1)));
+    // ArrayList growth of the buffered elements
+    assertBudget("ShortCircuitGatherers.reversed", 24, ELEMENTS,
+        drain(smallInts, ShortCircuitGatherers.reversed()));
+    // one immutable list per window; List.copyOf copies the window array twice
+    assertBudget("ShortCircuitGatherers.windowFixed", 12, ELEMENTS,
+        drain(smallInts, ShortCircuitGatherers.windowFixed(100)));
+    // ArrayList growth of the buffered totals
+    assertBudget("ShortCircuitGatherers.runningTotal", 24, ELEMENTS,
+        drain(zeros, ShortCircuitGatherers.runningTotal()));
+    assertBudget("PooledGatherers.runningTotal", 1, ELEMENTS,
+        drain(zeros, PooledGatherers.runningTotal(StatePool.intBuffers(16, 1 << 20))));
+    // LinkedHashSet re-links one entry per access to reorder the segment
+    assertBudget("MemoizingMapGatherer (hits)", 48, ELEMENTS,
+        drain(smallInts, MemoizingMapGatherer.of(Integer::toHexString,
+            new TinyLfuCache<>(1_024))));
+    var dimension = IntStream.range(0, 100).boxed().toList();
+    // one Joined record per output
+    assertBudget("JoinGatherers.hashJoin", 32, ELEMENTS,
+        drain(smallInts, JoinGatherers.hashJoin(dimension, (Integer k) -> k, (Integer k) -> k,
+            JoinMode.INNER)));
+    assertBudget("JoinGatherers.mergeJoin", 32, ELEMENTS,
+        drain(ascending, JoinGatherers.mergeJoin(ascending, (Integer k) -> k, (Integer k) -> k,
+            Comparator.<Integer>naturalOrder(), JoinMode.INNER)));
+    assertBudget("SamplingGatherers.reservoir", 1, ELEMENTS,
+        drain(smallInts, SamplingGatherers.reservoir(100, 1L)));
+    assertBudget("ChecksumGatherers.unorderedHash64", 1, ELEMENTS,
+        drain(smallInts, ChecksumGatherers.unorderedHash64(Integer::longValue)));
+    // list growth and the merge sort's scratch array
+    assertBudget("ExternalSortGatherer (in memory)", 40, ELEMENTS,
+        drain(smallInts, ExternalSortGatherer.of(Comparator.<Integer>naturalOrder(),
+            ElementCodec.ints(), ELEMENTS)));
+    assertBudget("StripedAggregators.countingBy", 1, ELEMENTS,
+        () -> smallInts.stream().collect(StripedAggregators.countingBy((Integer k) -> k)));
+    assertBudget("PipelineMetrics.counted", 1, ELEMENTS,
+        drain(smallInts, new MetricsRegistry().pipeline("p").counted()));
+    assertBudget("PipelineMetrics.timed", 1, ELEMENTS,
+        drain(smallInts, new MetricsRegistry().pipeline("p").timed("s",
+            Gatherer.<Integer, Integer>of((_, element, downstream) -> downstream.push(element)))));
+    assertBudget("FusedPipeline map/filter", 1, ELEMENTS,
+        drain(smallInts, FusedPipeline.<Integer>start()
+            .map(x -> x + 1)
+            .filter(x -> x % 2 == 0)
+            .map(x -> x - 1)
+            .toGatherer()));
+  }
+
+  @Test
+  @Description("Byte-oriented gatherers allocate per chunk or block, not per byte")
+  void byteGatherers() {
+    var chunks = IntStream.range(0, 100).mapToObj(i -> new byte[1_000]).toList();
+    assertBudget("ChecksumGatherers.crc32c", 0.1, 100_000, drain(chunks,
+        ChecksumGatherers.crc32c()));
+    var intChunks = IntStream.range(0, 100).mapToObj(i -> new int[250]).toList();
+    assertBudget("ChecksumGatherers.crc32cOfInts", 0.1, 100_000, drain(intChunks,
+        ChecksumGatherers.crc32cOfInts()));
+    var longChunks = IntStream.range(0, 100).mapToObj(i -> new long[125]).toList();
+    assertBudget("ChecksumGatherers.crc32cOfLongs", 0.1, 100_000, drain(longChunks,
+        ChecksumGatherers.crc32cOfLongs()));
+    // compressed output plus the per-block input copy
+    assertBudget("CompressionGatherers.gzip", 4, 100_000, drain(chunks,
+        CompressionGatherers.gzip(16 * 1_024, 1, Runnable::run)));
+    assertBudget("CompressionGatherers.deflate", 4, 100_000, drain(chunks,
+        CompressionGatherers.deflate((byte[] chunk) -> chunk, 16 * 1_024, 1, Runnable::run)));
+    // apply() hands out a copy of every chunk; 4 bytes per int plus the array header. No
+    // stages: the vector kernels only stop boxing once C2 has intrinsified them
+    var values = IntStream.range(0, 100).mapToObj(i -> IntStream.range(0, 1_000).toArray())
+        .toList();
+    assertBudget("IntChunkPipeline.toGatherer", 5, 100_000, drain(values,
+        IntChunkPipeline.create().toGatherer()));
+  }
+
+  @Test
+  @Description("Collections, codecs and counters are allocation-free per operation")
+  void utilities() {
+    var zipfian = new ZipfianGenerator(1_000, 1L);
+    assertBudget("ZipfianGenerator.next", 0.5, ELEMENTS, () -> {
+      for (int i = 0; i < ELEMENTS; i++) {
+        zipfian.next();
+      }
+    });
+    var map = new ConcurrentIntLongMap();
+    assertBudget("ConcurrentIntLongMap.increment", 0.5, ELEMENTS, () -> {
+      for (int i = 0; i < ELEMENTS; i++) {
+        map.increment(i & 1_023);
+      }
+    });
+    var histogram = new LatencyHistogram();
+    assertBudget("LatencyHistogram.record", 0.5, ELEMENTS, () -> {
+      for (int i = 0; i < ELEMENTS; i++) {
+        histogram.record(i);
+      }
+    });
+    var recorder = new TraceRecorder(1 << 21);
+    int stage = recorder.stage("s");
+    assertBudget("TraceRecorder.begin/end", 0.5, ELEMENTS / 100, () -> {
+      for (int i = 0; i < ELEMENTS / 100; i++) {
+        recorder.begin(stage);
+        recorder.end(stage);
+      }
+    });
+    var column = PackedIntColumn.encode(IntStream.range(0, ELEMENTS).toArray());
+    assertBudget("PackedIntColumn.get", 0.5, ELEMENTS, () -> {
+      for (int i = 0; i < ELEMENTS; i++) {
+        column.get(i);
+      }
+    });
+    // one decoded block array per 128 values
+    assertBudget("PackedIntColumn.stream", 8, ELEMENTS, () -> column.stream().sum());
+    var longColumn = PackedLongColumn.encode(LongStream.range(0, ELEMENTS).toArray());
+    assertBudget("PackedLongColumn.get", 0.5, ELEMENTS, () -> {
+      for (int i = 0; i < ELEMENTS; i++) {
+        longColumn.get(i);
+      }
+    });
+    // one decoded block array per 128 values
+    assertBudget("PackedLongColumn.stream", 16, ELEMENTS, () -> longColumn.stream().sum());
+    int[] src = IntStream.range(0, ELEMENTS).toArray();
+    int[] dst = new int[ELEMENTS];
+    assertBudget("IntKernels.scalarMap", 0.5, ELEMENTS,
+        () -> IntKernels.scalarMap(ArithmeticOp.ADD, 1, src, dst, ELEMENTS));
+  }
+
+  @Test
+  @Description("Record encoding and spilling write into existing buffers")
+  void codecs() {
+    var codec = RecordCodec.of(Row.class);
+    var rows = IntStream.range(0, ELEMENTS / 10).mapToObj(i -> new Row("row", i)).toList();
+    var buffer = ByteBuffer.allocateDirect(ELEMENTS * 16);
+    assertBudget("RecordCodec.encode", 0.5, rows.size(), () -> {
+      buffer.clear();
+      for (var row : rows) {
+        codec.encode(row, buffer);
+      }
+    });
+    // the record, its string and the string's bytes
+    assertBudget("RecordCodec.decode", 128, rows.size(), () -> {
+      buffer.flip();
+      for (int i = 0; i < rows.size(); i++) {
+        codec.decode(buffer);
+      }
+    });
+    var segment = MemorySegment.ofBuffer(buffer.duplicate().clear());
+    assertBudget("RecordCodec.encode (segment)", 0.5, rows.size(), () -> {
+      long offset = 0;
+      for (var row : rows) {
+        offset += codec.encode(row, segment, offset);
+      }
+    });
+    assertBudget("RecordCodec.decode (segment)", 128, rows.size(), () -> {
+      long offset = 0;
+      for (int i = 0; i < rows.size(); i++) {
+        codec.decode(segment, offset);
+        offset = codec.end(segment, offset);
+      }
+    });
+    // one 4 KiB ByteBuffer per batch of 256 records
+    assertBudget("RecordCodec.encoder", 20, rows.size(),
+        drain(rows, codec.encoder(256, 4 * 1_024)));
+    buffer.flip();
+    var batches = List.of(buffer);
+    assertBudget("RecordCodec.decoder", 128, rows.size(), drain(batches, codec.decoder()));
+    try (var spill = new SpillBuffer<>(0, ElementCodec.ints(), null, 1 << 20)) {
+      assertBudget("SpillBuffer.add (spilling)", 0.5, ELEMENTS, () -> {
+        spill.close();
+        smallInts.forEach(spill::add);
+      });
+    }
+    // the buffer, its file and mapping are per run; spilling and replay are not per element
+    assertBudget("SpillingGatherer (spilling)", 1, ELEMENTS,
+        drain(smallInts, SpillingGatherer.<Integer, Integer, Integer>ofSequential(0,
+            ElementCodec.ints(),
+            (state, element, _) -> {
+              state.add(element);
+              return true;
+            },
+            (state, downstream) -> state.forEach(downstream::push))));
+  }
+
+  @Test
+  @Description("Checkpoints allocate their encoded segments, not per element")
+  void checkpoints(@TempDir Path dir) {
+    Path file = dir.resolve("budget.ckpt");
+    // ArrayList growth of the state, plus the stream buffer and copy of every segment and
+    // compaction
+    assertBudget("CheckpointedGatherer", 56, ELEMENTS, () -> {
+      try (var store = new CheckpointStore<>(file, CheckpointCodec.appendOnlyIntList())) {
+        drive(zeros, CheckpointedGatherer.<Integer, List<Integer>, Integer>of(store,
+            (state, element, _) -> state.add(element),
+            (_, _) -> {
+            },
+            10_000));
+        store.delete();
+      }
+    });
+  }
+}
@@ -0,0 +1,142 @@
+package org.example.CacheTests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import jdk.jfr.Description;
+import org.example.cache.CacheStats;
+import org.example.cache.TinyLfuCache;
+import org.example.util.ZipfianGenerator;
+import org.junit.jupiter.api.Test;
+
+class TinyLfuCacheTest {
+  static final int KEYS = 10_000;
+  static final int CAPACITY = 200;
+  static final int REQUESTS = 200_000;
+
+  static long[] zipfianTrace() {
+    return new ZipfianGenerator(KEYS, 42).stream(REQUESTS).toArray();
+  }
+
+  @Test
+  @Description("Hit rate and throughput on a Zipfian trace against LRU LinkedHashMap and an "
+      + "unbounded ConcurrentHashMap")
+  void zipfianHitRateBeatsLru() {
+    long[] trace = zipfianTrace();
+
+    var tinyLfu = new TinyLfuCache<Long, Long>(CAPACITY);
+    long start = System.nanoTime();
+    for (long key : trace) {
+      tinyLfu.get(key, Function.identity());
+    }
+    long tinyLfuNanos = System.nanoTime() - start;
+
+    Map<Long, Long> lru = new LinkedHashMap<>(CAPACITY, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+        return size() > CAPACITY;
+      }
+    };
+    long lruHits = 0;
+    start = System.nanoTime();
+    for (long key : trace) {
+      if (lru.get(key) != null) {
+        lruHits++;
+      } else {
+        lru.put(key, key);
+      }
+    }
+    long lruNanos = System.nanoTime() - start;
+
+    Map<Long, Long> unbounded = new ConcurrentHashMap<>();
+    long unboundedHits = 0;
+    start = System.nanoTime();
+    for (long key : trace) {
+      if (unbounded.putIfAbsent(key, key) != null) {
+        unboundedHits++;
+      }
+    }
+    long unboundedNanos = System.nanoTime() - start;
+
+    double tinyLfuHitRate = tinyLfu.stats().hitRate();
+    double lruHitRate = (double) lruHits / REQUESTS;
+    System.out.printf("W-TinyLFU hit rate %.3f in %d ms%n",
+        tinyLfuHitRate, tinyLfuNanos / 1_000_000);
+    System.out.printf("LRU       hit rate %.3f in %d ms%n", lruHitRate, lruNanos / 1_000_000);
+    System.out.printf("Unbounded hit rate %.3f in %d ms (size %d)%n",
+        (double) unboundedHits / REQUESTS, unboundedNanos / 1_000_000, unbounded.size());
+
+    assertTrue(tinyLfuHitRate > lruHitRate,
+        () -> "W-TinyLFU " + tinyLfuHitRate + " should beat LRU " + lruHitRate);
+    assertTrue(tinyLfu.size() <= CAPACITY);
+    assertEquals(REQUESTS, tinyLfu.stats().requests());
+  }
+
+  @Test
+  @Description("Size never exceeds the bound and evictions are counted")
+  void boundedSize() {
+    var cache = new TinyLfuCache<Integer, String>(10);
+    for (int i = 0; i < 1_000; i++) {
+      assertEquals("v" + i, cache.get(i, k -> "v" + k));
+    }
+    CacheStats stats = cache.stats();
+    assertTrue(cache.size() <= 10);
+    assertEquals(1_000, stats.misses());
+    assertEquals(1_000 - cache.size(), stats.evictions());
+  }
+
+  @Test
+  @Description("Frequently used keys survive a scan of one-off keys")
+  void scanResistance() {
+    var cache = new TinyLfuCache<Integer, Integer>(100);
+    for (int round = 0; round < 20; round++) {
+      for (int hot = 0; hot < 50; hot++) {
+        cache.get(hot, Function.identity());
+      }
+    }
+    for (int cold = 1_000; cold < 11_000; cold++) {
+      cache.get(cold, Function.identity());
+    }
+    long hotHits = 0;
+    for (int hot = 0; hot < 50; hot++) {
+      if (cache.getIfPresent(hot) != null) {
+        hotHits++;
+      }
+    }
+    assertTrue(hotHits >= 45, () -> "hot keys evicted by scan: " + cache.stats());
+  }
+
+  @Test
+  @Description("Entries expire after write")
+  void expireAfterWrite() {
+    AtomicLong now = new AtomicLong();
+    var cache = new TinyLfuCache<String, Integer>(10, Duration.ofSeconds(5), now::get);
+    cache.get("a", _ -> 1);
+    assertEquals(1, cache.getIfPresent("a"));
+
+    now.addAndGet(Duration.ofSeconds(5).toNanos());
+    assertNull(cache.getIfPresent("a"));
+    assertEquals(2, cache.get("a", _ -> 2));
+    assertEquals(1, cache.stats().expirations());
+    assertEquals(1, cache.stats().hits());
+  }
+
+  @Test
+  @Description("Invalid arguments")
+  void invalidArguments() {
+    assertThrows(IllegalArgumentException.class, () -> new TinyLfuCache<String, String>(0));
+    var cache = new TinyLfuCache<String, String>(1);
+    assertThrows(NullPointerException.class, () -> cache.get("x", _ -> null));
+    assertEquals(1.0, new CacheStats(0, 0, 0, 0).hitRate(), 0.0);
+    assertThrows(IllegalArgumentException.class, () -> new ZipfianGenerator(0, 1));
+    assertThrows(IllegalArgumentException.class, () -> new ZipfianGenerator(10, 1.0, 1));
+  }
+}
@@ -0,0 +1,94 @@
+package org.example.CollectionsTests;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+import jdk.jfr.Description;
+import org.example.columnar.PackedIntColumn;
+import org.example.columnar.PackedLongColumn;
+import org.junit.jupiter.api.Test;
+
+class PackedColumnTest {
+  static int[] smallDeltas(int size) {
+    Random random = new Random(3);
+    int[] values = new int[size];
+    for (int i = 1; i < size; i++) {
+      values[i] = values[i - 1] + random.nextInt(8);
+    }
+    return values;
+  }
+
+  @Test
+  @Description("Int values round-trip for block-edge sizes and extreme values")
+  void intRoundTrip() {
+    for (int size : new int[] {0, 1, 2, 127, 128, 129, 1_000}) {
+      int[] values = new Random(size).ints(size).toArray();
+      if (size > 2) {
+        values[1] = Integer.MIN_VALUE;
+        values[2] = Integer.MAX_VALUE;
+      }
+      PackedIntColumn column = PackedIntColumn.encode(values);
+      assertEquals(size, column.size());
+      assertArrayEquals(values, column.toArray(), "size " + size);
+      for (int i = 0; i < size; i += 7) {
+        assertEquals(values[i], column.get(i));
+      }
+    }
+  }
+
+  @Test
+  @Description("Long values round-trip, including deltas that overflow")
+  void longRoundTrip() {
+    long[] values = new Random(5).longs(1_000).toArray();
+    values[10] = Long.MIN_VALUE;
+    values[11] = Long.MAX_VALUE;
+    values[12] = Long.MIN_VALUE;
+    PackedLongColumn column = PackedLongColumn.encode(values);
+    assertArrayEquals(values, column.toArray());
+    assertEquals(Long.MAX_VALUE, column.get(11));
+    assertEquals(Arrays.stream(values).sum(), column.stream().parallel().sum());
+    assertThrows(IndexOutOfBoundsException.class, () -> column.get(1_000));
+  }
+
+  @Test
+  @Description("Small deltas compress far below int[] and List<Integer>")
+  void compressionRatio() {
+    int size = 1_000_000;
+    int[] values = smallDeltas(size);
+    PackedIntColumn column = PackedIntColumn.encode(values);
+    long rawBytes = 4L * size;
+    // an Integer object (16 bytes) plus a compressed reference (4 bytes) per element
+    long listBytes = 20L * size;
+    System.out.println("int[]=" + rawBytes + " List<Integer>~" + listBytes
+        + " packed=" + column.sizeInBytes());
+    assertTrue(column.sizeInBytes() * 5 < rawBytes);
+    assertTrue(column.sizeInBytes() * 10 < listBytes);
+
+    PackedIntColumn stride = PackedIntColumn.encode(IntStream.range(0, size).toArray());
+    // constant stride needs no bits per value, only the per-block header
+    assertTrue(stride.sizeInBytes() < size / 5);
+  }
+
+  @Test
+  @Description("Parallel scan splits on block boundaries and keeps encounter order")
+  void parallelScan() {
+    int[] values = smallDeltas(100_003);
+    PackedIntColumn column = PackedIntColumn.encode(values);
+    assertEquals(Arrays.stream(values).asLongStream().sum(),
+        column.stream().parallel().asLongStream().sum());
+    assertArrayEquals(values, column.stream().parallel().toArray());
+    assertEquals(values.length, column.stream().spliterator().estimateSize());
+
+    var spliterator = column.stream().spliterator();
+    var prefix = spliterator.trySplit();
+    assertEquals(values.length, prefix.estimateSize() + spliterator.estimateSize());
+    assertEquals(0, prefix.estimateSize() % 128);
+    int firstOfSuffix = values[(int) prefix.estimateSize()];
+    assertTrue(spliterator.tryAdvance((int v) -> assertEquals(firstOfSuffix, v)));
+  }
+}
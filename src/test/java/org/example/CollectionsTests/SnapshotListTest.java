@@ -0,0 +1,153 @@
+package org.example.CollectionsTests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import jdk.jfr.Description;
+import org.example.concurrent.SnapshotList;
+import org.junit.jupiter.api.Test;
+
+class SnapshotListTest {
+
+  @Test
+  @Description("Unlike an unmodifiable view, a pinned snapshot does not see later mutations")
+  void pinnedSnapshotIsStable() {
+    var list = new SnapshotList<>(List.of("cat", "ball", "apple"));
+    var pinned = list.snapshot();
+    var iterator = list.iterator();
+
+    list.add("zebra");
+    list.remove("cat");
+
+    assertEquals(List.of("cat", "ball", "apple"), pinned);
+    assertEquals(List.of("ball", "apple", "zebra"), list);
+    assertEquals("cat", iterator.next());
+    assertEquals(0, pinned.version());
+    assertEquals(2, list.version());
+    assertThrows(UnsupportedOperationException.class, () -> pinned.add("new element"));
+    assertThrows(UnsupportedOperationException.class, () -> list.subList(0, 1).clear());
+  }
+
+  @Test
+  @Description("A batch publishes all its changes as one version, or none if it fails")
+  void batchesPublishAtomically() {
+    var list = new SnapshotList<Integer>();
+    var published = list.update(batch -> {
+      for (int i = 0; i < 100; i++) {
+        batch.add(i);
+      }
+      batch.removeIf(i -> i % 2 == 1);
+      batch.set(0, -1);
+      batch.add(0, -2);
+    });
+
+    assertEquals(1, published.version());
+    assertSame(published, list.snapshot());
+    assertEquals(51, list.size());
+    assertEquals(List.of(-2, -1, 2, 4), list.subList(0, 4));
+
+    assertThrows(IllegalStateException.class, () -> list.update(batch -> {
+      batch.clear();
+      throw new IllegalStateException("abort");
+    }));
+    assertSame(published, list.snapshot());
+
+    assertSame(published, list.update(batch -> batch.removeIf(i -> i > 1_000)));
+    assertFalse(list.remove((Object) 1_000));
+    assertEquals(1, list.version());
+
+    var escaped = new AtomicReference<SnapshotList.Batch<Integer>>();
+    list.update(escaped::set);
+    assertThrows(IllegalStateException.class, () -> escaped.get().add(1));
+  }
+
+  @Test
+  @Description("Mutators behave like ArrayList, one version each, bulk ones included")
+  void behavesLikeArrayList() {
+    var list = new SnapshotList<String>();
+    var expected = new ArrayList<String>();
+    for (var change : List.<Consumer<List<String>>>of(
+        l -> l.add("a"),
+        l -> l.add("b"),
+        l -> l.add(0, null),
+        l -> l.set(1, "c"),
+        l -> l.addAll(List.of("d", "e", "f")),
+        l -> l.remove(2),
+        l -> l.removeIf(s -> "e".equals(s)),
+        l -> l.addAll(1, List.of("g", "h")),
+        l -> l.replaceAll(s -> s == null ? "z" : s + s),
+        l -> l.sort(null),
+        l -> l.removeAll(List.of("dd", "hh", "x")),
+        l -> l.retainAll(List.of("cc", "gg", "z", "y")),
+        // changes nothing, so publishes no version
+        l -> l.removeAll(List.of("x")))) {
+      change.accept(list);
+      change.accept(expected);
+      assertEquals(expected, list);
+    }
+    assertEquals(expected.hashCode(), list.hashCode());
+    assertEquals(expected.toString(), list.toString());
+    assertEquals(expected.indexOf("d"), list.indexOf("d"));
+    assertEquals(List.of("cc", "gg", "z"), list);
+    assertEquals(12, list.version());
+    list.clear();
+    assertTrue(list.isEmpty());
+  }
+
+  @Test
+  @Description("Readers never observe a half-applied batch while writers publish")
+  void readersSeeWholeBatches() throws Exception {
+    var list = new SnapshotList<Integer>();
+    var done = new AtomicBoolean();
+    try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+      List<Future<?>> readers = new ArrayList<>();
+      for (int r = 0; r < 3; r++) {
+        readers.add(executor.submit(() -> {
+          while (!done.get()) {
+            var snapshot = list.snapshot();
+            // every batch appends a pair summing to zero
+            assertEquals(0, snapshot.size() % 2);
+            assertEquals(0, snapshot.stream().parallel().mapToInt(Integer::intValue).sum());
+          }
+        }));
+      }
+      for (int i = 1; i <= 2_000; i++) {
+        int value = i;
+        list.update(batch -> {
+          batch.add(value);
+          batch.add(-value);
+        });
+      }
+      done.set(true);
+      for (Future<?> reader : readers) {
+        reader.get();
+      }
+    }
+    assertEquals(4_000, list.size());
+    assertEquals(2_000, list.version());
+  }
+
+  @Test
+  @Description("A parallel stream over a pinned snapshot matches the sequential one")
+  void parallelStreamOverPinnedSnapshot() {
+    var list = new SnapshotList<>(IntStream.range(0, 10_000).boxed().toList());
+    var pinned = list.snapshot();
+    list.clear();
+
+    assertEquals(pinned.stream().toList(), pinned.stream().parallel().toList());
+    assertEquals(49_995_000L, pinned.parallelStream().mapToLong(Integer::longValue).sum());
+    assertEquals(0, list.stream().count());
+  }
+}
@@ -0,0 +1,74 @@
+package org.example.ConcurrentTests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import jdk.jfr.Description;
+import org.example.concurrent.ConcurrentIntLongMap;
+import org.junit.jupiter.api.Test;
+
+class ConcurrentIntLongMapTest {
+  static final int[] keys = {0, 1, -1, 42, Integer.MIN_VALUE, Integer.MAX_VALUE, 1 << 20};
+
+  @Test
+  @Description("Behaves like a HashMap<Integer, Long> of sums, across resizes")
+  void matchesHashMap() {
+    var map = new ConcurrentIntLongMap(1);
+    var expected = new HashMap<Integer, Long>();
+    for (int i = 0; i < 50_000; i++) {
+      int key = keys[i % keys.length] + (i % 5_000) * 31;
+      map.add(key, i);
+      expected.merge(key, (long) i, Long::sum);
+    }
+    map.increment(-7);
+    expected.merge(-7, 1L, Long::sum);
+
+    assertEquals(expected, map.toMap());
+    assertEquals(expected.size(), map.size());
+    assertEquals(expected.values().stream().mapToLong(Long::longValue).sum(), map.sum());
+    expected.forEach((k, v) -> assertEquals(v, map.get(k)));
+    assertTrue(map.containsKey(-7));
+    assertFalse(map.containsKey(-8));
+    assertEquals(0L, map.get(-8));
+  }
+
+  @Test
+  @Description("Concurrent inserts and updates of the same keys lose nothing")
+  void concurrentUpdates() throws Exception {
+    int threads = 16;
+    int keyCount = 20_000;
+    int rounds = 5;
+    var map = new ConcurrentIntLongMap();
+    var start = new CountDownLatch(1);
+    List<Future<?>> futures = new ArrayList<>();
+    try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+      for (int t = 0; t < threads; t++) {
+        int offset = t * 7_919;
+        futures.add(executor.submit(() -> {
+          start.await();
+          for (int round = 0; round < rounds; round++) {
+            for (int i = 0; i < keyCount; i++) {
+              map.increment((i + offset) % keyCount);
+            }
+          }
+          return null;
+        }));
+      }
+      start.countDown();
+      for (var future : futures) {
+        future.get();
+      }
+    }
+    assertEquals(keyCount, map.size());
+    assertEquals((long) threads * rounds * keyCount, map.sum());
+    map.forEach((key, value) -> assertEquals((long) threads * rounds, value, "key " + key));
+  }
+}
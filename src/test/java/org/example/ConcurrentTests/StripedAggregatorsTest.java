@@ -0,0 +1,69 @@
+package org.example.ConcurrentTests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import jdk.jfr.Description;
+import org.example.concurrent.ConcurrentIntLongMap;
+import org.example.concurrent.StripedAggregators;
+import org.junit.jupiter.api.Test;
+
+class StripedAggregatorsTest {
+  static final List<Integer> inputList = IntStream.range(0, 100_000).boxed().toList();
+
+  @Test
+  @Description("Collectors declare CONCURRENT and UNORDERED so collect shares one container")
+  void concurrentCharacteristics() {
+    for (var collector : List.of(StripedAggregators.<Integer>counting(),
+        StripedAggregators.<Integer>countingBy(i -> i % 10))) {
+      assertTrue(collector.characteristics().contains(Collector.Characteristics.CONCURRENT));
+      assertTrue(collector.characteristics().contains(Collector.Characteristics.UNORDERED));
+    }
+  }
+
+  @Test
+  @Description("Totals match on unordered parallel, ordered parallel and sequential streams")
+  void totals() {
+    long sum = inputList.stream().mapToLong(Integer::longValue).sum();
+    assertEquals(100_000L, inputList.parallelStream().unordered()
+        .collect(StripedAggregators.counting()));
+    assertEquals(sum, inputList.parallelStream().unordered()
+        .collect(StripedAggregators.summingLong(Integer::longValue)));
+    assertEquals(sum, inputList.parallelStream()
+        .collect(StripedAggregators.summingLong(Integer::longValue)));
+    assertEquals(sum, inputList.stream()
+        .collect(StripedAggregators.summingLong(Integer::longValue)));
+  }
+
+  @Test
+  @Description("Per-key histogram equals groupingBy counting")
+  void histogram() {
+    Map<Integer, Long> expected = inputList.stream()
+        .collect(Collectors.groupingBy(i -> i % 97, Collectors.counting()));
+    assertEquals(expected, inputList.parallelStream().unordered()
+        .collect(StripedAggregators.countingBy(i -> i % 97)).toMap());
+    assertEquals(expected, inputList.parallelStream()
+        .collect(StripedAggregators.countingBy(i -> i % 97)).toMap());
+
+    Map<Integer, Long> sums = inputList.stream()
+        .collect(Collectors.groupingBy(i -> i % 13, Collectors.summingLong(i -> i)));
+    assertEquals(sums, inputList.parallelStream().unordered()
+        .collect(StripedAggregators.summingLongBy(i -> i % 13, i -> i)).toMap());
+  }
+
+  @Test
+  @Description("Tallying gatherer passes elements through and fills the shared map")
+  void tallyingGatherer() {
+    var tally = new ConcurrentIntLongMap();
+    var result = inputList.parallelStream()
+        .gather(StripedAggregators.tallying(tally, i -> i % 2, _ -> 1L))
+        .toList();
+    assertEquals(inputList, result);
+    assertEquals(Map.of(0, 50_000L, 1, 50_000L), tally.toMap());
+  }
+}
@@ -0,0 +1,128 @@
+package org.example.DriverTests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import jdk.jfr.Description;
+import org.example.driver.DriverOptions;
+import org.example.driver.InputGenerator;
+import org.example.driver.LoadDriver;
+import org.example.driver.LoadReport;
+import org.example.driver.Workload;
+import org.junit.jupiter.api.Test;
+
+class LoadDriverTest {
+  static final List<Integer> inputList = InputGenerator.UNIFORM.generate(5_000, 4_096, 1L);
+
+  @Test
+  @Description("Options parse on top of the defaults")
+  void parsesOptions() {
+    var options = DriverOptions.parse("--pipeline", "fold,hash-join", "--generator", "zipfian",
+        "--size", "1000", "--key-space", "64", "--parallelism", "3", "--warmup", "250ms",
+        "--duration", "PT2S", "--seed", "7", "--metrics-port", "0");
+    assertEquals(List.of(Workload.FOLD, Workload.HASH_JOIN), options.pipelines());
+    assertEquals(InputGenerator.ZIPFIAN, options.generator());
+    assertEquals(1_000, options.size());
+    assertEquals(64, options.keySpace());
+    assertEquals(3, options.parallelism());
+    assertEquals(Duration.ofMillis(250), options.warmup());
+    assertEquals(Duration.ofSeconds(2), options.duration());
+    assertEquals(7L, options.seed());
+    assertEquals(0, options.metricsPort());
+
+    var defaults = DriverOptions.parse("--duration", "1m", "--pipeline", "all");
+    assertEquals(List.of(Workload.values()), defaults.pipelines());
+    assertEquals(Duration.ofMinutes(1), defaults.duration());
+    assertEquals(Duration.ofSeconds(1), defaults.warmup());
+    assertTrue(DriverOptions.usage().contains("external-sort"));
+  }
+
+  @Test
+  @Description("Malformed command lines are rejected")
+  void rejectsBadOptions() {
+    assertThrows(IllegalArgumentException.class, () -> DriverOptions.parse("--size"));
+    assertThrows(IllegalArgumentException.class, () -> DriverOptions.parse("--speed", "1"));
+    assertThrows(IllegalArgumentException.class, () -> DriverOptions.parse("--size", "x"));
+    assertThrows(IllegalArgumentException.class, () -> DriverOptions.parse("--size", "0"));
+    assertThrows(IllegalArgumentException.class, () -> DriverOptions.parse("--pipeline", "nope"));
+    assertThrows(IllegalArgumentException.class,
+        () -> DriverOptions.parse("--generator", "gaussian"));
+    assertThrows(IllegalArgumentException.class, () -> DriverOptions.parse("--duration", "5h"));
+    // ISO-8601 values fail with DateTimeParseException, reported like the other bad values
+    var badIso = assertThrows(IllegalArgumentException.class,
+        () -> DriverOptions.parse("--duration", "P5"));
+    assertEquals("Bad value for --duration: P5", badIso.getMessage());
+  }
+
+  @Test
+  @Description("Generators are seeded, in range, sorted or skewed as named")
+  void generators() {
+    for (var generator : InputGenerator.values()) {
+      var keys = generator.generate(10_000, 1_000, 3L);
+      assertEquals(keys, generator.generate(10_000, 1_000, 3L));
+      assertTrue(keys.stream().allMatch(k -> k >= 0 && k < 1_000), generator.name());
+    }
+    var sorted = InputGenerator.SORTED.generate(10_000, 1_000, 3L);
+    assertEquals(sorted.stream().sorted().toList(), sorted);
+
+    Map<Integer, Long> uniform = InputGenerator.UNIFORM.generate(100_000, 1_000, 3L).stream()
+        .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+    Map<Integer, Long> zipfian = InputGenerator.ZIPFIAN.generate(100_000, 1_000, 3L).stream()
+        .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+    // the hottest Zipfian key takes well over 10% of requests, uniform keys about 0.1%
+    assertTrue(zipfian.get(0) > 10_000, "zipfian top key " + zipfian.get(0));
+    assertTrue(uniform.values().stream().allMatch(c -> c < 200));
+  }
+
+  @Test
+  @Description("Every pipeline produces the expected number of results")
+  void workloadResults() {
+    assertEquals(1L, Workload.FOLD.run(inputList.stream()));
+    assertEquals(79L, Workload.WINDOW_FIXED.run(inputList.stream()));
+    assertEquals(4_993L, Workload.WINDOW_SLIDING.run(inputList.stream()));
+    assertEquals(5_000L, Workload.RUNNING_TOTAL.run(inputList.parallelStream()));
+    assertEquals(5_000L, Workload.MEMOIZED_MAP.run(inputList.parallelStream()));
+    assertEquals(inputList.stream().filter(k -> (k & 2_047) < 1_024).count(),
+        Workload.HASH_JOIN.run(inputList.parallelStream()));
+    assertEquals(100L, Workload.RESERVOIR.run(inputList.parallelStream()));
+    assertEquals(5_000L, Workload.EXTERNAL_SORT.run(inputList.stream()));
+    assertEquals(inputList.stream().map(k -> k & 1_023).distinct().count(),
+        Workload.TALLY.run(inputList.parallelStream()));
+  }
+
+  @Test
+  @Description("Short sequential and parallel runs report throughput, latency and allocation")
+  void reportsRuns() {
+    for (int parallelism : new int[] {1, 2}) {
+      var options = new DriverOptions(List.of(Workload.RUNNING_TOTAL, Workload.TALLY),
+          InputGenerator.ZIPFIAN, 2_000, 1_024, parallelism, Duration.ofMillis(20),
+          Duration.ofMillis(50), 1L, -1);
+      var out = new ByteArrayOutputStream();
+      List<LoadReport> reports;
+      try (var driver = new LoadDriver(options)) {
+        reports = driver.runAll(new PrintStream(out, true, StandardCharsets.UTF_8));
+      }
+      assertEquals(2, reports.size());
+      for (var report : reports) {
+        assertTrue(report.batches() > 0);
+        assertEquals(report.batches() * 2_000, report.elements());
+        assertTrue(report.p50Nanos() > 0 && report.p50Nanos() <= report.p99Nanos());
+        assertTrue(report.elementsPerSecond() > 0);
+        assertTrue(report.allocationRate() > 0);
+      }
+      var lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+      assertEquals(3, lines.size());
+      assertTrue(lines.get(0).startsWith("pipeline"));
+      assertTrue(lines.get(1).startsWith("running-total    zipfian"), lines.get(1));
+    }
+  }
+}
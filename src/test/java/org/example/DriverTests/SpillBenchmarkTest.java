@@ -0,0 +1,29 @@
+package org.example.DriverTests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jdk.jfr.Description;
+import org.example.driver.SpillBenchmark;
+import org.junit.jupiter.api.Test;
+
+class SpillBenchmarkTest {
+  @Test
+  @Description("The benchmark replays every element and spills all but the heap budget")
+  void spillsBeyondBudget() {
+    var result = SpillBenchmark.run(200_000);
+    assertEquals(200_000, result.elements());
+    // 4,096 elements stay on the heap, the rest take a 4-byte length and an 8-byte long each
+    assertEquals(12L * (200_000 - 4_096), result.spilledBytes());
+    assertTrue(result.format().startsWith("spill: 200000 elements"), result.format());
+  }
+
+  @Test
+  @Description("Element counts are sized to spill a multiple of the maximum heap")
+  void sizedByHeap() {
+    long heap = Runtime.getRuntime().maxMemory();
+    assertEquals(10 * heap / 12, SpillBenchmark.elementsFor(10));
+    assertThrows(IllegalArgumentException.class, () -> SpillBenchmark.elementsFor(0));
+  }
+}
@@ -0,0 +1,83 @@
+package org.example.DriverTests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import jdk.jfr.Description;
+import org.example.driver.AotTraining;
+import org.example.driver.InputGenerator;
+import org.example.driver.StartupBenchmark;
+import org.example.driver.Workload;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class StartupBenchmarkTest {
+  @Test
+  @Description("Training drives every pipeline with every generator, sequential and parallel")
+  void trainingCoversAllPipelines() {
+    assertEquals(Workload.values().length * InputGenerator.values().length * 2,
+        AotTraining.train());
+  }
+
+  @Test
+  @Description("The startup probe prints its result line")
+  void firstResultLine() {
+    var out = new ByteArrayOutputStream();
+    long result = AotTraining.firstResult(new PrintStream(out, true, StandardCharsets.UTF_8));
+    assertEquals(10_000L, result);
+    assertEquals("first-result 10000", out.toString(StandardCharsets.UTF_8).strip());
+  }
+
+  @Test
+  @Description("Child JVM command lines carry the options, AOT flags and Main")
+  void childCommand() {
+    var benchmark = new StartupBenchmark(Path.of("/jdk/bin/java"), "classes",
+        List.of("--add-modules", "jdk.incubator.vector"));
+    assertEquals(List.of("/jdk/bin/java", "--add-modules", "jdk.incubator.vector",
+            "-XX:AOTCache=app.aot", "-cp", "classes", "org.example.Main", "--first-result"),
+        benchmark.command(List.of("-XX:AOTCache=app.aot"), "--first-result"));
+    assertThrows(IllegalArgumentException.class, () -> benchmark.measure(null, 0));
+  }
+
+  @Test
+  @Description("Only module and preview flags of the parent JVM reach the children")
+  void forwardsOnlyModuleFlags() {
+    var command = StartupBenchmark.forCurrentJvm().command(List.of(), "--first-result");
+    assertTrue(command.stream().noneMatch(option -> option.startsWith("-agentlib")
+        || option.startsWith("-agentpath") || option.startsWith("-javaagent")), command::toString);
+    assertFalse(new StartupBenchmark(Path.of("java"), "classes" + File.pathSeparator + "app.jar",
+        List.of()).aotApplicable());
+  }
+
+  @Test
+  @Tag("slow")
+  @Description("Time to first result of a fresh JVM, and with a trained AOT cache on JDK 25+")
+  void measuresFreshJvms(@TempDir Path dir) throws IOException {
+    var benchmark = StartupBenchmark.forCurrentJvm();
+    var cold = benchmark.measure(null, 1);
+    assertEquals(1, cold.runs());
+    assertTrue(cold.firstResultMillis() > 0 && cold.firstResultMillis() <= cold.wallMillis());
+
+    Path cache = dir.resolve("app.aot");
+    // needs JDK 25+ and a class path of JARs, e.g. not target/classes
+    if (!benchmark.aotApplicable()) {
+      assertThrows(UnsupportedOperationException.class, () -> benchmark.train(cache));
+      return;
+    }
+    benchmark.train(cache);
+    assertTrue(Files.size(cache) > 0);
+    var warm = benchmark.measure(cache, 1);
+    assertTrue(warm.firstResultMillis() > 0 && warm.firstResultMillis() <= warm.wallMillis());
+  }
+}
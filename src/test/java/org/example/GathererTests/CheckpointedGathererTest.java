@@ -0,0 +1,149 @@
+package org.example.GathererTests;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Gatherer;
+import java.util.stream.IntStream;
+import jdk.jfr.Description;
+import org.example.checkpoint.CheckpointCodec;
+import org.example.checkpoint.CheckpointStore;
+import org.example.checkpoint.CheckpointedGatherer;
+import org.example.gatherers.ShortCircuitGatherers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CheckpointedGathererTest {
+  static final List<Integer> inputList = IntStream.rangeClosed(1, 1_000).boxed().toList();
+
+  static final Gatherer.Integrator<List<Integer>, Integer, Integer> runningTotalIntegrator =
+      (state, x, downstream) -> {
+        state.add(x + (state.isEmpty() ? 0 : state.getLast()));
+        return true;
+      };
+
+  static Gatherer<Integer, ?, Integer> runningTotal(CheckpointStore<List<Integer>> store) {
+    return CheckpointedGatherer.of(store, runningTotalIntegrator,
+        (List<Integer> state, Gatherer.Downstream<? super Integer> downstream) ->
+            state.forEach(downstream::push),
+        100);
+  }
+
+  @Test
+  @Description("A crashed run resumes from the last checkpoint and ends with the same output")
+  void resumeAfterCrash() throws IOException {
+    var expected = inputList.stream().gather(ShortCircuitGatherers.runningTotal()).toList();
+    Path file = Files.createTempFile("checkpoint", ".bin");
+    Files.delete(file);
+
+    try (var store = new CheckpointStore<>(file, CheckpointCodec.appendOnlyIntList())) {
+      assertThrows(IllegalStateException.class, () -> inputList.stream()
+          .peek(x -> {
+            if (x == 550) {
+              throw new IllegalStateException("simulated crash");
+            }
+          })
+          .gather(runningTotal(store))
+          .toList());
+      store.flush();
+    }
+
+    try (var store = new CheckpointStore<>(file, CheckpointCodec.appendOnlyIntList())) {
+      var recovered = store.recover();
+      assertEquals(500, recovered.offset());
+      assertEquals(expected.subList(0, 500), recovered.state());
+
+      var resumed = inputList.stream()
+          .skip(recovered.offset())
+          .gather(runningTotal(store))
+          .toList();
+      assertEquals(expected, resumed);
+      assertEquals(1_000, store.recover().offset());
+      store.delete();
+    }
+  }
+
+  @Test
+  @Description("A torn trailing segment is ignored and truncated")
+  void tornSegmentIgnored() throws IOException {
+    Path file = Files.createTempFile("checkpoint", ".bin");
+    Files.delete(file);
+    try (var store = new CheckpointStore<>(file, CheckpointCodec.intArray(1))) {
+      var counter = CheckpointedGatherer.of(store,
+          (int[] state, Integer x, Gatherer.Downstream<? super Integer> downstream) -> {
+            state[0]++;
+            return true;
+          },
+          (int[] state, Gatherer.Downstream<? super Integer> downstream) ->
+              downstream.push(state[0]),
+          10);
+      assertEquals(List.of(25), IntStream.range(0, 25).boxed().gather(counter).toList());
+    }
+    long intact = Files.size(file);
+    Files.write(file, new byte[] {0, 0, 0, 0, 0, 0, 0, 99, 0, 0}, StandardOpenOption.APPEND);
+
+    try (var store = new CheckpointStore<>(file, CheckpointCodec.intArray(1))) {
+      var recovered = store.recover();
+      assertEquals(25, recovered.offset());
+      assertArrayEquals(new int[] {25}, recovered.state());
+      assertEquals(intact, Files.size(file));
+      store.delete();
+    }
+    assertThrows(IllegalArgumentException.class,
+        () -> CheckpointedGatherer.of(null, runningTotalIntegrator, (s, d) -> { }, 0));
+  }
+
+  @Test
+  @Description("Full-copy segments are compacted, so the log stays near the size of the state")
+  void compactionBoundsLog(@TempDir Path dir) throws IOException {
+    Path file = dir.resolve("checkpoint.bin");
+    int length = 16_384;
+    try (var store = new CheckpointStore<>(file, CheckpointCodec.intArray(length))) {
+      var histogram = CheckpointedGatherer.of(store,
+          (int[] state, Integer x, Gatherer.Downstream<? super Integer> downstream) -> {
+            state[x % length]++;
+            return true;
+          },
+          (int[] state, Gatherer.Downstream<? super Integer> downstream) -> { },
+          10);
+      IntStream.range(0, 500).boxed().gather(histogram).forEach(_ -> { });
+      // 50 full copies of 64 KiB without compaction
+      long segment = length * Integer.BYTES + 16L;
+      assertTrue(Files.size(file) <= (CheckpointedGatherer.COMPACTION_RATIO + 1) * segment,
+          "log size " + Files.size(file));
+      assertEquals(List.of(file), Files.list(dir).toList());
+      assertEquals(store.logBytes(), Files.size(file));
+    }
+
+    try (var store = new CheckpointStore<>(file, CheckpointCodec.intArray(length))) {
+      var recovered = store.recover();
+      assertEquals(500, recovered.offset());
+      assertEquals(500, IntStream.of(recovered.state()).sum());
+      assertEquals(1, recovered.state()[499]);
+    }
+  }
+
+  @Test
+  @Description("A failed write poisons the store instead of leaving a gap in the log")
+  void failedWritePoisonsStore(@TempDir Path dir) {
+    // a directory cannot be opened for appending
+    var store = new CheckpointStore<>(dir, CheckpointCodec.intArray(1));
+    store.append(10, new byte[Integer.BYTES]);
+
+    var thrown = assertThrows(UncheckedIOException.class, store::flush);
+    assertInstanceOf(IOException.class, thrown.getCause());
+    assertThrows(UncheckedIOException.class, () -> store.append(20, new byte[Integer.BYTES]));
+    assertSame(thrown.getCause(),
+        assertThrows(UncheckedIOException.class, store::close).getCause());
+  }
+}
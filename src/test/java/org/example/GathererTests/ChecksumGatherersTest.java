@@ -0,0 +1,121 @@
+package org.example.GathererTests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32C;
+import jdk.jfr.Description;
+import org.example.gatherers.ChecksumGatherers;
+import org.junit.jupiter.api.Test;
+
+class ChecksumGatherersTest {
+  static final List<byte[]> inputList = chunks(new Random(42), 500);
+
+  static List<byte[]> chunks(Random random, int count) {
+    var chunks = new ArrayList<byte[]>();
+    for (int i = 0; i < count; i++) {
+      var chunk = new byte[random.nextInt(3_000)];
+      random.nextBytes(chunk);
+      chunks.add(chunk);
+    }
+    return chunks;
+  }
+
+  static long crc(byte[]... parts) {
+    var crc = new CRC32C();
+    for (byte[] part : parts) {
+      crc.update(part);
+    }
+    return crc.getValue();
+  }
+
+  @Test
+  @Description("Combining two CRCs equals the CRC of the concatenation")
+  void combineMatchesConcatenation() {
+    var random = new Random(1);
+    for (int i = 0; i < 200; i++) {
+      var a = new byte[random.nextInt(100)];
+      var b = new byte[i < 5 ? 0 : random.nextInt(5_000)];
+      random.nextBytes(a);
+      random.nextBytes(b);
+      assertEquals(crc(a, b), ChecksumGatherers.crc32cCombine(crc(a), crc(b), b.length));
+    }
+    assertThrows(IllegalArgumentException.class,
+        () -> ChecksumGatherers.crc32cCombine(0, 0, -1));
+  }
+
+  @Test
+  @Description("Parallel CRC32C equals the sequential one")
+  void parallelMatchesSequential() {
+    long expected = crc(inputList.toArray(byte[][]::new));
+    assertEquals(expected,
+        inputList.stream().gather(ChecksumGatherers.crc32c()).findFirst().orElseThrow());
+    assertEquals(expected,
+        inputList.parallelStream().gather(ChecksumGatherers.crc32c()).findFirst().orElseThrow());
+    assertEquals(0L,
+        List.<byte[]>of().parallelStream().gather(ChecksumGatherers.crc32c()).findFirst()
+            .orElseThrow());
+  }
+
+  @Test
+  @Description("Primitive chunks are checksummed as big-endian bytes")
+  void primitiveChunks() {
+    var random = new Random(7);
+    var ints = IntStream.range(0, 50).mapToObj(_ -> random.ints(random.nextInt(3_000)).toArray())
+        .toList();
+    var intBytes = new CRC32C();
+    ints.forEach(chunk -> {
+      var buffer = ByteBuffer.allocate(chunk.length * Integer.BYTES);
+      buffer.asIntBuffer().put(chunk);
+      intBytes.update(buffer);
+    });
+    assertEquals(intBytes.getValue(),
+        ints.parallelStream().gather(ChecksumGatherers.crc32cOfInts()).findFirst().orElseThrow());
+
+    var longs = IntStream.range(0, 50)
+        .mapToObj(_ -> random.longs(random.nextInt(1_500)).toArray())
+        .toList();
+    var longBytes = new CRC32C();
+    longs.forEach(chunk -> {
+      var buffer = ByteBuffer.allocate(chunk.length * Long.BYTES);
+      buffer.asLongBuffer().put(chunk);
+      longBytes.update(buffer);
+    });
+    assertEquals(longBytes.getValue(),
+        longs.parallelStream().gather(ChecksumGatherers.crc32cOfLongs()).findFirst()
+            .orElseThrow());
+  }
+
+  @Test
+  @Description("The 64-bit multiset hash ignores order and split boundaries")
+  void unorderedHashIgnoresOrder() {
+    long sequential = inputList.stream()
+        .gather(ChecksumGatherers.unorderedHash64()).findFirst().orElseThrow();
+    var shuffled = new ArrayList<>(inputList);
+    Collections.shuffle(shuffled, new Random(3));
+    assertEquals(sequential, shuffled.parallelStream().unordered()
+        .gather(ChecksumGatherers.unorderedHash64()).findFirst().orElseThrow());
+
+    var changed = new ArrayList<>(inputList);
+    changed.set(10, new byte[] {1, 2, 3});
+    assertNotEquals(sequential, changed.stream()
+        .gather(ChecksumGatherers.unorderedHash64()).findFirst().orElseThrow());
+  }
+
+  @Test
+  @Description("hash64 depends on every byte and on the length")
+  void hash64DistinguishesInputs() {
+    assertNotEquals(ChecksumGatherers.hash64(new byte[0]), ChecksumGatherers.hash64(new byte[1]));
+    assertNotEquals(ChecksumGatherers.hash64(new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9}),
+        ChecksumGatherers.hash64(new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 10}));
+    assertNotEquals(ChecksumGatherers.hash64(new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9}),
+        ChecksumGatherers.hash64(new byte[] {0, 2, 3, 4, 5, 6, 7, 8, 9}));
+  }
+}
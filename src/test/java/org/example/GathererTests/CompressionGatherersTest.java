@@ -0,0 +1,187 @@
+package org.example.GathererTests;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import jdk.jfr.Description;
+import org.example.gatherers.CompressionGatherers;
+import org.junit.jupiter.api.Test;
+
+class CompressionGatherersTest {
+  static final byte[] input = sample();
+
+  static byte[] sample() {
+    var random = new Random(40);
+    var out = new ByteArrayOutputStream();
+    for (int i = 0; i < 20_000; i++) {
+      // compressible text mixed with noise
+      out.writeBytes(("line " + i + " value " + random.nextInt(100) + "\n")
+          .getBytes(StandardCharsets.US_ASCII));
+      if (i % 97 == 0) {
+        byte[] noise = new byte[random.nextInt(64)];
+        random.nextBytes(noise);
+        out.writeBytes(noise);
+      }
+    }
+    return out.toByteArray();
+  }
+
+  static List<byte[]> chunks(byte[] data, int seed) {
+    var random = new Random(seed);
+    var chunks = new ArrayList<byte[]>();
+    int offset = 0;
+    while (offset < data.length) {
+      int length = Math.min(data.length - offset, random.nextInt(5_000));
+      var chunk = new byte[length];
+      System.arraycopy(data, offset, chunk, 0, length);
+      chunks.add(chunk);
+      offset += length;
+    }
+    return chunks;
+  }
+
+  static byte[] concat(List<byte[]> chunks) {
+    var out = new ByteArrayOutputStream();
+    chunks.forEach(out::writeBytes);
+    return out.toByteArray();
+  }
+
+  static byte[] readAll(InputStream in) throws IOException {
+    try (in) {
+      return in.readAllBytes();
+    }
+  }
+
+  static byte[] gunzip(byte[] data) throws IOException {
+    return readAll(new GZIPInputStream(new ByteArrayInputStream(data)));
+  }
+
+  @Test
+  @Description("Block-parallel gzip output decodes to the input for any block size")
+  void gzipRoundTrip() throws IOException {
+    for (int blockSize :
+        new int[] {1, 7, 1_000, 64 * 1024, CompressionGatherers.DEFAULT_BLOCK_SIZE}) {
+      // tiny blocks need a Deflater each, so they get a prefix that is still many blocks long
+      byte[] data = blockSize < 1_000 ? Arrays.copyOf(input, 2_000) : input;
+      var compressed = chunks(data, blockSize).stream()
+          .gather(CompressionGatherers.gzip(blockSize, Deflater.DEFAULT_COMPRESSION,
+              ForkJoinPool.commonPool()))
+          .toList();
+      assertArrayEquals(data, gunzip(concat(compressed)), "block size " + blockSize);
+    }
+  }
+
+  @Test
+  @Description("Reused per-thread streams are fully reset between blocks, at every level")
+  void reusedStreamsAreReset() throws IOException {
+    byte[] data = Arrays.copyOf(input, 200_000);
+    for (int level : new int[] {Deflater.BEST_SPEED, Deflater.BEST_COMPRESSION,
+        Deflater.DEFAULT_COMPRESSION, Deflater.BEST_SPEED}) {
+      // on the calling thread, so every block reuses the same stream
+      var first = concat(List.of(data).stream()
+          .gather(CompressionGatherers.gzip(4_096, level, Runnable::run))
+          .toList());
+      var second = concat(List.of(data).stream()
+          .gather(CompressionGatherers.gzip(4_096, level, Runnable::run))
+          .toList());
+      assertArrayEquals(first, second, "level " + level);
+      assertArrayEquals(data, gunzip(first), "level " + level);
+    }
+  }
+
+  @Test
+  @Description("Default gzip compresses and round-trips")
+  void gzipDefaults() throws IOException {
+    var compressed = concat(chunks(input, 1).stream()
+        .gather(CompressionGatherers.gzip())
+        .toList());
+    assertTrue(compressed.length < input.length / 2);
+    assertArrayEquals(input, gunzip(compressed));
+  }
+
+  @Test
+  @Description("Empty input is still a complete gzip member")
+  void emptyInput() throws IOException {
+    var compressed = concat(List.<byte[]>of().stream()
+        .gather(CompressionGatherers.gzip())
+        .toList());
+    // 10-byte header, final empty block, CRC32 and size
+    assertEquals(20, compressed.length);
+    assertArrayEquals(new byte[0], gunzip(compressed));
+  }
+
+  @Test
+  @Description("Raw deflate stream of encoded elements")
+  void deflateEncodedElements() throws IOException {
+    var lines = IntStream.range(0, 10_000).mapToObj(i -> "row-" + i + ";").toList();
+    var compressed = lines.stream()
+        .gather(CompressionGatherers.<String>deflate(
+            s -> s.getBytes(StandardCharsets.UTF_8), 4_096, Deflater.BEST_SPEED,
+            ForkJoinPool.commonPool()))
+        .toList();
+    var decoded = readAll(new InflaterInputStream(
+        new ByteArrayInputStream(concat(compressed)), new Inflater(true)));
+    assertEquals(String.join("", lines), new String(decoded, StandardCharsets.UTF_8));
+  }
+
+  @Test
+  @Description("Blocks reference the previous block through the primed dictionary")
+  void dictionaryPrimedFromPreviousBlock() throws IOException {
+    var pattern = new byte[8 * 1024];
+    new Random(1).nextBytes(pattern);
+    var repeated = new ByteArrayOutputStream();
+    for (int i = 0; i < 16; i++) {
+      repeated.writeBytes(pattern);
+    }
+    byte[] data = repeated.toByteArray();
+    var compressed = concat(List.of(data).stream()
+        .gather(CompressionGatherers.gzip(pattern.length, Deflater.DEFAULT_COMPRESSION,
+            ForkJoinPool.commonPool()))
+        .toList());
+    // independent blocks would each stay ~8 KiB of incompressible noise
+    assertTrue(compressed.length < 2 * pattern.length, "compressed " + compressed.length);
+    assertArrayEquals(data, gunzip(compressed));
+  }
+
+  @Test
+  @Description("A rejecting downstream stops integration and suppresses the trailer")
+  void stopsWhenDownstreamRejects() {
+    var input = chunks(CompressionGatherersTest.input, 2);
+    int[] integrated = {0};
+    var downstream = GathererTestSupport.drive(
+        CompressionGatherers.gzip(16, Deflater.DEFAULT_COMPRESSION, Runnable::run),
+        input, 3, integrated);
+    assertEquals(3, downstream.pushes);
+    assertTrue(integrated[0] < input.size(), "integrated " + integrated[0]);
+
+    var rejectsHeader = GathererTestSupport.drive(CompressionGatherers.gzip(),
+        input, 0, integrated);
+    assertEquals(1, rejectsHeader.pushes);
+  }
+
+  @Test
+  @Description("Invalid block sizes and levels are rejected")
+  void rejectsInvalidArguments() {
+    assertThrows(IllegalArgumentException.class,
+        () -> CompressionGatherers.gzip(0, 6, ForkJoinPool.commonPool()));
+    assertThrows(IllegalArgumentException.class,
+        () -> CompressionGatherers.gzip(1_024, 10, ForkJoinPool.commonPool()));
+  }
+}
@@ -0,0 +1,148 @@
+package org.example.GathererTests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import jdk.jfr.Description;
+import org.example.gatherers.ElementCodec;
+import org.example.gatherers.ExternalSortGatherer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ExternalSortGathererTest {
+  static final List<Integer> inputList = new Random(11).ints(2_000, -5_000, 5_000).boxed().toList();
+
+  static long filesIn(Path dir) throws IOException {
+    try (Stream<Path> files = Files.list(dir)) {
+      return files.count();
+    }
+  }
+
+  @Test
+  @Description("Sorting with any number of spilled runs equals sorted()")
+  void sortsAcrossRuns(@TempDir Path tempDir) throws IOException {
+    var expected = inputList.stream().sorted().toList();
+    // 1 run in memory only, then 2, 3, 7 and many runs on disk
+    for (int budget : new int[] {5_000, 1_000, 700, 300, 17}) {
+      var sequential = inputList.stream()
+          .gather(ExternalSortGatherer.of(Comparator.<Integer>naturalOrder(),
+              ElementCodec.ints(), budget, tempDir))
+          .toList();
+      assertEquals(expected, sequential, "budget " + budget);
+
+      var parallel = inputList.parallelStream()
+          .gather(ExternalSortGatherer.of(Comparator.<Integer>naturalOrder(),
+              ElementCodec.ints(), budget, tempDir))
+          .toList();
+      assertEquals(expected, parallel, "parallel budget " + budget);
+    }
+    assertEquals(0, filesIn(tempDir), "run files must be deleted");
+  }
+
+  @Test
+  @Description("Equal keys keep their encounter order across runs")
+  void mergeIsStable() {
+    var words = List.of("pear", "fig", "apple", "kiwi", "plum", "date", "lime", "banana", "yam");
+    var sorted = words.stream()
+        .gather(ExternalSortGatherer.of(Comparator.comparingInt(String::length),
+            ElementCodec.strings(), 2))
+        .toList();
+    assertEquals(words.stream().sorted(Comparator.comparingInt(String::length)).toList(), sorted);
+  }
+
+  @Test
+  @Description("Merge stops when the downstream rejects and still cleans up")
+  void limitStopsMerge(@TempDir Path tempDir) throws IOException {
+    var firstThree = Stream.iterate(10_000L, x -> x - 1).limit(1_000)
+        .gather(ExternalSortGatherer.of(Comparator.<Long>naturalOrder(),
+            ElementCodec.longs(), 100, tempDir))
+        .limit(3)
+        .toList();
+    assertEquals(List.of(9_001L, 9_002L, 9_003L), firstThree);
+    assertEquals(0, filesIn(tempDir));
+  }
+
+  @Test
+  @Description("More runs than the fan-in are merged in passes, stably and without leftovers")
+  void boundedFanIn(@TempDir Path tempDir) throws IOException {
+    var expected = inputList.stream().sorted().toList();
+    // 2000 / 17 = 118 runs: passes of fan-in 3 down to 1 run plus the buffer
+    for (int fanIn : new int[] {2, 3, 8}) {
+      var sorted = inputList.parallelStream()
+          .gather(ExternalSortGatherer.of(Comparator.<Integer>naturalOrder(),
+              ElementCodec.ints(), 17, tempDir, fanIn))
+          .toList();
+      assertEquals(expected, sorted, "fan-in " + fanIn);
+      assertEquals(0, filesIn(tempDir));
+    }
+    var words = List.of("pear", "fig", "apple", "kiwi", "plum", "date", "lime", "banana", "yam");
+    assertEquals(words.stream().sorted(Comparator.comparingInt(String::length)).toList(),
+        words.stream()
+            .gather(ExternalSortGatherer.of(Comparator.comparingInt(String::length),
+                ElementCodec.strings(), 1, tempDir, 2))
+            .toList());
+  }
+
+  @Test
+  @Description("Combining splits that fit in memory together writes no runs")
+  void smallSplitsStayInMemory() {
+    var writes = new AtomicInteger();
+    var counting = new ElementCodec<Integer>() {
+      @Override
+      public void write(DataOutput out, Integer value) throws IOException {
+        writes.incrementAndGet();
+        out.writeInt(value);
+      }
+
+      @Override
+      public Integer read(DataInput in) throws IOException {
+        return in.readInt();
+      }
+    };
+    var sorted = inputList.parallelStream()
+        .gather(ExternalSortGatherer.of(Comparator.<Integer>naturalOrder(), counting, 5_000))
+        .toList();
+    assertEquals(inputList.stream().sorted().toList(), sorted);
+    assertEquals(0, writes.get());
+  }
+
+  @Test
+  @Description("Runs of a stream that fails before the finisher are deleted once unreachable")
+  void failedStreamCleansUp(@TempDir Path tempDir) throws Exception {
+    assertThrows(IllegalStateException.class, () -> inputList.stream()
+        .map(x -> {
+          if (x == inputList.get(1_500)) {
+            throw new IllegalStateException("source failed");
+          }
+          return x;
+        })
+        .gather(ExternalSortGatherer.of(Comparator.<Integer>naturalOrder(),
+            ElementCodec.ints(), 100, tempDir))
+        .toList());
+    for (int i = 0; i < 100 && filesIn(tempDir) > 0; i++) {
+      System.gc();
+      Thread.sleep(50);
+    }
+    assertEquals(0, filesIn(tempDir));
+  }
+
+  @Test
+  @Description("Budget and fan-in must be in range")
+  void invalidBudget() {
+    assertThrows(IllegalArgumentException.class,
+        () -> ExternalSortGatherer.of(Comparator.<Integer>naturalOrder(), ElementCodec.ints(), 0));
+    assertThrows(IllegalArgumentException.class,
+        () -> ExternalSortGatherer.of(Comparator.<Integer>naturalOrder(), ElementCodec.ints(), 1,
+            null, 1));
+  }
+}
@@ -0,0 +1,197 @@
+package org.example.GathererTests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Gatherer;
+import java.util.stream.IntStream;
+import jdk.jfr.Description;
+import org.example.gatherers.FanOutGatherers;
+import org.example.gatherers.FanOutGatherers.JoinPolicy;
+import org.example.gatherers.FanOutGatherers.Subtask;
+import org.junit.jupiter.api.Test;
+
+class FanOutGatherersTest {
+  static final List<Integer> input = IntStream.range(0, 40).boxed().toList();
+
+  // counts down started, then blocks until interrupted, counting the interruptions
+  static <T> Subtask<T, Integer> hang(AtomicInteger interrupted, CountDownLatch started) {
+    return _ -> {
+      started.countDown();
+      try {
+        Thread.sleep(TimeUnit.MINUTES.toMillis(10));
+      } catch (InterruptedException e) {
+        interrupted.incrementAndGet();
+        throw e;
+      }
+      return -1;
+    };
+  }
+
+  @Test
+  @Description("Subtask results are combined per element and pushed in input order")
+  void combinesInInputOrder() {
+    var running = new AtomicInteger();
+    var maxRunning = new AtomicInteger();
+    Subtask<Integer, Integer> slow = x -> {
+      maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+      try {
+        // later elements finish first
+        Thread.sleep(40 - x);
+      } finally {
+        running.decrementAndGet();
+      }
+      return x;
+    };
+    List<Subtask<Integer, Integer>> subtasks = List.of(slow, x -> x * 10, x -> x * 100);
+
+    var result = input.stream()
+        .gather(FanOutGatherers.fanOut(subtasks, JoinPolicy.failFast(),
+            (Integer x, List<Integer> parts) -> parts.stream().mapToInt(i -> i).sum(), 8))
+        .toList();
+
+    assertEquals(input.stream().map(x -> x * 111).toList(), result);
+    // elements overlap, but never more than the bound
+    assertTrue(maxRunning.get() > 1, "max running " + maxRunning.get());
+    assertTrue(maxRunning.get() <= 8, "max running " + maxRunning.get());
+  }
+
+  @Test
+  @Description("Fail-fast cancels the siblings and fails the stream with the first failure")
+  void failFastCancelsSiblings() {
+    var interrupted = new AtomicInteger();
+    var started = new CountDownLatch(4);
+    List<Subtask<Integer, Integer>> subtasks = List.of(hang(interrupted, started), x -> {
+      if (x == 3) {
+        // fail once the hangs of all four elements in flight are running
+        started.await();
+        throw new IllegalStateException("lookup failed for " + x);
+      }
+      return x;
+    });
+
+    var thrown = assertThrows(CompletionException.class, () -> input.stream()
+        .gather(FanOutGatherers.fanOut(subtasks, JoinPolicy.failFast(),
+            (Integer x, List<Integer> parts) -> x, 4))
+        .toList());
+
+    assertInstanceOf(IllegalStateException.class, thrown.getCause());
+    assertEquals("lookup failed for 3", thrown.getCause().getMessage());
+    // every forked hang was interrupted and had ended before the stream saw the failure
+    assertEquals(4, interrupted.get());
+  }
+
+  @Test
+  @Description("A quorum joins on enough successes; a lost quorum reports every failure")
+  void quorum() {
+    var interrupted = new AtomicInteger();
+    List<Subtask<Integer, Integer>> subtasks = List.of(
+        x -> x, hang(interrupted, new CountDownLatch(0)), x -> {
+          throw new IllegalArgumentException("replica down");
+        }, x -> -x);
+
+    var result = input.stream()
+        .gather(FanOutGatherers.fanOut(subtasks, JoinPolicy.quorum(2),
+            (Integer x, List<Integer> parts) -> Arrays.toString(parts.toArray()), 16))
+        .toList();
+
+    assertEquals(input.stream().map(x -> "[" + x + ", null, null, " + -x + "]").toList(),
+        result);
+    // hangs that had started by the time of the quorum were interrupted, not waited for
+    assertTrue(interrupted.get() <= input.size());
+
+    List<Subtask<Integer, Integer>> failing = List.of(
+        _ -> {
+          throw new IllegalArgumentException("first");
+        }, _ -> {
+          throw new IllegalArgumentException("second");
+        }, x -> x);
+    var thrown = assertThrows(CompletionException.class, () -> input.stream()
+        .gather(FanOutGatherers.fanOut(failing, JoinPolicy.quorum(2),
+            (Integer x, List<Integer> parts) -> x, 4))
+        .toList());
+    assertEquals(1, thrown.getCause().getSuppressed().length);
+
+    assertEquals(List.of(0, 1), input.stream().limit(2)
+        .gather(FanOutGatherers.fanOut(
+            List.of(hang(new AtomicInteger(), new CountDownLatch(0)), x -> x),
+            JoinPolicy.anySuccessful(), (Integer x, List<Integer> parts) -> parts.get(1), 4))
+        .toList());
+  }
+
+  @Test
+  @Description("A rejecting downstream stops integration and cancels elements in flight")
+  void rejectionCancelsInFlight() {
+    var interrupted = new AtomicInteger();
+    var hanging = new CountDownLatch(2);
+    Subtask<Integer, Integer> hang = hang(interrupted, hanging);
+    List<Subtask<Integer, Integer>> subtasks = List.of(x -> switch (x) {
+      // the head completes only once elements 2 and 3 are blocked behind it
+      case 0 -> {
+        hanging.await();
+        yield x;
+      }
+      case 1 -> x;
+      default -> hang.call(x);
+    });
+    int[] integrated = {0};
+
+    var downstream = GathererTestSupport.drive(
+        FanOutGatherers.fanOut(subtasks, JoinPolicy.failFast(),
+            (Integer x, List<Integer> parts) -> parts.getFirst(), 4),
+        input, 1, integrated);
+
+    assertEquals(List.of(0), downstream.accepted);
+    assertEquals(4, integrated[0]);
+    assertEquals(2, interrupted.get());
+  }
+
+  @Test
+  @Description("A throwing downstream cancels the elements in flight before the stream fails")
+  void throwingDownstreamCancelsInFlight() {
+    var interrupted = new AtomicInteger();
+    var hanging = new CountDownLatch(3);
+    Subtask<Integer, Integer> hang = hang(interrupted, hanging);
+    List<Subtask<Integer, Integer>> subtasks = List.of(x -> {
+      if (x == 0) {
+        hanging.await();
+        return x;
+      }
+      return hang.call(x);
+    });
+
+    Gatherer.Downstream<Integer> failing = x -> {
+      throw new IllegalStateException("sink failed on " + x);
+    };
+
+    var thrown = assertThrows(IllegalStateException.class, () -> GathererTestSupport.drive(
+        FanOutGatherers.fanOut(subtasks, JoinPolicy.failFast(),
+            (Integer x, List<Integer> parts) -> parts.getFirst(), 4),
+        input, failing, new int[1]));
+
+    assertEquals("sink failed on 0", thrown.getMessage());
+    // the hangs of elements 1 to 3 were interrupted and had ended before the stream failed
+    assertEquals(3, interrupted.get());
+  }
+
+  @Test
+  @Description("Rejects empty subtask lists, unreachable quorums and non-positive bounds")
+  void validatesArguments() {
+    List<Subtask<Integer, Integer>> two = List.of(x -> x, x -> x);
+    assertThrows(IllegalArgumentException.class,
+        () -> FanOutGatherers.fanOut(List.<Subtask<Integer, Integer>>of(), (x, parts) -> x));
+    assertThrows(IllegalArgumentException.class,
+        () -> FanOutGatherers.fanOut(two, JoinPolicy.quorum(3), (x, parts) -> x, 1));
+    assertThrows(IllegalArgumentException.class,
+        () -> FanOutGatherers.fanOut(two, JoinPolicy.failFast(), (x, parts) -> x, 0));
+    assertThrows(IllegalArgumentException.class, () -> JoinPolicy.quorum(0));
+  }
+}
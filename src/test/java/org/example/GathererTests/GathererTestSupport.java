@@ -0,0 +1,71 @@
+package org.example.GathererTests;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Gatherer;
+
+/**
+ * Drives a gatherer by hand, for tests that need to see how often it was integrated and what a
+ * rejecting downstream received.
+ */
+final class GathererTestSupport {
+  private GathererTestSupport() {
+    // Utility class, prevent instantiation
+  }
+
+  /**
+   * Downstream that accepts {@code capacity} elements, like {@code .limit(capacity)}.
+   */
+  static final class LimitedDownstream<T> implements Gatherer.Downstream<T> {
+    final List<T> accepted = new ArrayList<>();
+    final int capacity;
+    int pushes;
+
+    LimitedDownstream(int capacity) {
+      this.capacity = capacity;
+    }
+
+    @Override
+    public boolean push(T element) {
+      pushes++;
+      if (accepted.size() < capacity) {
+        accepted.add(element);
+      }
+      return accepted.size() < capacity;
+    }
+
+    @Override
+    public boolean isRejecting() {
+      return accepted.size() >= capacity;
+    }
+  }
+
+  /**
+   * Runs {@code input} through {@code gatherer} into a {@link LimitedDownstream}, stopping when
+   * the integrator does, and counts the integrated elements in {@code integrated[0]}.
+   */
+  static <T, R> LimitedDownstream<R> drive(Gatherer<T, ?, R> gatherer, List<T> input,
+                                           int capacity, int[] integrated) {
+    var downstream = new LimitedDownstream<R>(capacity);
+    drive(gatherer, input, downstream, integrated);
+    return downstream;
+  }
+
+  /**
+   * Runs {@code input} through {@code untyped} into {@code downstream}, stopping when the
+   * integrator does, and counts the integrated elements in {@code integrated[0]}.
+   */
+  @SuppressWarnings("unchecked")
+  static <T, A, R> void drive(Gatherer<T, ?, R> untyped, List<T> input,
+                              Gatherer.Downstream<? super R> downstream, int[] integrated) {
+    Gatherer<T, A, R> gatherer = (Gatherer<T, A, R>) untyped;
+    A state = gatherer.initializer().get();
+    for (T element : input) {
+      integrated[0]++;
+      if (!gatherer.integrator().integrate(state, element, downstream)) {
+        break;
+      }
+    }
+    gatherer.finisher().accept(state, downstream);
+  }
+}
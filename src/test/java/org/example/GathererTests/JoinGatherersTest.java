@@ -0,0 +1,115 @@
+package org.example.GathererTests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+import jdk.jfr.Description;
+import org.example.gatherers.JoinGatherers;
+import org.example.gatherers.JoinMode;
+import org.example.gatherers.Joined;
+import org.junit.jupiter.api.Test;
+
+class JoinGatherersTest {
+  record NameWithIndex(String name, int index) {
+  }
+
+  record Score(int index, int points) {
+  }
+
+  static final List<NameWithIndex> names = List.of(
+      new NameWithIndex("A", 0),
+      new NameWithIndex("B", 1),
+      new NameWithIndex("C", 2),
+      new NameWithIndex("D", 3),
+      new NameWithIndex("E", 4));
+
+  // sorted by index; index 1 has two scores, 3 and 4 have none, 9 has no name
+  static final List<Score> scores = List.of(
+      new Score(0, 10), new Score(1, 20), new Score(1, 21), new Score(2, 30), new Score(9, 90));
+
+  static final Joined<NameWithIndex, Score> a0 = new Joined<>(names.get(0), scores.get(0));
+  static final Joined<NameWithIndex, Score> b1 = new Joined<>(names.get(1), scores.get(1));
+  static final Joined<NameWithIndex, Score> b1b = new Joined<>(names.get(1), scores.get(2));
+  static final Joined<NameWithIndex, Score> c2 = new Joined<>(names.get(2), scores.get(3));
+  static final Joined<NameWithIndex, Score> dNone = new Joined<>(names.get(3), null);
+  static final Joined<NameWithIndex, Score> eNone = new Joined<>(names.get(4), null);
+
+  static List<Joined<NameWithIndex, Score>> merge(JoinMode mode) {
+    return names.stream()
+        .gather(JoinGatherers.mergeJoin(scores, NameWithIndex::index, Score::index,
+            Comparator.<Integer>naturalOrder(), mode))
+        .toList();
+  }
+
+  static List<Joined<NameWithIndex, Score>> hash(JoinMode mode) {
+    return names.parallelStream()
+        .gather(JoinGatherers.hashJoin(scores, NameWithIndex::index, Score::index, mode))
+        .toList();
+  }
+
+  @Test
+  @Description("Merge join in all modes")
+  void mergeJoinModes() {
+    assertEquals(List.of(a0, b1, b1b, c2), merge(JoinMode.INNER));
+    assertEquals(List.of(a0, b1, b1b, c2, dNone, eNone), merge(JoinMode.LEFT));
+    assertEquals(List.of(dNone, eNone), merge(JoinMode.ANTI));
+  }
+
+  @Test
+  @Description("Hash join in all modes matches the merge join")
+  void hashJoinModes() {
+    for (JoinMode mode : JoinMode.values()) {
+      assertEquals(merge(mode), hash(mode), mode.name());
+    }
+  }
+
+  @Test
+  @Description("Hash join stops inside a key group when the downstream rejects; right nulls fail")
+  void hashJoinShortCircuitsAndRejectsNulls() {
+    assertEquals(List.of(a0, b1), names.stream()
+        .gather(JoinGatherers.hashJoin(scores, NameWithIndex::index, Score::index,
+            JoinMode.LEFT))
+        .limit(2)
+        .toList());
+    var withNull = new ArrayList<Score>(scores);
+    withNull.add(null);
+    assertThrows(NullPointerException.class, () -> JoinGatherers.hashJoin(withNull,
+        NameWithIndex::index, Score::index, JoinMode.INNER));
+  }
+
+  @Test
+  @Description("Duplicate keys on the left reuse the right group; large inputs agree")
+  void duplicatesAndLargeInputs() {
+    var left = IntStream.range(0, 20_000).map(i -> i / 2).boxed().toList();
+    var right = IntStream.range(0, 10_000).filter(i -> i % 3 == 0).boxed().toList();
+    var merged = left.stream()
+        .gather(JoinGatherers.mergeJoin(right, (Integer x) -> x, (Integer x) -> x,
+            Comparator.<Integer>naturalOrder(), JoinMode.INNER))
+        .toList();
+    var hashed = left.parallelStream()
+        .gather(JoinGatherers.hashJoin(right, (Integer x) -> x, (Integer x) -> x, JoinMode.INNER))
+        .toList();
+    assertEquals(2 * right.size(), merged.size());
+    assertEquals(merged, hashed);
+  }
+
+  @Test
+  @Description("Unsorted input is detected by the merge join")
+  void unsortedInputRejected() {
+    var reversedNames = names.reversed();
+    assertThrows(IllegalStateException.class, () -> reversedNames.stream()
+        .gather(JoinGatherers.mergeJoin(scores, NameWithIndex::index, Score::index,
+            Comparator.<Integer>naturalOrder(), JoinMode.INNER))
+        .toList());
+    // detected once the join reads past key 2
+    var unsortedScores = List.of(new Score(0, 10), new Score(2, 30), new Score(1, 20));
+    assertThrows(IllegalStateException.class, () -> names.stream()
+        .gather(JoinGatherers.mergeJoin(unsortedScores, NameWithIndex::index, Score::index,
+            Comparator.<Integer>naturalOrder(), JoinMode.INNER))
+        .toList());
+  }
+}
@@ -0,0 +1,47 @@
+package org.example.GathererTests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import jdk.jfr.Description;
+import org.example.cache.TinyLfuCache;
+import org.example.gatherers.MemoizingMapGatherer;
+import org.junit.jupiter.api.Test;
+
+class MemoizingMapGathererTest {
+  @Test
+  @Description("Repeated keys are computed once and results keep encounter order")
+  void computesEachKeyOnce() {
+    AtomicInteger calls = new AtomicInteger();
+    Function<Integer, Integer> expensiveSquare = x -> {
+      calls.incrementAndGet();
+      return x * x;
+    };
+    var cache = new TinyLfuCache<Integer, Integer>(100);
+
+    var output = IntStream.range(0, 1_000).map(i -> i % 10).boxed()
+        .gather(MemoizingMapGatherer.of(expensiveSquare, cache))
+        .toList();
+
+    assertEquals(IntStream.range(0, 1_000).map(i -> (i % 10) * (i % 10)).boxed().toList(), output);
+    assertEquals(10, calls.get());
+    assertEquals(990, cache.stats().hits());
+  }
+
+  @Test
+  @Description("Safe to use from a parallel stream")
+  void parallelStream() {
+    var output = IntStream.range(0, 10_000).map(i -> i % 37).boxed()
+        .parallel()
+        .gather(MemoizingMapGatherer.of((Integer x) -> x + 1, 16))
+        .toList();
+
+    assertEquals(10_000, output.size());
+    assertTrue(output.stream().allMatch(x -> x >= 1 && x <= 37));
+    assertEquals(List.of(1, 2, 3), output.subList(0, 3));
+  }
+}
@@ -0,0 +1,113 @@
+package org.example.GathererTests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Gatherer;
+import java.util.stream.IntStream;
+import jdk.jfr.Description;
+import org.example.gatherers.IntArrayBuffer;
+import org.example.gatherers.PooledGatherers;
+import org.example.gatherers.StatePool;
+import org.example.util.AllocationMeter;
+import org.junit.jupiter.api.Test;
+
+class PooledGatherersTest {
+  static final int SPLIT_SIZE = 256;
+  static final int SPLITS = 2_000;
+  // totals stay in the Integer cache, so boxing on push does not hide the state allocation
+  static final List<Integer> splitInput = IntStream.range(0, SPLIT_SIZE).map(_ -> 0).boxed()
+      .toList();
+
+  static final Gatherer<Integer, List<Integer>, Integer> unpooledRunningTotal =
+      Gatherer.of(
+          ArrayList::new,
+          (List<Integer> state, Integer x, Gatherer.Downstream<? super Integer> result) -> {
+            state.add(x + (state.isEmpty() ? 0 : state.getLast()));
+            return true;
+          },
+          (List<Integer> left, List<Integer> right) -> {
+            left.addAll(right.stream().map(x -> x + left.getLast()).toList());
+            return left;
+          },
+          (List<Integer> state, Gatherer.Downstream<? super Integer> downstream) ->
+              state.forEach(downstream::push));
+
+  /**
+   * Runs one split (initializer, integrator per element, finisher) on the current thread and
+   * returns the bytes it allocated.
+   */
+  @SuppressWarnings("unchecked")
+  static <A> long bytesPerSplit(Gatherer<Integer, ?, Integer> untyped) {
+    Gatherer<Integer, A, Integer> gatherer = (Gatherer<Integer, A, Integer>) untyped;
+    Gatherer.Downstream<Integer> discard = _ -> true;
+    long total = 0;
+    for (int split = 0; split < SPLITS; split++) {
+      long before = AllocationMeter.currentThreadAllocatedBytes();
+      A state = gatherer.initializer().get();
+      for (Integer x : splitInput) {
+        gatherer.integrator().integrate(state, x, discard);
+      }
+      gatherer.finisher().accept(state, discard);
+      total += AllocationMeter.currentThreadAllocatedBytes() - before;
+    }
+    return total / SPLITS;
+  }
+
+  @Test
+  @Description("Pooled running total gives the same result, sequential and parallel")
+  void sameResult() {
+    var pool = StatePool.intBuffers(16, 1 << 16);
+    var input = IntStream.rangeClosed(1, 1_000).boxed().toList();
+    var expected = input.stream().gather(unpooledRunningTotal).toList();
+
+    assertEquals(expected, input.stream().gather(PooledGatherers.runningTotal(pool)).toList());
+    assertEquals(expected,
+        input.parallelStream().gather(PooledGatherers.runningTotal(pool)).toList());
+  }
+
+  @Test
+  @Description("Per-split allocation drops once buffers are recycled")
+  void allocationPerSplitDrops() {
+    assertTrue(AllocationMeter.isSupported());
+    var pool = StatePool.intBuffers(16, 1 << 16);
+    var pooled = PooledGatherers.runningTotal(pool);
+
+    // warm up both so JIT and class loading are out of the picture
+    bytesPerSplit(unpooledRunningTotal);
+    bytesPerSplit(pooled);
+    long unpooledBytes = bytesPerSplit(unpooledRunningTotal);
+    long pooledBytes = bytesPerSplit(pooled);
+
+    System.out.println("bytes per split: unpooled=" + unpooledBytes + " pooled=" + pooledBytes);
+    assertTrue(pooledBytes * 4 < unpooledBytes,
+        () -> "pooled " + pooledBytes + " vs unpooled " + unpooledBytes);
+    assertEquals(1, pool.createdCount());
+    assertEquals(2L * SPLITS - 1, pool.reusedCount());
+  }
+
+  @Test
+  @Description("Oversized buffers are not kept and pool size per thread is bounded")
+  void retentionLimits() {
+    var pool = StatePool.intBuffers(2, 8);
+    IntArrayBuffer big = pool.acquire();
+    for (int i = 0; i < 100; i++) {
+      big.add(i);
+    }
+    assertEquals(99, big.get(99));
+    pool.release(big);
+    IntArrayBuffer next = pool.acquire();
+    assertTrue(next != big && next.isEmpty());
+    assertEquals(2, pool.createdCount());
+
+    List<IntArrayBuffer> many = IntStream.range(0, 10).mapToObj(_ -> pool.acquire()).toList();
+    many.forEach(pool::release);
+    assertEquals(4, IntStream.range(0, 10).mapToObj(_ -> pool.acquire())
+        .filter(many::contains).count());
+    assertThrows(IndexOutOfBoundsException.class, () -> next.get(0));
+    assertEquals(7, next.lastOr(7));
+  }
+}
@@ -0,0 +1,201 @@
+package org.example.GathererTests;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandles;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import jdk.jfr.Description;
+import org.example.gatherers.RecordCodec;
+import org.example.util.AllocationMeter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RecordCodecTest {
+  static final List<VenkatSubramaian.NameWithIndex> inputList = IntStream.range(0, 1_000)
+      .mapToObj(i -> new VenkatSubramaian.NameWithIndex("name-" + i, i))
+      .toList();
+
+  record Everything(boolean flag, byte b, short s, char c, int i, long l, float f, double d,
+                    String text, TimeUnit unit, VenkatSubramaian.NameWithIndex nested) {
+  }
+
+  record Unsupported(List<String> values) {
+  }
+
+  @Test
+  @Description("NameWithIndex round-trips through a ByteBuffer in a compact layout")
+  void nameWithIndexRoundTrip() {
+    var codec = RecordCodec.of(VenkatSubramaian.NameWithIndex.class);
+    assertSame(codec, RecordCodec.of(VenkatSubramaian.NameWithIndex.class));
+    var buffer = ByteBuffer.allocate(64);
+    codec.encode(new VenkatSubramaian.NameWithIndex("A", 7), buffer);
+    // 4-byte length, 1 latin-1 byte, 4-byte int
+    assertEquals(9, buffer.position());
+    assertEquals(new VenkatSubramaian.NameWithIndex("A", 7), codec.decode(buffer.flip()));
+  }
+
+  @Test
+  @Description("All supported component kinds, including nulls and non-latin text")
+  void allComponentKinds() {
+    var codec = RecordCodec.of(Everything.class, MethodHandles.lookup());
+    var values = List.of(
+        new Everything(true, (byte) -3, (short) 300, 'x', -42, Long.MIN_VALUE, 1.5f, Math.PI,
+            "plain", TimeUnit.SECONDS, new VenkatSubramaian.NameWithIndex("n", 1)),
+        new Everything(false, (byte) 0, (short) 0, '€', 0, 0L, Float.NaN, -0.0,
+            "été € 😀", null, new VenkatSubramaian.NameWithIndex(null, 2)),
+        new Everything(false, (byte) 1, (short) -1, '\0', 1, 1L, 0f, 0d,
+            null, TimeUnit.DAYS, new VenkatSubramaian.NameWithIndex("", 3)));
+    for (var order : List.of(ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN)) {
+      var buffer = ByteBuffer.allocate(1_024).order(order);
+      values.forEach(v -> codec.encode(v, buffer));
+      buffer.flip();
+      for (var expected : values) {
+        assertEquals(expected, codec.decode(buffer));
+      }
+      assertEquals(0, buffer.remaining());
+    }
+  }
+
+  @Test
+  @Description("Encoding and decoding at an offset in a MemorySegment")
+  void memorySegment() {
+    var codec = RecordCodec.of(VenkatSubramaian.NameWithIndex.class);
+    try (var arena = Arena.ofConfined()) {
+      var segment = arena.allocate(1_024);
+      long offset = 100;
+      for (var value : inputList.subList(0, 20)) {
+        offset += codec.encode(value, segment, offset);
+      }
+      offset = 100;
+      for (var expected : inputList.subList(0, 20)) {
+        assertEquals(expected, codec.decode(segment, offset));
+        long end = codec.end(segment, offset);
+        assertEquals(offset + 4 + expected.name().length() + 4, end);
+        offset = end;
+      }
+    }
+  }
+
+  @Test
+  @Description("Segments hold the bytes of a big-endian buffer, also when backed by a long[]")
+  void segmentMatchesBuffer() {
+    var codec = RecordCodec.of(Everything.class, MethodHandles.lookup());
+    var values = List.of(
+        new Everything(true, (byte) -3, (short) 300, 'x', -42, Long.MIN_VALUE, 1.5f, Math.PI,
+            "plain", TimeUnit.SECONDS, new VenkatSubramaian.NameWithIndex("n", 1)),
+        new Everything(false, (byte) 0, (short) 0, '€', 0, 0L, Float.NaN, -0.0,
+            "été € 😀", null, new VenkatSubramaian.NameWithIndex(null, 2)));
+    var buffer = ByteBuffer.allocate(1_024);
+    var segment = MemorySegment.ofArray(new long[128]);
+    long offset = 3;
+    for (var value : values) {
+      codec.encode(value, buffer);
+      offset += codec.encode(value, segment, offset);
+    }
+    assertEquals(buffer.position() + 3, offset);
+    assertArrayEquals(Arrays.copyOf(buffer.array(), buffer.position()),
+        segment.asSlice(3, buffer.position()).toArray(ValueLayout.JAVA_BYTE));
+    offset = 3;
+    for (var expected : values) {
+      assertEquals(expected, codec.decode(segment, offset));
+      offset = codec.end(segment, offset);
+    }
+    assertThrows(IndexOutOfBoundsException.class,
+        () -> codec.encode(values.getFirst(), segment, segment.byteSize() - 8));
+  }
+
+  @Test
+  @Description("Records past 2 GiB of a mapped file, and before 2 GiB more of it")
+  void segmentLargerThan2Gib(@TempDir Path dir) throws IOException {
+    var codec = RecordCodec.of(VenkatSubramaian.NameWithIndex.class);
+    long size = 3L << 30;
+    try (var channel = FileChannel.open(dir.resolve("records.bin"), StandardOpenOption.CREATE,
+        StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.SPARSE);
+         var arena = Arena.ofConfined()) {
+      var segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, size, arena);
+      for (long offset : new long[] {0, (5L << 29) + 1, size - 16}) {
+        var value = new VenkatSubramaian.NameWithIndex("far", (int) (offset >>> 20));
+        assertEquals(11, codec.encode(value, segment, offset));
+        assertEquals(value, codec.decode(segment, offset));
+        assertEquals(offset + 11, codec.end(segment, offset));
+      }
+    }
+  }
+
+  @Test
+  @Description("Batching encoder and decoder gatherers round-trip the stream in order")
+  void batchingGatherers() {
+    var codec = RecordCodec.of(VenkatSubramaian.NameWithIndex.class);
+    var batches = inputList.stream().gather(codec.encoder(64, 4_096)).toList();
+    assertEquals(16, batches.size());
+    assertEquals(inputList, batches.stream().gather(codec.decoder()).toList());
+    assertEquals(inputList, batches.parallelStream().gather(codec.decoder()).toList());
+
+    // byte-bound batches, and a record larger than a whole batch
+    var small = inputList.stream().gather(codec.encoder(1_000, 50)).toList();
+    assertTrue(small.stream().allMatch(b -> b.limit() <= 50));
+    assertEquals(inputList, small.stream().gather(codec.decoder()).toList());
+    var big = List.of(new VenkatSubramaian.NameWithIndex("x".repeat(200), 0),
+        new VenkatSubramaian.NameWithIndex("y", 1));
+    assertEquals(big, big.stream().gather(codec.encoder(10, 16)).gather(codec.decoder())
+        .toList());
+  }
+
+  @Test
+  @Description("Encoding into a reused buffer does not allocate")
+  void encodeDoesNotAllocate() {
+    assertTrue(AllocationMeter.isSupported());
+    var codec = RecordCodec.of(VenkatSubramaian.NameWithIndex.class);
+    var buffer = ByteBuffer.allocateDirect(64 * 1_024);
+    Runnable encodeAll = () -> {
+      buffer.clear();
+      for (var value : inputList) {
+        codec.encode(value, buffer);
+      }
+    };
+    for (int i = 0; i < 2_000; i++) {
+      encodeAll.run();
+    }
+    long bytes = AllocationMeter.allocatedBytes(encodeAll);
+    assertTrue(bytes < 1_024, "allocated " + bytes + " bytes for " + inputList.size());
+
+    var segment = MemorySegment.ofArray(new byte[64 * 1_024]);
+    Runnable encodeAllToSegment = () -> {
+      long offset = 0;
+      for (var value : inputList) {
+        offset += codec.encode(value, segment, offset);
+      }
+    };
+    for (int i = 0; i < 2_000; i++) {
+      encodeAllToSegment.run();
+    }
+    bytes = AllocationMeter.allocatedBytes(encodeAllToSegment);
+    assertTrue(bytes < 1_024, "allocated " + bytes + " bytes for " + inputList.size());
+  }
+
+  @Test
+  @Description("Unsupported component types and bad batch sizes are rejected")
+  void rejectsUnsupported() {
+    assertThrows(IllegalArgumentException.class,
+        () -> RecordCodec.of(Unsupported.class, MethodHandles.lookup()));
+    var codec = RecordCodec.of(VenkatSubramaian.NameWithIndex.class);
+    assertThrows(IllegalArgumentException.class, () -> codec.encoder(0, 10));
+    assertEquals(VenkatSubramaian.NameWithIndex.class, codec.type());
+  }
+}
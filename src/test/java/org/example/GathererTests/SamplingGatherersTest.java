@@ -0,0 +1,115 @@
+package org.example.GathererTests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import jdk.jfr.Description;
+import org.example.gatherers.SamplingGatherers;
+import org.junit.jupiter.api.Test;
+
+class SamplingGatherersTest {
+  static final List<Integer> inputList = IntStream.range(0, 100).boxed().toList();
+
+  static void assertUniform(int[] hits, double expected, double tolerance) {
+    for (int i = 0; i < hits.length; i++) {
+      assertTrue(Math.abs(hits[i] - expected) <= expected * tolerance,
+          "element " + i + " sampled " + hits[i] + " times, expected ~" + expected);
+    }
+  }
+
+  @Test
+  @Description("Fewer elements than k yields all of them")
+  void smallInputReturnsEverything() {
+    var sample = List.of(1, 2, 3).stream()
+        .gather(SamplingGatherers.reservoir(10, 1L))
+        .sorted()
+        .toList();
+    assertEquals(List.of(1, 2, 3), sample);
+    assertEquals(List.of(), List.<Integer>of().parallelStream()
+        .gather(SamplingGatherers.reservoir(10, 1L))
+        .toList());
+  }
+
+  @Test
+  @Description("Same seed gives the same sample sequentially, different seeds differ")
+  void reproducibleWithSeed() {
+    var first = inputList.stream().gather(SamplingGatherers.reservoir(10, 42L)).toList();
+    var second = inputList.stream().gather(SamplingGatherers.reservoir(10, 42L)).toList();
+    var other = inputList.stream().gather(SamplingGatherers.reservoir(10, 43L)).toList();
+    assertEquals(first, second);
+    assertNotEquals(first, other);
+    assertEquals(10, new HashSet<>(first).size());
+  }
+
+  @Test
+  @Description("Every element is sampled with probability k/n sequentially")
+  void sequentialSampleIsUniform() {
+    int[] hits = new int[inputList.size()];
+    int trials = 20_000;
+    for (int trial = 0; trial < trials; trial++) {
+      inputList.stream()
+          .gather(SamplingGatherers.reservoir(10, trial))
+          .forEach(i -> hits[i]++);
+    }
+    assertUniform(hits, trials * 10.0 / inputList.size(), 0.10);
+  }
+
+  @Test
+  @Description("Merged per-split reservoirs stay uniform in parallel")
+  void parallelSampleIsUniform() {
+    var input = IntStream.range(0, 200).boxed().toList();
+    int[] hits = new int[input.size()];
+    int trials = 4_000;
+    var random = new SplittableRandom(7);
+    for (int trial = 0; trial < trials; trial++) {
+      var sample = input.parallelStream()
+          .gather(SamplingGatherers.<Integer>reservoir(20, random.split()))
+          .toList();
+      assertEquals(20, new HashSet<>(sample).size());
+      sample.forEach(i -> hits[i]++);
+    }
+    assertUniform(hits, trials * 20.0 / input.size(), 0.25);
+  }
+
+  @Test
+  @Description("Skip-based sampling of long streams is unbiased")
+  void longStreamMeanIsCentered() {
+    long n = 100_000;
+    long sum = 0;
+    int count = 0;
+    for (int trial = 0; trial < 200; trial++) {
+      var sample = LongStream.range(0, n).boxed()
+          .gather(SamplingGatherers.reservoir(10, trial))
+          .toList();
+      assertEquals(10, new HashSet<>(sample).size());
+      for (long value : sample) {
+        sum += value;
+        count++;
+      }
+    }
+    assertEquals(n / 2.0, (double) sum / count, 3_000);
+  }
+
+  @Test
+  @Description("Finisher stops when downstream rejects")
+  void finisherHonoursRejection() {
+    int[] integrated = {0};
+    var downstream = GathererTestSupport.drive(
+        SamplingGatherers.reservoir(10, 5L), inputList, 3, integrated);
+    assertEquals(3, downstream.accepted.size());
+    assertEquals(3, downstream.pushes);
+  }
+
+  @Test
+  @Description("k must be positive")
+  void rejectsInvalidSize() {
+    assertThrows(IllegalArgumentException.class, () -> SamplingGatherers.reservoir(0, 1L));
+  }
+}
@@ -0,0 +1,78 @@
+package org.example.GathererTests;
+
+import static org.example.GathererTests.GathererTestSupport.drive;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Gatherer;
+import jdk.jfr.Description;
+import org.example.GathererTests.GathererTestSupport.LimitedDownstream;
+import org.example.gatherers.ShortCircuitGatherers;
+import org.junit.jupiter.api.Test;
+
+class ShortCircuitGatherersTest {
+  static final List<Integer> inputList = List.of(1, 2, 3, 4, 5);
+
+  @Test
+  @Description("Results with limit(3) are unchanged")
+  void streamResults() {
+    assertEquals(List.of(1, 2, 3),
+        inputList.stream().gather(ShortCircuitGatherers.withTrailer(11)).limit(3).toList());
+    assertEquals(List.of(1, 2, 3, 4, 5, 11),
+        inputList.stream().gather(ShortCircuitGatherers.withTrailer(11)).toList());
+    assertEquals(List.of(1, 3, 6),
+        inputList.parallelStream().gather(ShortCircuitGatherers.runningTotal()).limit(3).toList());
+    assertEquals(List.of(5, 4, 3, 2, 1),
+        inputList.parallelStream().gather(ShortCircuitGatherers.reversed()).toList());
+    assertEquals(List.of(List.of(1, 2), List.of(3, 4), List.of(5)),
+        inputList.stream().gather(ShortCircuitGatherers.windowFixed(2)).toList());
+  }
+
+  @Test
+  @Description("Trailer is not pushed into a rejecting downstream")
+  void trailerSkippedWhenRejecting() {
+    int[] integrated = {0};
+    var downstream = drive(ShortCircuitGatherers.withTrailer(11), inputList, 3, integrated);
+    assertEquals(List.of(1, 2, 3), downstream.accepted);
+    assertEquals(3, downstream.pushes);
+    assertEquals(3, integrated[0]);
+  }
+
+  @Test
+  @Description("Finisher stops pushing buffered elements after the first rejection")
+  void finisherStopsOnRejection() {
+    int[] integrated = {0};
+    var totals = drive(ShortCircuitGatherers.runningTotal(), inputList, 3, integrated);
+    assertEquals(List.of(1, 3, 6), totals.accepted);
+    assertEquals(3, totals.pushes);
+    assertEquals(5, integrated[0]);
+
+    var reversed = drive(ShortCircuitGatherers.<Integer>reversed(), inputList, 2, integrated);
+    assertEquals(List.of(5, 4), reversed.accepted);
+    assertEquals(2, reversed.pushes);
+  }
+
+  @Test
+  @Description("Integrator stops pulling upstream once the downstream rejects")
+  void integratorStopsOnRejection() {
+    int[] integrated = {0};
+    var windows = drive(ShortCircuitGatherers.<Integer>windowFixed(2),
+        List.of(1, 2, 3, 4, 5, 6, 7, 8), 1, integrated);
+    assertEquals(List.of(List.of(1, 2)), windows.accepted);
+    assertEquals(2, integrated[0]);
+    assertEquals(1, windows.pushes);
+
+    var rejecting = new LimitedDownstream<Integer>(0);
+    var state = new ArrayList<Integer>(List.of(1, 2));
+    @SuppressWarnings("unchecked")
+    var integrator = (Gatherer.Integrator<ArrayList<Integer>, Integer, Integer>)
+        ShortCircuitGatherers.runningTotal().integrator();
+    assertFalse(integrator.integrate(state, 3, rejecting));
+    assertTrue(state.isEmpty(), "buffer released");
+    assertThrows(IllegalArgumentException.class, () -> ShortCircuitGatherers.windowFixed(0));
+  }
+}
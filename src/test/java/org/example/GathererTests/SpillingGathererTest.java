@@ -0,0 +1,201 @@
+package org.example.GathererTests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import jdk.jfr.Description;
+import org.example.gatherers.ElementCodec;
+import org.example.gatherers.SpillBuffer;
+import org.example.gatherers.SpillingGatherer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SpillingGathererTest {
+  static final List<Integer> inputList = IntStream.rangeClosed(1, 5_000).boxed().toList();
+
+  static final List<Integer> expected = runningTotal(inputList);
+
+  static List<Integer> runningTotal(List<Integer> input) {
+    var totals = new ArrayList<Integer>();
+    int total = 0;
+    for (int value : input) {
+      total += value;
+      totals.add(total);
+    }
+    return totals;
+  }
+
+  @Test
+  @Description("Running total with a spilling state, same integrator/finisher as the list version")
+  void sequentialRunningTotalSpills() {
+    for (int budget : new int[] {0, 1, 100, 10_000}) {
+      var result = inputList.stream()
+          .gather(SpillingGatherer.<Integer, Integer, Integer>ofSequential(budget,
+              ElementCodec.ints(),
+              (state, element, downstream) -> {
+                var lastValue = state.isEmpty() ? 0 : state.getLast();
+                state.add(lastValue + element);
+                return true;
+              },
+              (state, downstream) -> state.forEach(downstream::push)))
+          .toList();
+      assertEquals(expected, result, "budget " + budget);
+    }
+  }
+
+  @Test
+  @Description("Parallel running total combines spilled splits in order")
+  void parallelRunningTotalSpills() {
+    List<SpillBuffer<Integer>> discarded = Collections.synchronizedList(new ArrayList<>());
+    var result = inputList.parallelStream()
+        .gather(SpillingGatherer.<Integer, Integer, Integer>of(64,
+            ElementCodec.ints(),
+            (state, element, downstream) -> {
+              var lastValue = state.isEmpty() ? 0 : state.getLast();
+              state.add(lastValue + element);
+              return true;
+            },
+            (left, right) -> {
+              if (left.isEmpty()) {
+                discarded.add(left);
+                return right;
+              }
+              int offset = left.getLast();
+              for (int value : right) {
+                left.add(value + offset);
+              }
+              discarded.add(right);
+              return left;
+            },
+            (state, downstream) -> state.forEach(downstream::push)))
+        .toList();
+    assertEquals(expected, result);
+    // the gatherer closed every buffer the combiner dropped
+    assertFalse(discarded.isEmpty());
+    discarded.forEach(buffer -> assertEquals(0L, buffer.spilledBytes()));
+  }
+
+  @Test
+  @Description("A stream that fails before the finisher leaves no mapping or spill file behind")
+  void failedStreamUnmapsSegments() throws Exception {
+    assertThrows(IllegalStateException.class, () -> inputList.stream()
+        .gather(SpillingGatherer.<Integer, Integer, Integer>ofSequential(10, ElementCodec.ints(),
+            (state, element, downstream) -> {
+              if (element == 4_000) {
+                // thousands of elements are spilled by now
+                throw new IllegalStateException("simulated failure");
+              }
+              state.add(element);
+              return true;
+            },
+            (state, downstream) -> state.forEach(downstream::push)))
+        .toList());
+
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (spillMappings() > 0 && System.nanoTime() < deadline) {
+      System.gc();
+      Thread.sleep(20);
+    }
+    assertEquals(0L, spillMappings());
+    try (Stream<Path> files = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+      assertEquals(0L, files.filter(SpillingGathererTest::isSpillFile).count());
+    }
+  }
+
+  // mapped spill segments of this JVM, from /proc where there is one
+  static long spillMappings() throws IOException {
+    Path maps = Path.of("/proc/self/maps");
+    if (!Files.exists(maps)) {
+      return 0;
+    }
+    try (Stream<String> lines = Files.lines(maps)) {
+      return lines.filter(line -> line.contains("/spill-") && line.contains(".seg")).count();
+    }
+  }
+
+  static boolean isSpillFile(Path file) {
+    String name = file.getFileName().toString();
+    return name.startsWith("spill-") && name.endsWith(".seg");
+  }
+
+  @Test
+  @Description("Only the budget stays on the heap; the rest goes to several mapped segments")
+  void keepsBudgetOnHeap(@TempDir Path tempDir) throws IOException {
+    try (var buffer = new SpillBuffer<>(10, ElementCodec.ints(), tempDir, 64)) {
+      buffer.addAll(inputList);
+      assertEquals(10, buffer.inMemorySize());
+      assertEquals(5_000L, buffer.size());
+      assertEquals(5_000, buffer.getLast());
+      // 4-byte length + 4-byte int per spilled element
+      assertEquals(8L * 4_990, buffer.spilledBytes());
+
+      var replayed = new ArrayList<Integer>();
+      buffer.forEach(replayed::add);
+      assertEquals(inputList, replayed);
+      // replay is repeatable
+      var again = new ArrayList<Integer>();
+      buffer.forEach(again::add);
+      assertEquals(inputList, again);
+      // segment files are unlinked as soon as they are mapped
+      assertEquals(0L, filesIn(tempDir));
+    }
+  }
+
+  @Test
+  @Description("Records larger than a segment get a segment of their own")
+  void oversizedRecords(@TempDir Path tempDir) {
+    var values = List.of("a", "b".repeat(200), "", "c".repeat(40), "d");
+    try (var buffer = new SpillBuffer<>(1, ElementCodec.strings(), tempDir, 32)) {
+      buffer.addAll(values);
+      var replayed = new ArrayList<String>();
+      buffer.forEach(replayed::add);
+      assertEquals(values, replayed);
+    }
+  }
+
+  @Test
+  @Description("close() empties the buffer and it can be refilled")
+  void closeResets() {
+    var buffer = new SpillBuffer<>(2, ElementCodec.longs());
+    assertThrows(NoSuchElementException.class, buffer::getLast);
+    assertThrows(NoSuchElementException.class, () -> buffer.iterator().next());
+    buffer.addAll(List.of(1L, 2L, 3L, 4L));
+    assertTrue(buffer.spilledBytes() > 0);
+    buffer.close();
+    assertTrue(buffer.isEmpty());
+    assertEquals(0L, buffer.spilledBytes());
+    assertEquals(0L, buffer.size());
+    buffer.addAll(List.of(5L, 6L, 7L));
+    var replayed = new ArrayList<Long>();
+    buffer.forEach(replayed::add);
+    assertEquals(List.of(5L, 6L, 7L), replayed);
+    buffer.close();
+  }
+
+  @Test
+  @Description("Invalid budgets are rejected")
+  void rejectsInvalidArguments() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new SpillBuffer<>(-1, ElementCodec.ints()));
+    assertThrows(IllegalArgumentException.class,
+        () -> new SpillBuffer<>(1, ElementCodec.ints(), null, 8));
+  }
+
+  static long filesIn(Path dir) throws IOException {
+    try (Stream<Path> files = Files.list(dir)) {
+      return files.count();
+    }
+  }
+}
@@ -0,0 +1,114 @@
+package org.example.MetricsTests;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Gatherer;
+import java.util.stream.IntStream;
+import jdk.jfr.Description;
+import org.example.metrics.LatencyHistogram;
+import org.example.metrics.MetricsRegistry;
+import org.junit.jupiter.api.Test;
+
+class MetricsRegistryTest {
+  static final List<Integer> inputList = IntStream.range(0, 10_000).boxed().toList();
+
+  static List<String> lines(String scrape, String prefix) {
+    return scrape.lines().filter(line -> line.startsWith(prefix)).toList();
+  }
+
+  @Test
+  @Description("Histogram buckets are cumulative with inclusive upper bounds")
+  void histogramBuckets() {
+    var histogram = new LatencyHistogram();
+    histogram.record(0);
+    histogram.record(1_000);
+    histogram.record(1_001);
+    histogram.record(7_000_000);
+    histogram.record(60_000_000_000L);
+    long[] counts = histogram.cumulativeCounts();
+    assertEquals(23, counts.length);
+    // <= 1 µs, <= 2.5 µs, ..., <= 10 ms, ..., +Inf
+    assertEquals(2, counts[0]);
+    assertEquals(3, counts[1]);
+    assertEquals(3, counts[11]);
+    assertEquals(4, counts[12]);
+    assertEquals(4, counts[21]);
+    assertEquals(5, counts[22]);
+    assertEquals(5, histogram.count());
+    assertEquals(60_007_002_001L, histogram.sumNanos());
+  }
+
+  @Test
+  @Description("Pipeline counters and stage histograms in Prometheus text format")
+  void pipelineSamples() {
+    var registry = new MetricsRegistry();
+    var metrics = registry.pipeline("squares");
+    var result = inputList.parallelStream()
+        .gather(metrics.counted())
+        .gather(metrics.timed("square", Gatherer.<Integer, Integer>of(
+            (_, element, downstream) -> downstream.push(element * element))))
+        .toList();
+    assertEquals(inputList.stream().map(i -> i * i).toList(), result);
+    assertEquals(10_000L, metrics.elements());
+    assertEquals(10_000L, metrics.stage("square").count());
+
+    String scrape = registry.scrape();
+    assertEquals(List.of("pipeline_elements_total{pipeline=\"squares\"} 10000"),
+        lines(scrape, "pipeline_elements_total{"));
+    assertTrue(scrape.contains("# TYPE pipeline_stage_latency_seconds histogram\n"));
+    var buckets = lines(scrape, "pipeline_stage_latency_seconds_bucket");
+    assertEquals(23, buckets.size());
+    assertTrue(buckets.getFirst().startsWith("pipeline_stage_latency_seconds_bucket"
+        + "{pipeline=\"squares\",stage=\"square\",le=\"0.000001\"}"), buckets.getFirst());
+    assertEquals(
+        "pipeline_stage_latency_seconds_bucket{pipeline=\"squares\",stage=\"square\",le=\"+Inf\"}"
+            + " 10000", buckets.getLast());
+    assertEquals(List.of(
+            "pipeline_stage_latency_seconds_count{pipeline=\"squares\",stage=\"square\"} 10000"),
+        lines(scrape, "pipeline_stage_latency_seconds_count"));
+    assertEquals(1, lines(scrape, "pipeline_elements_per_second{").size());
+  }
+
+  @Test
+  @Description("Label values are escaped and JVM families are present")
+  void escapingAndJvm() {
+    var registry = new MetricsRegistry();
+    registry.pipeline("a\"b\\c\nd").counted();
+    String scrape = registry.scrape();
+    assertTrue(scrape.contains("pipeline_elements_total{pipeline=\"a\\\"b\\\\c\\nd\"} 0\n"),
+        scrape);
+    assertTrue(scrape.contains("# TYPE jvm_gc_collections_total counter\n"));
+    assertTrue(scrape.contains("# TYPE jvm_gc_collection_seconds_total counter\n"));
+    assertEquals(1, lines(scrape, "jvm_allocated_bytes_total ").size());
+    assertEquals(1, lines(scrape, "jvm_allocation_rate_bytes_per_second ").size());
+    // every sample line is "name{labels} value" or "name value"
+    scrape.lines().filter(line -> !line.startsWith("#")).forEach(line ->
+        assertTrue(line.matches("[a-z_]+(\\{.*})? -?[0-9.E+-]+|.* NaN"), line));
+  }
+
+  @Test
+  @Description("The common pool is exported without registering a runner")
+  void commonPool() {
+    inputList.parallelStream().mapToLong(Integer::longValue).sum();
+    String scrape = new MetricsRegistry().scrape();
+    assertEquals(List.of("forkjoin_pool_parallelism{pool=\"common\"} "
+            + ForkJoinPool.commonPool().getParallelism()),
+        lines(scrape, "forkjoin_pool_parallelism{"));
+    assertEquals(1, lines(scrape, "forkjoin_pool_steals_total{pool=\"common\"} ").size());
+  }
+
+  @Test
+  @Description("Timed greedy gatherers stay greedy")
+  void timedKeepsGreedy() {
+    var registry = new MetricsRegistry();
+    var greedy = Gatherer.<Integer, Integer>of(
+        Gatherer.Integrator.ofGreedy((_, e, d) -> d.push(e)));
+    var timed = registry.pipeline("p").timed("s", greedy);
+    assertTrue(timed.integrator() instanceof Gatherer.Integrator.Greedy);
+    assertArrayEquals(new Integer[] {1, 2}, List.of(1, 2).stream().gather(timed).toArray());
+  }
+}
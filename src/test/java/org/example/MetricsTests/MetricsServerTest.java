@@ -0,0 +1,65 @@
+package org.example.MetricsTests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.stream.Gatherer;
+import java.util.stream.IntStream;
+import jdk.jfr.Description;
+import org.example.metrics.MetricsRegistry;
+import org.example.metrics.MetricsServer;
+import org.example.pipeline.PipelineRunner;
+import org.junit.jupiter.api.Test;
+
+class MetricsServerTest {
+  static final List<Integer> inputList = IntStream.range(0, 5_000).boxed().toList();
+
+  @Test
+  @Description("GET /metrics on localhost serves pipeline, pool and JVM metrics")
+  void scrapeOverHttp() throws Exception {
+    var registry = new MetricsRegistry();
+    var metrics = registry.pipeline("doubling");
+    try (var runner = new PipelineRunner("metrics-test", 2);
+         var server = MetricsServer.start(registry,
+             new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+         var client = HttpClient.newHttpClient()) {
+      registry.register(runner);
+      var doubling = metrics.timed("double",
+          Gatherer.<Integer, Integer>of((_, e, d) -> d.push(e * 2)));
+      runner.run(() -> inputList.parallelStream()
+          .gather(doubling)
+          .gather(metrics.counted())
+          .toList());
+
+      var uri = URI.create("http://localhost:" + server.port() + "/metrics");
+      var response = client.send(HttpRequest.newBuilder(uri).build(),
+          HttpResponse.BodyHandlers.ofString());
+      assertEquals(200, response.statusCode());
+      assertEquals("text/plain; version=0.0.4; charset=utf-8",
+          response.headers().firstValue("Content-Type").orElseThrow());
+      String body = response.body();
+      assertTrue(body.contains("pipeline_elements_total{pipeline=\"doubling\"} 5000\n"), body);
+      assertTrue(body.contains(
+          "pipeline_stage_latency_seconds_count{pipeline=\"doubling\",stage=\"double\"} 5000\n"));
+      assertTrue(body.contains("forkjoin_pool_parallelism{pool=\"metrics-test\"} 2\n"), body);
+      assertTrue(body.contains("forkjoin_pool_steals_total{pool=\"metrics-test\"} "));
+      assertTrue(body.contains("jvm_gc_collections_total{gc=\""));
+
+      var post = client.send(HttpRequest.newBuilder(uri)
+              .POST(HttpRequest.BodyPublishers.ofString("x")).build(),
+          HttpResponse.BodyHandlers.ofString());
+      assertEquals(405, post.statusCode());
+      var head = client.send(HttpRequest.newBuilder(uri)
+              .method("HEAD", HttpRequest.BodyPublishers.noBody()).build(),
+          HttpResponse.BodyHandlers.discarding());
+      assertEquals(200, head.statusCode());
+    }
+  }
+}
@@ -0,0 +1,123 @@
+package org.example.PipelineTests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Gatherer;
+import java.util.stream.IntStream;
+import jdk.jfr.Description;
+import org.example.pipeline.FusedPipeline;
+import org.junit.jupiter.api.Test;
+
+class FusedPipelineTest {
+  static final List<Integer> inputList = List.of(1, 2, 3, 4, 5);
+
+  static final Predicate<Integer> greaterThanZero = x -> x > 0;
+  static final Function<Integer, Integer> multiplyByTwo = x -> x * 2;
+  static final Function<Integer, Integer> multiplyByThree = x -> x * 3;
+  static final Predicate<Integer> lessThanHundred = x -> x < 100;
+
+  static final Gatherer<Integer, Void, Integer> onlyIntegratorGatherer =
+      Gatherer.of((Void _, Integer x, Gatherer.Downstream<? super Integer> result) ->
+          result.push(x));
+
+  static final Gatherer<Integer, List<Integer>, Integer> runningTotalGatherer =
+      Gatherer.of(
+          ArrayList::new,
+          (List<Integer> state, Integer x, Gatherer.Downstream<? super Integer> result) -> {
+            state.add(x + (state.isEmpty() ? 0 : state.getLast()));
+            return true;
+          },
+          (List<Integer> left, List<Integer> right) -> {
+            left.addAll(right.stream().map(x -> x + left.getLast()).toList());
+            return left;
+          },
+          (List<Integer> state, Gatherer.Downstream<? super Integer> downstream) ->
+              state.forEach(downstream::push));
+
+  @Test
+  @Description("Fused chain gives the same result as the stage-per-call chain")
+  void fusedMatchesUnfused() {
+    var unfused = inputList.stream()
+        .filter(greaterThanZero)
+        .map(multiplyByTwo)
+        .gather(onlyIntegratorGatherer)
+        .map(multiplyByThree)
+        .filter(lessThanHundred)
+        .limit(3)
+        .toList();
+
+    var fused = inputList.stream()
+        .gather(FusedPipeline.<Integer>start()
+            .filter(greaterThanZero)
+            .map(multiplyByTwo)
+            .gather(onlyIntegratorGatherer)
+            .map(multiplyByThree)
+            .filter(lessThanHundred)
+            .toGatherer())
+        .limit(3)
+        .toList();
+
+    assertEquals(List.of(6, 12, 18), unfused);
+    assertEquals(unfused, fused);
+  }
+
+  @Test
+  @Description("Finisher output also flows through the post-gatherer steps")
+  void fusedFinisherGatherer() {
+    var fused = inputList.parallelStream()
+        .gather(FusedPipeline.<Integer>start()
+            .map(multiplyByTwo)
+            .gather(runningTotalGatherer)
+            .map(multiplyByThree)
+            .filter(x -> x > 10)
+            .toGatherer())
+        .toList();
+
+    assertEquals(List.of(18, 36, 60, 90), fused);
+  }
+
+  @Test
+  @Description("Stateless-only pipeline and primitive int segment")
+  void statelessAndIntSegment() {
+    var fused = IntStream.rangeClosed(-3, 10).boxed()
+        .gather(FusedPipeline.<Integer>start()
+            .filter(greaterThanZero)
+            .mapToInt(Integer::intValue)
+            .map(x -> x * 2)
+            .filter(x -> x % 3 != 0)
+            .map(x -> x + 1)
+            .boxed()
+            .map(String::valueOf)
+            .toGatherer())
+        .toList();
+
+    assertEquals(List.of("3", "5", "9", "11", "15", "17", "21"), fused);
+  }
+
+  @Test
+  @Description("Int segment right after the gatherer")
+  void intSegmentAfterGatherer() {
+    var fused = inputList.stream()
+        .gather(FusedPipeline.<Integer>start()
+            .gather(runningTotalGatherer)
+            .mapToInt(Integer::intValue)
+            .filter(x -> x > 3)
+            .boxed()
+            .toGatherer())
+        .toList();
+
+    assertEquals(List.of(6, 10, 15), fused);
+  }
+
+  @Test
+  @Description("Only one stateful gatherer can be fused")
+  void secondGathererRejected() {
+    var pipeline = FusedPipeline.<Integer>start().gather(onlyIntegratorGatherer);
+    assertThrows(IllegalStateException.class, () -> pipeline.gather(onlyIntegratorGatherer));
+  }
+}
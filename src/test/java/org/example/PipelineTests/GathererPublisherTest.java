@@ -0,0 +1,148 @@
+package org.example.PipelineTests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Gatherer;
+import jdk.jfr.Description;
+import org.example.pipeline.GathererPublisher;
+import org.junit.jupiter.api.Test;
+
+class GathererPublisherTest {
+  static final List<Integer> inputList = List.of(1, 2, 3, 4, 5);
+
+  static final Gatherer<Integer, Void, Integer> multiplyByTwoGatherer =
+      Gatherer.of((Void _, Integer x, Gatherer.Downstream<? super Integer> result) ->
+          result.push(x * 2));
+
+  static final Gatherer<Integer, List<Integer>, Integer> runningTotalGatherer =
+      Gatherer.ofSequential(
+          ArrayList::new,
+          (List<Integer> state, Integer x, Gatherer.Downstream<? super Integer> result) -> {
+            state.add(x + (state.isEmpty() ? 0 : state.getLast()));
+            return true;
+          },
+          (List<Integer> state, Gatherer.Downstream<? super Integer> downstream) -> {
+            for (Integer total : state) {
+              if (!downstream.push(total)) {
+                return;
+              }
+            }
+          });
+
+  /**
+   * Requests one element at a time and optionally cancels after {@code cancelAfter} elements.
+   */
+  static final class OneByOneSubscriber implements Flow.Subscriber<Integer> {
+    final List<Integer> received = new CopyOnWriteArrayList<>();
+    final CompletableFuture<Boolean> done = new CompletableFuture<>();
+    final long firstRequest;
+    final int cancelAfter;
+    volatile boolean onVirtualThread;
+    Flow.Subscription subscription;
+
+    OneByOneSubscriber(long firstRequest, int cancelAfter) {
+      this.firstRequest = firstRequest;
+      this.cancelAfter = cancelAfter;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      this.subscription = subscription;
+      onVirtualThread = Thread.currentThread().isVirtual();
+      subscription.request(firstRequest);
+    }
+
+    @Override
+    public void onNext(Integer item) {
+      received.add(item);
+      if (received.size() == cancelAfter) {
+        subscription.cancel();
+        done.complete(false);
+      } else {
+        subscription.request(1);
+      }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      done.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+      done.complete(true);
+    }
+  }
+
+  @Test
+  @Description("Elements are delivered on demand from a virtual thread and then completed")
+  void deliversOnDemand() throws Exception {
+    var subscriber = new OneByOneSubscriber(1, Integer.MAX_VALUE);
+    new GathererPublisher<>(inputList, multiplyByTwoGatherer).subscribe(subscriber);
+
+    assertTrue(subscriber.done.get(5, TimeUnit.SECONDS));
+    assertEquals(List.of(2, 4, 6, 8, 10), subscriber.received);
+    assertTrue(subscriber.onVirtualThread);
+  }
+
+  @Test
+  @Description("Finisher output is published too")
+  void finisherIsPublished() throws Exception {
+    var subscriber = new OneByOneSubscriber(Long.MAX_VALUE, Integer.MAX_VALUE);
+    new GathererPublisher<>(inputList, runningTotalGatherer).subscribe(subscriber);
+
+    assertTrue(subscriber.done.get(5, TimeUnit.SECONDS));
+    assertEquals(List.of(1, 3, 6, 10, 15), subscriber.received);
+  }
+
+  @Test
+  @Description("Cancelling stops pulling an infinite source")
+  void cancellationStopsSource() throws Exception {
+    AtomicInteger pulled = new AtomicInteger();
+    Iterable<Integer> infinite = () -> new Iterator<>() {
+      @Override
+      public boolean hasNext() {
+        return true;
+      }
+
+      @Override
+      public Integer next() {
+        return pulled.incrementAndGet();
+      }
+    };
+    var subscriber = new OneByOneSubscriber(1, 5);
+    new GathererPublisher<>(infinite, multiplyByTwoGatherer).subscribe(subscriber);
+
+    assertFalse(subscriber.done.get(5, TimeUnit.SECONDS));
+    Thread.sleep(50);
+    assertEquals(List.of(2, 4, 6, 8, 10), subscriber.received);
+    assertTrue(pulled.get() <= 6, () -> "pulled " + pulled.get());
+  }
+
+  @Test
+  @Description("Non-positive request and failing gatherer are signalled through onError")
+  void errorsAreSignalled() {
+    var badRequest = new OneByOneSubscriber(0, Integer.MAX_VALUE);
+    new GathererPublisher<>(inputList, multiplyByTwoGatherer).subscribe(badRequest);
+    var error = badRequest.done.handle((_, t) -> t).join();
+    assertInstanceOf(IllegalArgumentException.class, error);
+
+    Gatherer<Integer, Void, Integer> failing = Gatherer.of((_, _, _) -> {
+      throw new IllegalStateException("boom");
+    });
+    var failed = new OneByOneSubscriber(1, Integer.MAX_VALUE);
+    new GathererPublisher<>(inputList, failing).subscribe(failed);
+    assertInstanceOf(IllegalStateException.class, failed.done.handle((_, t) -> t).join());
+  }
+}
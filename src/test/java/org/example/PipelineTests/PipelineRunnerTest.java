@@ -0,0 +1,97 @@
+package org.example.PipelineTests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Gatherer;
+import java.util.stream.IntStream;
+import jdk.jfr.Description;
+import org.example.pipeline.PipelineRunner;
+import org.example.pipeline.PoolStats;
+import org.example.pipeline.TenantPipelineRunners;
+import org.junit.jupiter.api.Test;
+
+class PipelineRunnerTest {
+  static final List<Integer> inputList = List.of(1, 2, 3, 4, 5);
+
+  static final Gatherer<Integer, Void, Integer> onlyIntegratorGatherer =
+      Gatherer.of((Void _, Integer x, Gatherer.Downstream<? super Integer> result) ->
+          result.push(x * 2));
+
+  @Test
+  @Description("Parallel stream started inside the runner forks into the dedicated pool")
+  void pipelineRunsOnDedicatedPool() {
+    Set<String> threadNames = ConcurrentHashMap.newKeySet();
+    try (var runner = new PipelineRunner("latency", 2)) {
+      var output = runner.run(() -> IntStream.range(0, 10_000)
+          .parallel()
+          .peek(_ -> threadNames.add(Thread.currentThread().getName()))
+          .sum());
+
+      assertEquals(49_995_000, output);
+    }
+    assertFalse(threadNames.isEmpty());
+    assertTrue(threadNames.stream().allMatch(n -> n.startsWith("latency-worker-")),
+        () -> "Unexpected threads " + threadNames);
+  }
+
+  @Test
+  @Description("Source plus gatherer shortcut keeps encounter order")
+  void runWithGatherer() {
+    try (var runner = new PipelineRunner("batch", 2)) {
+      assertEquals(List.of(2, 4, 6, 8, 10), runner.run(inputList, onlyIntegratorGatherer));
+      PoolStats stats = runner.stats();
+      assertEquals("batch", stats.name());
+      assertEquals(2, stats.parallelism());
+      assertTrue(stats.stealCount() >= 0);
+      assertTrue(stats.queuedTasks() >= 0);
+    }
+  }
+
+  @Test
+  @Description("Shut down runner rejects new pipelines")
+  void shutdownRejectsNewWork() {
+    var runner = new PipelineRunner("closing", 1);
+    assertTrue(runner.shutdown(Duration.ofSeconds(1)));
+    assertTrue(runner.isShutdown());
+    assertThrows(IllegalStateException.class, () -> runner.run(() -> 1));
+    assertThrows(IllegalArgumentException.class, () -> new PipelineRunner("bad", 0));
+  }
+
+  @Test
+  @Description("Racing close() still surfaces as IllegalStateException, never a rejection")
+  void closeRacingRun() throws InterruptedException {
+    for (int i = 0; i < 200; i++) {
+      var runner = new PipelineRunner("racing", 1);
+      var closer = Thread.ofPlatform().start(runner::close);
+      try {
+        assertEquals(1, runner.run(() -> 1));
+      } catch (IllegalStateException expected) {
+        assertTrue(runner.isShutdown());
+      }
+      closer.join();
+    }
+  }
+
+  @Test
+  @Description("Each tenant gets its own pool")
+  void tenantsAreIsolated() {
+    try (var tenants = new TenantPipelineRunners(1)) {
+      PipelineRunner a = tenants.forTenant("a");
+      PipelineRunner b = tenants.forTenant("b", 2);
+
+      assertSame(a, tenants.forTenant("a"));
+      assertNotSame(a, b);
+      assertEquals("tenant-a-worker-0", a.run(() -> Thread.currentThread().getName()));
+      assertEquals(2, tenants.stats().size());
+    }
+  }
+}
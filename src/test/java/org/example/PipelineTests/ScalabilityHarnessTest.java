@@ -0,0 +1,92 @@
+package org.example.PipelineTests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Gatherer;
+import jdk.jfr.Description;
+import org.example.pipeline.ScalabilityHarness;
+import org.example.pipeline.ScalabilityReport;
+import org.example.pipeline.ScalabilitySummary;
+import org.junit.jupiter.api.Test;
+
+class ScalabilityHarnessTest {
+  static final Gatherer<Integer, Void, Integer> onlyIntegratorGatherer =
+      Gatherer.of((Void _, Integer x, Gatherer.Downstream<? super Integer> result) ->
+          result.push(x));
+
+  static final Gatherer<Integer, List<Integer>, Integer> slowFinisherGatherer =
+      Gatherer.of(
+          ArrayList::new,
+          (List<Integer> state, Integer x, Gatherer.Downstream<? super Integer> result) ->
+              state.add(x),
+          (List<Integer> left, List<Integer> right) -> {
+            left.addAll(right);
+            return left;
+          },
+          (List<Integer> state, Gatherer.Downstream<? super Integer> downstream) -> {
+            try {
+              Thread.sleep(5);
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+            state.forEach(downstream::push);
+          });
+
+  @Test
+  @Description("Amdahl fit recovers the serial fraction of ideal curves")
+  void amdahlFit() {
+    int[] parallelism = {1, 2, 4, 8};
+    double[] perfect = {1, 2, 4, 8};
+    double[] tenPercentSerial = new double[4];
+    for (int i = 0; i < 4; i++) {
+      tenPercentSerial[i] = 1 / (0.1 + 0.9 / parallelism[i]);
+    }
+    assertEquals(0.0, ScalabilityHarness.amdahlSerialFraction(parallelism, perfect), 1e-9);
+    assertEquals(0.1, ScalabilityHarness.amdahlSerialFraction(parallelism, tenPercentSerial),
+        1e-9);
+    double[] noSpeedup = {1, 1, 1, 1};
+    assertEquals(1.0, ScalabilityHarness.amdahlSerialFraction(parallelism, noSpeedup), 1e-9);
+    assertEquals(0.0, ScalabilityHarness.amdahlSerialFraction(new int[] {1}, new double[] {1}));
+  }
+
+  @Test
+  @Description("Report covers every shape, size and parallelism and flags the slow finisher")
+  void reportShapes() {
+    ScalabilityReport report = new ScalabilityHarness(2, new int[] {100, 1_000}, 1, 3)
+        .shape("onlyIntegrator", onlyIntegratorGatherer)
+        .shape("slowFinisher", slowFinisherGatherer)
+        .run();
+
+    assertEquals(2 * 2 * 2, report.points().size());
+    assertEquals(2 * 2, report.summaries().size());
+    report.points().stream()
+        .filter(p -> p.parallelism() == 1)
+        .forEach(p -> assertEquals(1.0, p.speedup(), 1e-9));
+    ScalabilitySummary slow = report.summaries().stream()
+        .filter(s -> s.shape().equals("slowFinisher"))
+        .findFirst()
+        .orElseThrow();
+    assertEquals("finisher", slow.bottleneck());
+
+    String csv = report.toCsv();
+    System.out.println(csv);
+    assertEquals(1 + 8, csv.lines().count());
+    assertTrue(csv.startsWith("shape,inputSize,parallelism"));
+    String json = report.toJson();
+    assertTrue(json.contains("\"bottleneck\":\"finisher\""));
+    assertTrue(json.startsWith("{\"points\":[{\"shape\":\"onlyIntegrator\""));
+  }
+
+  @Test
+  @Description("Invalid configuration is rejected")
+  void invalidConfiguration() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new ScalabilityHarness(0, new int[] {1}, 0, 1));
+    assertThrows(IllegalArgumentException.class,
+        () -> new ScalabilityHarness(1, new int[0], 0, 1));
+  }
+}
@@ -0,0 +1,122 @@
+package org.example.SimdTests;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import jdk.jfr.Description;
+import org.example.simd.ArithmeticOp;
+import org.example.simd.Comparison;
+import org.example.simd.IntChunkPipeline;
+import org.example.simd.IntKernels;
+import org.example.simd.LongKernels;
+import org.junit.jupiter.api.Test;
+
+class KernelsTest {
+  // odd size so that the scalar tail is always exercised
+  static final int SIZE = 1_003;
+
+  static int[] randomInts() {
+    return new Random(42).ints(SIZE, -200, 200).toArray();
+  }
+
+  @Test
+  @Description("Vectorized int map/filter match the scalar reference for every operator")
+  void intKernelsMatchScalar() {
+    assertTrue(IntKernels.lanes() >= 1);
+    int[] src = randomInts();
+    for (ArithmeticOp op : ArithmeticOp.values()) {
+      int[] vector = new int[SIZE];
+      int[] scalar = new int[SIZE];
+      IntKernels.map(op, 3, src, vector, SIZE);
+      IntKernels.scalarMap(op, 3, src, scalar, SIZE);
+      assertArrayEquals(scalar, vector);
+    }
+    for (Comparison cmp : Comparison.values()) {
+      int[] vector = new int[SIZE];
+      int[] scalar = new int[SIZE];
+      int vectorCount = IntKernels.filter(cmp, 7, src, vector, SIZE);
+      int scalarCount = IntKernels.scalarFilter(cmp, 7, src, scalar, SIZE);
+      assertEquals(scalarCount, vectorCount, cmp.name());
+      assertArrayEquals(Arrays.copyOf(scalar, scalarCount), Arrays.copyOf(vector, vectorCount));
+    }
+  }
+
+  @Test
+  @Description("Vectorized long map/filter match the scalar reference for every operator")
+  void longKernelsMatchScalar() {
+    assertTrue(LongKernels.lanes() >= 1);
+    long[] src = new Random(7).longs(SIZE, -1_000, 1_000).toArray();
+    for (ArithmeticOp op : ArithmeticOp.values()) {
+      long[] vector = new long[SIZE];
+      long[] scalar = new long[SIZE];
+      LongKernels.map(op, 5L, src, vector, SIZE);
+      LongKernels.scalarMap(op, 5L, src, scalar, SIZE);
+      assertArrayEquals(scalar, vector);
+    }
+    for (Comparison cmp : Comparison.values()) {
+      long[] vector = src.clone();
+      long[] scalar = new long[SIZE];
+      int vectorCount = LongKernels.filter(cmp, 0L, vector, vector, SIZE);
+      int scalarCount = LongKernels.scalarFilter(cmp, 0L, src, scalar, SIZE);
+      assertEquals(scalarCount, vectorCount, cmp.name());
+      assertArrayEquals(Arrays.copyOf(scalar, scalarCount), Arrays.copyOf(vector, vectorCount));
+    }
+  }
+
+  @Test
+  @Description("Kernels reject lengths beyond the arrays")
+  void boundsAreChecked() {
+    int[] small = new int[4];
+    assertThrows(IndexOutOfBoundsException.class,
+        () -> IntKernels.map(ArithmeticOp.ADD, 1, small, new int[8], 8));
+    assertThrows(IndexOutOfBoundsException.class,
+        () -> IntKernels.filter(Comparison.EQUAL, 1, new int[8], small, 8));
+  }
+
+  @Test
+  @Description("Chunk pipeline equals x>0, x*2, x*3, x<100 over boxed elements")
+  void chunkPipelineMatchesBoxedStream() {
+    int[] data = randomInts();
+    var expected = Arrays.stream(data).boxed()
+        .filter(x -> x > 0)
+        .map(x -> x * 2)
+        .map(x -> x * 3)
+        .filter(x -> x < 100)
+        .toList();
+
+    var pipeline = IntChunkPipeline.create()
+        .filter(Comparison.GREATER_THAN, 0)
+        .map(ArithmeticOp.MULTIPLY, 2)
+        .map(ArithmeticOp.MULTIPLY, 3)
+        .filter(Comparison.LESS_THAN, 100);
+
+    assertEquals(expected, pipeline.stream(data, 64).parallel().boxed().toList());
+    assertEquals(expected, pipeline.stream(data, SIZE).boxed().toList());
+
+    var chunked = IntStream.range(0, 10)
+        .mapToObj(c -> Arrays.copyOfRange(data, c * 100, c * 100 + 100))
+        .gather(pipeline.toGatherer())
+        .flatMapToInt(Arrays::stream)
+        .boxed()
+        .toList();
+    assertEquals(expected.stream().limit(chunked.size()).toList(), chunked);
+    assertThrows(IllegalArgumentException.class, () -> pipeline.stream(data, 0));
+  }
+
+  @Test
+  @Description("Chunks filtered down to nothing are not pushed downstream")
+  void emptyChunksDropped() {
+    var pipeline = IntChunkPipeline.create().filter(Comparison.GREATER_THAN, 10);
+    var chunks = List.of(new int[] {1, 2, 3}, new int[] {11, 5, 12}).stream()
+        .gather(pipeline.toGatherer())
+        .toList();
+    assertEquals(1, chunks.size());
+    assertArrayEquals(new int[] {11, 12}, chunks.getFirst());
+  }
+}
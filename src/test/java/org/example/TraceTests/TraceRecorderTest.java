@@ -0,0 +1,86 @@
+package org.example.TraceTests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Gatherer;
+import jdk.jfr.Description;
+import org.example.trace.TraceRecorder;
+import org.junit.jupiter.api.Test;
+
+class TraceRecorderTest {
+  static final List<Integer> inputList = List.of(1, 2, 3, 4, 5);
+
+  static final Gatherer<Integer, List<Integer>, Integer>
+      initializerWithIntegratorAndCombinerAndFinisherGatherer_v2 =
+      Gatherer.of(
+          ArrayList::new,
+          (List<Integer> state, Integer x, Gatherer.Downstream<? super Integer> result) -> {
+            state.add(x + (state.isEmpty() ? 0 : state.getLast()));
+            return true;
+          },
+          (List<Integer> left, List<Integer> right) -> {
+            left.addAll(right.stream().map(x -> x + left.getLast()).toList());
+            return left;
+          },
+          (List<Integer> state, Gatherer.Downstream<? super Integer> downstream) ->
+              state.forEach(downstream::push));
+
+  static int count(String json, String regex) {
+    return (int) Pattern.compile(regex).matcher(json).results().count();
+  }
+
+  @Test
+  @Description("Traced gatherer behaves the same and records every phase with balanced spans")
+  void tracesAllPhases() {
+    var recorder = new TraceRecorder(1_024);
+    var output = inputList.parallelStream()
+        .gather(recorder.traced("runningTotal",
+            initializerWithIntegratorAndCombinerAndFinisherGatherer_v2))
+        .toList();
+    assertEquals(List.of(1, 3, 6, 10, 15), output);
+
+    String json = recorder.toChromeTraceJson();
+    System.out.println(json);
+    assertTrue(json.startsWith("{\"displayTimeUnit\":\"ns\",\"traceEvents\":["));
+    assertEquals(5, count(json, "\"runningTotal.integrator\",\"ph\":\"B\""));
+    assertEquals(1, count(json, "\"runningTotal.finisher\",\"ph\":\"B\""));
+    assertTrue(count(json, "\"runningTotal.combiner\",\"ph\":\"E\"") >= 1);
+    assertEquals(count(json, "\"ph\":\"B\""), count(json, "\"ph\":\"E\""));
+    assertTrue(count(json, "\"thread_name\"") >= 1);
+    assertEquals(0, recorder.droppedEvents());
+  }
+
+  @Test
+  @Description("Sequential gatherer stays sequential; full buffers drop balanced spans")
+  void fullBufferDropsWholeSpans() {
+    var recorder = new TraceRecorder(8);
+    Gatherer<Integer, Void, Integer> passThrough = Gatherer.ofSequential(
+        Gatherer.Integrator.ofGreedy((_, x, downstream) -> downstream.push(x)));
+    int outer = recorder.stage("outer");
+
+    recorder.begin(outer);
+    var output = inputList.stream()
+        .gather(recorder.traced("passThrough", passThrough))
+        .toList();
+    recorder.end(outer);
+
+    assertEquals(inputList, output);
+    // outer span + 3 integrator spans fill the 8 slots, the last 2 integrator spans are dropped
+    assertEquals(8, recorder.recordedEvents());
+    assertEquals(4, recorder.droppedEvents());
+    String json = recorder.toChromeTraceJson();
+    assertEquals(count(json, "\"ph\":\"B\""), count(json, "\"ph\":\"E\""));
+    assertEquals(recorder.stage("outer"), outer);
+  }
+
+  @Test
+  @Description("Buffer must hold at least one span")
+  void invalidCapacity() {
+    assertThrows(IllegalArgumentException.class, () -> new TraceRecorder(1));
+  }
+}
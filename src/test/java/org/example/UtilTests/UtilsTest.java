@@ -0,0 +1,57 @@
+package org.example.UtilTests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Random;
+import jdk.jfr.Description;
+import org.example.util.Utils;
+import org.junit.jupiter.api.Test;
+
+class UtilsTest {
+  static final DateTimeFormatter reference =
+      DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss:SSS", Locale.ROOT);
+
+  static String expected(Instant instant, ZoneOffset offset) {
+    return instant.atZone(offset).format(reference)
+        + String.format(Locale.ROOT, ":%06d", instant.getNano() % 1_000_000);
+  }
+
+  static void assertFormatted(String instant, String offset) {
+    var parsed = Instant.parse(instant);
+    var zone = ZoneOffset.of(offset);
+    assertEquals(expected(parsed, zone), Utils.formatTime(parsed, zone), instant + offset);
+  }
+
+  @Test
+  @Description("Leap days, year boundaries and negative offsets match DateTimeFormatter")
+  void calendarEdges() {
+    assertFormatted("2024-02-29T23:59:59.999999999Z", "Z");
+    assertFormatted("2024-02-29T23:30:00Z", "+01:00");
+    assertFormatted("2000-02-29T12:00:00.000001Z", "Z");
+    assertFormatted("2100-02-28T23:00:00Z", "+02:00");
+    assertFormatted("1999-12-31T23:59:59.123456789Z", "+01:00");
+    assertFormatted("2021-01-01T03:00:00Z", "-05:30");
+    assertFormatted("1970-01-01T00:00:00Z", "-12:00");
+    assertFormatted("1900-03-01T00:00:00Z", "-00:01");
+    assertEquals("01-03-2024 00:30:00:000:000000",
+        Utils.formatTime(Instant.parse("2024-02-29T23:30:00Z"), ZoneOffset.ofHours(1)));
+  }
+
+  @Test
+  @Description("Random instants from 1900 to 2400 at random offsets match DateTimeFormatter")
+  void randomInstants() {
+    var random = new Random(48);
+    long from = Instant.parse("1900-01-02T00:00:00Z").getEpochSecond();
+    long to = Instant.parse("2400-12-30T00:00:00Z").getEpochSecond();
+    for (int i = 0; i < 20_000; i++) {
+      var instant = Instant.ofEpochSecond(random.nextLong(from, to), random.nextInt(1_000_000_000));
+      var offset = ZoneOffset.ofTotalSeconds(random.nextInt(-18 * 3_600, 18 * 3_600 + 1));
+      assertEquals(expected(instant, offset), Utils.formatTime(instant, offset),
+          instant + " " + offset);
+    }
+  }
+}